@@ -0,0 +1,94 @@
+package com.kakaopay.coupon.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 코드 한 개를 만드는 비용. 여러 스레드가 CodeGenerator 하나를 같이 쓸 때 처리량이 스레드 수만큼 느는지 본다.
+ * codeCipherEncode 는 code-space 모드에서 카운터를 코드로 바꾸는 비용이다.
+ * generateCode 는 기본값(XOSHIRO256), generateCodeWell512 / generateCodeSecure 는 coupon.code.random 을 바꿨을 때의 비용이다.
+ * generateCodeLuhnFormat / validateLuhnFormat 은 검증 문자가 붙은 캠페인 형식의 생성, DB 조회 전 검증 비용이다.
+ *
+ * 할당량은 -prof gc 의 gc.alloc.rate.norm 으로 확인한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodeGeneratorBenchmark {
+
+    private final CodeGenerator codeGenerator = new CodeGenerator();
+    private final CodeGenerator well512Generator = new CodeGenerator(RandomAlgorithm.WELL512);
+    private final CodeGenerator secureGenerator = new CodeGenerator(RandomAlgorithm.SECURE);
+    private final CodeCipher codeCipher = new CodeCipher("benchmark");
+    private final AtomicLong counter = new AtomicLong();
+    private final CodeFormat luhnFormat = CodeFormat.compile("23456789ABCDEFGHJKLMNPQRSTUVWXYZ", 10, 4, '-', "PR-",
+                                                             CodeFormat.Checksum.LUHN);
+    private final String luhnCode = codeGenerator.generateCode(luhnFormat);
+
+    @Benchmark
+    @Threads(1)
+    public String generateCode() {
+        return codeGenerator.generateCode();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateCode4Threads() {
+        return codeGenerator.generateCode();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateCodeMaxThreads() {
+        return codeGenerator.generateCode();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generateCodeWell512() {
+        return well512Generator.generateCode();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generateCodeSecure() {
+        return secureGenerator.generateCode();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generateCodeLuhnFormat() {
+        return codeGenerator.generateCode(luhnFormat);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean validateLuhnFormat() {
+        return luhnFormat.isValid(luhnCode);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String codeCipherEncode() {
+        return codeCipher.encode(counter.getAndIncrement());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String codeCipherEncode4Threads() {
+        return codeCipher.encode(counter.getAndIncrement());
+    }
+}
@@ -0,0 +1,145 @@
+package com.kakaopay.coupon.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 코드 컬럼을 19자 VARCHAR 로 둘 때와 CouponCode 의 12 byte BINARY 로 둘 때의 unique index 크기와 조회 latency.
+ *
+ * H2 file DB 에 (id, code) 두 컬럼만 있는 테이블을 rows 건 채우고, unique index 를 만들기 전후의
+ * 파일 크기(SHUTDOWN COMPACT 후) 차이를 index 크기로 출력한다.
+ * lookup 은 있는 코드를 입력 문자열에서부터 찾는 비용이므로 BINARY 는 CouponCode.pack 까지 포함한다.
+ *
+ * ./gradlew jmh -Pjmh.include=CodeIndexBenchmark, 큰 테이블은 -p rows=50000000 처럼 직접 돌린다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodeIndexBenchmark {
+
+    private static final int SAMPLE_SIZE = 1 << 16;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"VARCHAR", "BINARY"})
+    private String layout;
+
+    private final CouponCode couponCode = new CouponCode();
+    private final String[] samples = new String[SAMPLE_SIZE];
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement lookup;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("code-index");
+        boolean binary = "BINARY".equals(layout);
+        try (Connection loading = open(); Statement statement = loading.createStatement()) {
+            statement.execute(binary ? "create table coupon_code (id bigint primary key, code binary(12) not null)"
+                                     : "create table coupon_code (id bigint primary key, code varchar(19) not null)");
+            fill(loading, binary);
+            statement.execute("shutdown compact");
+        }
+        long tableBytes = databaseBytes();
+        try (Connection indexing = open(); Statement statement = indexing.createStatement()) {
+            statement.execute("create unique index uk_coupon_code on coupon_code (code)");
+            statement.execute("shutdown compact");
+        }
+        long indexBytes = databaseBytes() - tableBytes;
+        System.out.printf("%n%s rows=%d table=%,d bytes index=%,d bytes (%.1f bytes/row)%n",
+                          layout, rows, tableBytes, indexBytes, (double) indexBytes / rows);
+
+        connection = open();
+        lookup = connection.prepareStatement("select id from coupon_code where code = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long lookup() throws SQLException {
+        String code = samples[ThreadLocalRandom.current().nextInt(SAMPLE_SIZE)];
+        if ("BINARY".equals(layout)) {
+            lookup.setBytes(1, couponCode.pack(code));
+        } else {
+            lookup.setString(1, code);
+        }
+        try (ResultSet result = lookup.executeQuery()) {
+            return result.next() ? result.getLong(1) : -1;
+        }
+    }
+
+    private void fill(Connection loading, boolean binary) throws SQLException {
+        CodeGenerator codeGenerator = new CodeGenerator();
+        int sampleEvery = Math.max(1, rows / SAMPLE_SIZE);
+        loading.setAutoCommit(false);
+        try (PreparedStatement insert = loading.prepareStatement("insert into coupon_code values (?, ?)")) {
+            for (int id = 0; id < rows; id++) {
+                String code = codeGenerator.generateCode();
+                if (id % sampleEvery == 0 && id / sampleEvery < SAMPLE_SIZE) {
+                    samples[id / sampleEvery] = code;
+                }
+                insert.setLong(1, id);
+                if (binary) {
+                    insert.setBytes(2, couponCode.pack(code));
+                } else {
+                    insert.setString(2, code);
+                }
+                insert.addBatch();
+                if ((id + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    loading.commit();
+                }
+            }
+            insert.executeBatch();
+            loading.commit();
+        }
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            if (samples[i] == null) {
+                samples[i] = samples[i % Math.max(1, rows / sampleEvery)];
+            }
+        }
+    }
+
+    private Connection open() throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:" + directory.resolve("bench").toAbsolutePath(), "sa", "");
+    }
+
+    private long databaseBytes() throws IOException {
+        return Files.size(directory.resolve("bench.mv.db"));
+    }
+}
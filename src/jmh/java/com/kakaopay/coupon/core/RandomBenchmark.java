@@ -0,0 +1,91 @@
+package com.kakaopay.coupon.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 난수 생성기 한 번 호출 비용. ThreadLocalRandom 은 비교 기준이다.
+ *
+ * *Bounded 는 알파벳(62) 범위의 값 하나를 RandomSource.nextInt(bound) 로 뽑는 비용이고,
+ * well512Modulo 는 치우침을 고치기 전의 Well512.next(62) (nextInt() % 62) 와 같은 계산이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomBenchmark {
+
+    private static final int ALPHABET_SIZE = 62;
+
+    private Well512 well512;
+    private Xoshiro256StarStar xoshiro;
+    private SplitMix64 splitMix;
+    private SecureRandomSource secure;
+    private LGC lgc;
+
+    @Setup
+    public void setUp() {
+        well512 = new Well512(42L);
+        xoshiro = new Xoshiro256StarStar(42L);
+        splitMix = new SplitMix64(42L);
+        secure = new SecureRandomSource();
+        lgc = new LGC(42L);
+    }
+
+    @Benchmark
+    public int well512Modulo() {
+        return (int) ((well512.nextInt() & 0xFFFFFFFFL) % ALPHABET_SIZE);
+    }
+
+    @Benchmark
+    public int well512Bounded() {
+        return well512.nextInt(ALPHABET_SIZE);
+    }
+
+    @Benchmark
+    public int well512NextInt() {
+        return well512.nextInt();
+    }
+
+    @Benchmark
+    public int xoshiro256Bounded() {
+        return xoshiro.nextInt(ALPHABET_SIZE);
+    }
+
+    @Benchmark
+    public int xoshiro256NextInt() {
+        return xoshiro.nextInt();
+    }
+
+    @Benchmark
+    public int splitMix64Bounded() {
+        return splitMix.nextInt(ALPHABET_SIZE);
+    }
+
+    @Benchmark
+    public int secureBounded() {
+        return secure.nextInt(ALPHABET_SIZE);
+    }
+
+    @Benchmark
+    public int lgcNextInt() {
+        return lgc.nextInt();
+    }
+
+    @Benchmark
+    public int threadLocalRandomNextInt() {
+        return ThreadLocalRandom.current().nextInt(ALPHABET_SIZE);
+    }
+}
@@ -0,0 +1,105 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.CouponApplication;
+import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.dto.CouponBatchResultDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 내장 H2 에 붙은 애플리케이션 컨텍스트로 발급 경로 전체(검증, 코드 생성, 중복 검사, insert)를 잰다.
+ *
+ * batch 계열은 한 번 호출에 BATCH_SIZE 건을 발급하므로 결과는 쿠폰 한 건당 시간이다.
+ * 단건 API 를 BATCH_SIZE 번 부르는 것과 createAll 한 번을 같은 단위로 비교할 수 있다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponServiceBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"CHECKED", "OPTIMISTIC"})
+    private String mode;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private CouponService couponService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CouponApplication.class)
+            .web(false)
+            .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "coupon.issue.mode=" + mode)
+            .run();
+        couponService = context.getBean(CouponService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Coupon create() {
+        return couponService.create(nextEmail());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Coupon create4Threads() {
+        return couponService.create(nextEmail());
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Coupon createOneByOne() {
+        Coupon last = null;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            last = couponService.create(nextEmail());
+        }
+        return last;
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public CouponBatchResultDTO createAll() {
+        List<String> emails = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            emails.add(nextEmail());
+        }
+        return couponService.createAll(emails);
+    }
+
+    private String nextEmail() {
+        return "user" + sequence.incrementAndGet() + "@benchmark.com";
+    }
+}
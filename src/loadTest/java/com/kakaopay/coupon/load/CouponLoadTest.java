@@ -0,0 +1,301 @@
+package com.kakaopay.coupon.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kakaopay.coupon.AcceptanceTest;
+import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.dto.CouponKey;
+import com.kakaopay.coupon.model.dto.RateLimitDTO;
+import com.kakaopay.coupon.repository.CouponRepository;
+import com.kakaopay.coupon.service.CouponService;
+import com.kakaopay.coupon.service.IssueRateLimiter;
+import io.restassured.RestAssured;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadata;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * 로컬에 띄운 애플리케이션에 부하를 걸어 latency 분포와 처리량을 재고, SLO 를 넘으면 실패한다.
+ *
+ * 캠페인 전에 노드 한 대가 감당할 수 있는 요청량을 가늠하는 용도로, ./gradlew loadTest 로 실행한다.
+ */
+@Slf4j
+@TestPropertySource(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate=WARN",
+                                  "coupon.rate-limit.enabled=false"})
+public class CouponLoadTest extends AcceptanceTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final LoadTestSettings settings = new LoadTestSettings();
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponRepository couponRepo;
+
+    @Autowired
+    private IssueRateLimiter issueRateLimiter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DataSourcePoolMetadataProvider poolMetadataProvider;
+
+    @Test
+    public void 쿠폰_발급_부하() throws Exception {
+        // given
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        String url = url("/api/v1/coupon");
+
+        // when
+        LoadResult result = LoadGenerator.of(settings).run("create", sequence -> restTemplate
+            .postForEntity(url, new HttpEntity<>("{\"email\":\"load" + sequence + "@loadtest.com\"}", headers), String.class)
+            .getStatusCode().is2xxSuccessful());
+
+        // then
+        SLO_만족(result);
+    }
+
+    @Test
+    public void 쿠폰_조회_부하() throws Exception {
+        // given
+        List<Long> ids = 쿠폰_미리_발급();
+        String url = url("/api/v1/coupon/{id}");
+
+        // when
+        LoadResult result = LoadGenerator.of(settings).run("get", sequence -> restTemplate
+            .getForEntity(url, String.class, ids.get(ThreadLocalRandom.current().nextInt(ids.size())))
+            .getStatusCode().is2xxSuccessful());
+
+        // then
+        SLO_만족(result);
+    }
+
+    @Test
+    public void 쿠폰_페이지_조회_부하() throws Exception {
+        // given
+        int pages = 쿠폰_미리_발급().size() / PAGE_SIZE;
+        String url = url("/api/v1/coupon?size={size}&page={page}");
+
+        // when
+        LoadResult result = LoadGenerator.of(settings).run("list", sequence -> restTemplate
+            .getForEntity(url, String.class, PAGE_SIZE, ThreadLocalRandom.current().nextInt(pages))
+            .getStatusCode().is2xxSuccessful());
+
+        // then
+        SLO_만족(result);
+    }
+
+    @Test
+    public void 쿠폰_커서_조회_부하() throws Exception {
+        // given
+        List<Long> ids = 쿠폰_미리_발급();
+        String url = url("/api/v1/coupons?size={size}&after={after}");
+
+        // when
+        LoadResult result = LoadGenerator.of(settings).run("slice", sequence -> restTemplate
+            .getForEntity(url, String.class, PAGE_SIZE, ids.get(ThreadLocalRandom.current().nextInt(ids.size())))
+            .getStatusCode().is2xxSuccessful());
+
+        // then
+        SLO_만족(result);
+    }
+
+    /**
+     * 같은 발급 요청을 Tomcat 스레드가 DB 를 기다리는 MVC 경로와 offload pool 로 넘기는 비동기 경로에 차례로 건다.
+     * load.compare-concurrency 를 Tomcat max-threads(기본 200) 보다 크게 두어, 요청 스레드 수와 DB connection 수,
+     * tail latency 가 어떻게 달라지는지 build/reports/load-test/compare-*.hgrm 으로 남긴다.
+     */
+    @Test
+    public void 동기_비동기_비교_부하() throws Exception {
+        // given
+        LoadGenerator generator = new LoadGenerator(settings.getInt("load.compare-concurrency"),
+                                                    settings.getLong("load.warmup-seconds"),
+                                                    settings.getLong("load.duration-seconds"),
+                                                    settings.getDouble("load.target-rate"));
+
+        // when
+        LoadResult mvc = 서버_자원과_함께_측정(generator, "compare-mvc", url("/api/v1/coupon"));
+        LoadResult async = 서버_자원과_함께_측정(generator, "compare-async", url("/api/v1/async/coupon"));
+
+        // then
+        SLO_만족(mvc);
+        SLO_만족(async);
+    }
+
+    /**
+     * 동기_비동기_비교_부하 와 같은 수의 요청을 요청 제한을 켠 발급 API 에 건다.
+     * 동시 처리 수를 load.shed-max-concurrent 로 묶고 나머지는 429 로 바로 돌려보내므로, 통과한 요청의 latency
+     * (shed-admitted) 가 DB 대기열 길이만큼 늘어나지 않는지 본다. 429 를 받은 클라이언트는 Retry-After 만큼 쉬었다가
+     * 다시 보내며, 429 는 정상 응답으로 센다. shed 의 latency 에는 쉰 시간이 들어가므로 오류율만 본다.
+     */
+    @Test
+    public void 발급_과부하_차단_부하() throws Exception {
+        // given
+        int concurrency = settings.getInt("load.compare-concurrency");
+        double rate = settings.getDouble("load.target-rate");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        String url = url("/api/v1/coupon");
+        Histogram admitted = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        AtomicLong shed = new AtomicLong();
+        AtomicLong emails = new AtomicLong();
+        LoadGenerator.Request request = sequence -> {
+            long start = System.nanoTime();
+            try {
+                boolean created = restTemplate
+                    .postForEntity(url, new HttpEntity<>("{\"email\":\"shed" + emails.incrementAndGet() + "@loadtest.com\"}", headers),
+                                   String.class)
+                    .getStatusCode().is2xxSuccessful();
+                admitted.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                return created;
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() != HttpStatus.TOO_MANY_REQUESTS) {
+                    return false;
+                }
+                shed.incrementAndGet();
+                TimeUnit.SECONDS.sleep(Long.parseLong(e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)));
+                return true;
+            }
+        };
+        issueRateLimiter.reconfigure(new RateLimitDTO(true, 1_000_000.0, 1_000_000,
+                                                      settings.getInt("load.shed-max-concurrent")));
+
+        try {
+            // when
+            new LoadGenerator(concurrency, 0, settings.getLong("load.warmup-seconds"), rate).run("shed", request);
+            admitted.reset();
+            shed.set(0);
+            LoadResult result = new LoadGenerator(concurrency, 0, settings.getLong("load.duration-seconds"), rate)
+                .run("shed", request);
+
+            // then
+            log.info("shed : {} requests rejected with 429", shed.get());
+            SLO_만족(result);
+            SLO_만족(new LoadResult("shed-admitted", admitted, admitted.getTotalCount(), 0, result.getElapsedNanos()));
+        } finally {
+            issueRateLimiter.reconfigure(new RateLimitDTO(false, null, null, null));
+        }
+    }
+
+    /**
+     * load.redeem-concurrency 개의 클라이언트가 같은 코드에 동시에 사용 요청을 보낸다.
+     * 코드는 load.redeem-per-code 건마다 다음 코드로 넘어가므로 측정 내내 모든 클라이언트가 한두 개의 코드에 몰린다.
+     * 409(already.redeemed.coupon) 는 정상 응답이다. 코드마다 200 은 한 주문에만 나가야 하고,
+     * 이긴 주문이 같은 요청을 다시 보내면 같은 결과(200)를 받아야 한다.
+     */
+    @Test
+    public void 쿠폰_동시_사용_부하() throws Exception {
+        // given
+        List<String> codes = 쿠폰_미리_발급().stream().map(id -> couponRepo.findOne(id).getCode())
+                                          .collect(Collectors.toList());
+        int perCode = settings.getInt("load.redeem-per-code");
+        LoadGenerator generator = new LoadGenerator(settings.getInt("load.redeem-concurrency"),
+                                                    settings.getLong("load.warmup-seconds"),
+                                                    settings.getLong("load.duration-seconds"),
+                                                    settings.getDouble("load.target-rate"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        String url = url("/api/v1/coupon/{code}/redeem");
+        Map<String, String> winners = new ConcurrentHashMap<>();
+        AtomicLong violations = new AtomicLong();
+
+        // when
+        LoadResult result = generator.run("redeem", sequence -> {
+            String code = codes.get((int) (sequence / perCode % codes.size()));
+            HttpEntity<String> request = new HttpEntity<>("{\"orderId\":\"order-" + sequence + "\"}", headers);
+            try {
+                Coupon redeemed = restTemplate.postForObject(url, request, Coupon.class, code);
+                Coupon retried = restTemplate.postForObject(url, request, Coupon.class, code);
+                if (winners.putIfAbsent(code, redeemed.getRedeemedOrderId()) != null
+                    || !redeemed.getRedeemedOrderId().equals("order-" + sequence)
+                    || !retried.getRedeemedOrderId().equals(redeemed.getRedeemedOrderId())) {
+                    violations.incrementAndGet();
+                }
+                return true;
+            } catch (HttpClientErrorException e) {
+                return e.getStatusCode() == HttpStatus.CONFLICT;
+            }
+        });
+
+        // then
+        log.info("redeem : {} codes redeemed", winners.size());
+        assertThat(violations.get()).isZero();
+        for (Map.Entry<String, String> winner : winners.entrySet()) {
+            assertThat(couponRepo.findByCode(winner.getKey()).getRedeemedOrderId()).isEqualTo(winner.getValue());
+        }
+        SLO_만족(result);
+    }
+
+    private LoadResult 서버_자원과_함께_측정(LoadGenerator generator, String name, String url)
+        throws InterruptedException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        DataSourcePoolMetadata pool = poolMetadataProvider.getDataSourcePoolMetadata(dataSource);
+        try (ServerSampler sampler = new ServerSampler(() -> pool.getActive() == null ? 0 : pool.getActive())) {
+            LoadResult result = generator.run(name, sequence -> restTemplate
+                .postForEntity(url, new HttpEntity<>("{\"email\":\"" + name + sequence + "@loadtest.com\"}", headers),
+                               String.class)
+                .getStatusCode().is2xxSuccessful());
+            log.info("{} : peak request threads {}, peak db connections {}", name,
+                     sampler.getPeakRequestThreads(), sampler.getPeakConnections());
+            return result;
+        }
+    }
+
+    private List<Long> 쿠폰_미리_발급() {
+        int seedSize = settings.getInt("load.seed-size");
+        List<String> emails = new ArrayList<>(seedSize);
+        for (int i = 0; i < seedSize; i++) {
+            emails.add("seed" + i + "@loadtest.com");
+        }
+        couponService.createAll(emails);
+        return couponRepo.findKeysAfter(0L, new PageRequest(0, seedSize)).stream()
+                         .map(CouponKey::getId)
+                         .collect(Collectors.toList());
+    }
+
+    private void SLO_만족(LoadResult result) throws FileNotFoundException {
+        log.info(result.summary());
+        File reportDir = new File(settings.get("load.report-dir"));
+        if (reportDir.isDirectory() || reportDir.mkdirs()) {
+            try (PrintStream out = new PrintStream(new File(reportDir, result.getName() + ".hgrm"))) {
+                out.println(result.summary());
+                result.getHistogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        assertThat(LatencySlo.of(settings, result.getName()).violations(result)).isEmpty();
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + RestAssured.port + path;
+    }
+}
@@ -0,0 +1,54 @@
+package com.kakaopay.coupon.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 시나리오별 SLO. slo.{name}.p50-ms / p99-ms / p999-ms / min-throughput / max-error-rate 로 설정하며,
+ * 설정하지 않았거나 0 인 항목은 검사하지 않는다.
+ */
+public class LatencySlo {
+
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double p999Millis;
+    private final double minThroughput;
+    private final double maxErrorRate;
+
+    public LatencySlo(double p50Millis, double p99Millis, double p999Millis, double minThroughput,
+                      double maxErrorRate) {
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.p999Millis = p999Millis;
+        this.minThroughput = minThroughput;
+        this.maxErrorRate = maxErrorRate;
+    }
+
+    public static LatencySlo of(LoadTestSettings settings, String name) {
+        String prefix = "slo." + name + ".";
+        return new LatencySlo(settings.getDouble(prefix + "p50-ms"), settings.getDouble(prefix + "p99-ms"),
+                              settings.getDouble(prefix + "p999-ms"), settings.getDouble(prefix + "min-throughput"),
+                              settings.getDouble(prefix + "max-error-rate"));
+    }
+
+    public List<String> violations(LoadResult result) {
+        List<String> violations = new ArrayList<>();
+        checkLatency(violations, result.getName() + " p50", result.percentileMillis(50), p50Millis);
+        checkLatency(violations, result.getName() + " p99", result.percentileMillis(99), p99Millis);
+        checkLatency(violations, result.getName() + " p999", result.percentileMillis(99.9), p999Millis);
+        if (minThroughput > 0 && result.throughput() < minThroughput) {
+            violations.add(String.format("%s throughput %.1f req/s < %.1f req/s",
+                                         result.getName(), result.throughput(), minThroughput));
+        }
+        if (maxErrorRate > 0 && result.errorRate() > maxErrorRate) {
+            violations.add(String.format("%s error rate %.4f > %.4f", result.getName(), result.errorRate(), maxErrorRate));
+        }
+        return violations;
+    }
+
+    private void checkLatency(List<String> violations, String label, double actual, double limit) {
+        if (limit > 0 && actual > limit) {
+            violations.add(String.format("%s %.2f ms > %.2f ms", label, actual, limit));
+        }
+    }
+}
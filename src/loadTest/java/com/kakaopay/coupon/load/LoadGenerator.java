@@ -0,0 +1,136 @@
+package com.kakaopay.coupon.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+
+/**
+ * concurrency 개의 스레드로 같은 요청을 반복하고 latency 를 HdrHistogram 에 기록한다.
+ *
+ * targetRate 가 0 이면 응답을 받자마자 다음 요청을 보내는 closed loop 이다.
+ * targetRate 를 주면 요청마다 예정된 시작 시각을 정하고, latency 를 실제 시작이 아니라 예정 시각부터 잰다.
+ * 서버가 밀려 요청을 늦게 보내게 된 시간까지 latency 에 포함되므로 coordinated omission 이 생기지 않는다.
+ */
+public class LoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * 요청 한 건. sequence 는 전체 스레드에서 유일하며, 성공이면 true 를 돌려준다.
+     */
+    public interface Request {
+        boolean call(long sequence) throws Exception;
+    }
+
+    private final int concurrency;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final double targetRate;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public LoadGenerator(int concurrency, long warmupSeconds, long durationSeconds, double targetRate) {
+        this.concurrency = concurrency;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.targetRate = targetRate;
+    }
+
+    public static LoadGenerator of(LoadTestSettings settings) {
+        return new LoadGenerator(settings.getInt("load.concurrency"), settings.getLong("load.warmup-seconds"),
+                                 settings.getLong("load.duration-seconds"), settings.getDouble("load.target-rate"));
+    }
+
+    public LoadResult run(String name, Request request) throws InterruptedException {
+        if (warmupNanos > 0) {
+            execute(name, request, warmupNanos);
+        }
+        return execute(name, request, durationNanos);
+    }
+
+    private LoadResult execute(String name, Request request, long runNanos) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        long intervalNanos = targetRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concurrency / targetRate) : 0;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long deadline = start + runNanos;
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker(request, start, deadline, intervalNanos);
+                futures.add(executor.submit(worker, worker));
+            }
+
+            Histogram histogram = new Histogram(MAX_LATENCY_MICROS, 3);
+            long requests = 0;
+            long errors = 0;
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                histogram.add(worker.histogram);
+                requests += worker.requests;
+                errors += worker.errors;
+            }
+            return new LoadResult(name, histogram, requests, errors, Math.max(1, System.nanoTime() - start));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed : " + name, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final Request request;
+        private final long start;
+        private final long deadline;
+        private final long intervalNanos;
+        private final Histogram histogram = new Histogram(MAX_LATENCY_MICROS, 3);
+        private long requests;
+        private long errors;
+
+        Worker(Request request, long start, long deadline, long intervalNanos) {
+            this.request = request;
+            this.start = start;
+            this.deadline = deadline;
+            this.intervalNanos = intervalNanos;
+        }
+
+        @Override
+        public void run() {
+            long intended = start;
+            sleepUntil(intended);
+            while (intended < deadline) {
+                if (intervalNanos > 0) {
+                    sleepUntil(intended);
+                } else {
+                    intended = System.nanoTime();
+                }
+                boolean success;
+                try {
+                    success = request.call(sequence.incrementAndGet());
+                } catch (Exception e) {
+                    success = false;
+                }
+                long end = System.nanoTime();
+                histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(end - intended), MAX_LATENCY_MICROS));
+                requests++;
+                if (!success) {
+                    errors++;
+                }
+                intended = intervalNanos > 0 ? intended + intervalNanos : end;
+            }
+        }
+
+        private void sleepUntil(long time) {
+            long remaining;
+            while ((remaining = time - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+    }
+}
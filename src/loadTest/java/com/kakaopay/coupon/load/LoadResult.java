@@ -0,0 +1,45 @@
+package com.kakaopay.coupon.load;
+
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 한 시나리오의 측정 구간 결과. latency 는 마이크로초 단위로 기록되어 있다.
+ */
+@Getter
+public class LoadResult {
+
+    private final String name;
+    private final Histogram histogram;
+    private final long requests;
+    private final long errors;
+    private final long elapsedNanos;
+
+    public LoadResult(String name, Histogram histogram, long requests, long errors, long elapsedNanos) {
+        this.name = name;
+        this.histogram = histogram;
+        this.requests = requests;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double throughput() {
+        return requests / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public double errorRate() {
+        return requests == 0 ? 0 : errors / (double) requests;
+    }
+
+    public String summary() {
+        return String.format("%s : requests %d, errors %d, throughput %.1f req/s, "
+                             + "p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms",
+                             name, requests, errors, throughput(), percentileMillis(50), percentileMillis(99),
+                             percentileMillis(99.9), histogram.getMaxValue() / 1000.0);
+    }
+}
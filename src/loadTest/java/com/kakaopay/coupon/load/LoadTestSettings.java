@@ -0,0 +1,46 @@
+package com.kakaopay.coupon.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * load-test.properties 의 기본값을 시스템 프로퍼티(-Dload.concurrency=32 등)로 덮어쓴다.
+ */
+public class LoadTestSettings {
+
+    private static final String RESOURCE = "/load-test.properties";
+
+    private final Properties properties = new Properties();
+
+    public LoadTestSettings() {
+        try (InputStream in = LoadTestSettings.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Fail to read " + RESOURCE, e);
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("load.") || key.startsWith("slo.")) {
+                properties.setProperty(key, System.getProperty(key));
+            }
+        }
+    }
+
+    public String get(String key) {
+        return properties.getProperty(key);
+    }
+
+    public int getInt(String key) {
+        return Integer.parseInt(properties.getProperty(key, "0").trim());
+    }
+
+    public long getLong(String key) {
+        return Long.parseLong(properties.getProperty(key, "0").trim());
+    }
+
+    public double getDouble(String key) {
+        return Double.parseDouble(properties.getProperty(key, "0").trim());
+    }
+}
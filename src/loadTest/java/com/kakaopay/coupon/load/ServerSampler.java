@@ -0,0 +1,63 @@
+package com.kakaopay.coupon.load;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * 부하를 거는 동안 서버 쪽 자원 사용량을 주기적으로 읽어 최댓값을 남긴다.
+ *
+ * 같은 JVM 에 떠 있는 애플리케이션이므로 요청 처리 스레드는 DispatcherServlet 을 실행 중인 Tomcat 스레드로 세고,
+ * DB connection 은 pool 의 active 수를 읽는다. 비동기 요청이 offload pool 에서 기다리는 동안에는 세지 않는다.
+ */
+public class ServerSampler implements AutoCloseable {
+
+    private static final long INTERVAL_MILLIS = 5;
+    private static final String DISPATCHER = "org.springframework.web.servlet.DispatcherServlet";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger peakRequestThreads = new AtomicInteger();
+    private final AtomicInteger peakConnections = new AtomicInteger();
+
+    public ServerSampler(IntSupplier activeConnections) {
+        scheduler.scheduleAtFixedRate(() -> {
+            peakRequestThreads.accumulateAndGet(requestThreads(), Math::max);
+            peakConnections.accumulateAndGet(activeConnections.getAsInt(), Math::max);
+        }, 0, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public int getPeakRequestThreads() {
+        return peakRequestThreads.get();
+    }
+
+    public int getPeakConnections() {
+        return peakConnections.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static int requestThreads() {
+        int count = 0;
+        for (Map.Entry<Thread, StackTraceElement[]> entry : Thread.getAllStackTraces().entrySet()) {
+            if (entry.getKey().getName().startsWith("http-nio-") && inDispatcher(entry.getValue())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean inDispatcher(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (DISPATCHER.equals(frame.getClassName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package com.kakaopay.coupon.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.Collections;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfiguration {
+
+    /**
+     * 비동기 API 가 JDBC 호출을 넘기는 고정 크기 pool. 요청 스레드는 이 pool 에 일을 넘기고 바로 반환된다.
+     * 실행 중/대기 작업 수는 executor.*{name=coupon.offload} 로 내보낸다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor couponOffloadExecutor(AsyncProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("coupon-offload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "coupon.offload", Collections.emptyList())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package com.kakaopay.coupon.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.async")
+public class AsyncProperties {
+
+    /**
+     * DB 작업을 맡는 스레드 수. connection pool 크기를 넘기면 스레드가 connection 을 기다리기만 하므로 그 이하로 둔다.
+     */
+    private int poolSize = 20;
+    /**
+     * 스레드를 기다리는 요청 수의 상한. 넘치면 503 으로 바로 거절한다.
+     */
+    private int queueCapacity = 2000;
+    /**
+     * 응답을 기다리는 최대 시간. 넘으면 503 으로 응답한다.
+     */
+    private long timeoutMillis = 5000;
+}
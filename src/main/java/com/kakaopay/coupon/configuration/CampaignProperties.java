@@ -0,0 +1,24 @@
+package com.kakaopay.coupon.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.campaign")
+public class CampaignProperties {
+
+    /**
+     * 캠페인 재고를 나눠 담는 칸 수. 동시에 발급하는 스레드 수에 가깝게 둔다.
+     */
+    private int stockStripes = 16;
+    /**
+     * 노드가 캠페인 행에서 한 번에 가져가는 수량. 클수록 행 갱신이 드물고, 노드가 죽으면 남은 만큼 덜 발급된다.
+     */
+    private long leaseSize = 100;
+    /**
+     * 품절로 본 뒤 캠페인 행을 다시 확인하기까지의 시간. 다른 노드가 내려가며 돌려준 수량을 이만큼 늦게 본다.
+     */
+    private long soldOutRecheckSeconds = 10;
+}
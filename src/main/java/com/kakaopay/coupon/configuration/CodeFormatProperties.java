@@ -0,0 +1,39 @@
+package com.kakaopay.coupon.configuration;
+
+import com.kakaopay.coupon.core.CodeFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.code")
+public class CodeFormatProperties {
+
+    /**
+     * 캠페인이 이름으로 고르는 코드 형식. 캠페인에 형식이 없으면 기본 형식(62진수 16자리)을 쓴다.
+     */
+    private Map<String, Format> formats = new LinkedHashMap<>();
+
+    @Data
+    public static class Format {
+        /**
+         * 저장된 코드에 들어가는 번호(1~100). 발급을 시작한 뒤에는 id 와 나머지 정의를 바꾸면 안 된다.
+         */
+        private int id;
+        private String alphabet;
+        /**
+         * 검증 문자를 뺀 심볼 수
+         */
+        private int length;
+        /**
+         * 심볼 몇 개마다 separator 를 넣을지. 0 이면 넣지 않는다.
+         */
+        private int group;
+        private char separator = '-';
+        private String prefix = "";
+        private CodeFormat.Checksum checksum = CodeFormat.Checksum.NONE;
+    }
+}
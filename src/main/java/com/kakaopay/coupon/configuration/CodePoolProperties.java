@@ -0,0 +1,34 @@
+package com.kakaopay.coupon.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.code-pool")
+public class CodePoolProperties {
+
+    /**
+     * false 이면 발급할 때마다 코드를 만들고 existsByCode 로 충돌을 확인한다.
+     */
+    private boolean enabled = false;
+    /**
+     * 메모리에 유지할 예약 코드 수
+     */
+    private int size = 10000;
+    /**
+     * 남은 코드가 이 값 아래로 내려가면 백그라운드 refill 을 시작한다.
+     */
+    private int lowWatermark = 2000;
+    private int refillParallelism = 2;
+    /**
+     * refill 한 트랜잭션에서 예약하는 코드 수
+     */
+    private int refillBatchSize = 500;
+    /**
+     * 예약 코드를 소유하는 노드 이름. 재시작 시 같은 이름의 코드를 다시 불러오므로 노드마다 달라야 한다.
+     * 비우면 "hostname:server.port" 를 쓴다.
+     */
+    private String owner;
+}
@@ -0,0 +1,25 @@
+package com.kakaopay.coupon.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.code-space")
+public class CodeSpaceProperties {
+
+    /**
+     * true 이면 빌려 온 카운터 구간을 키로 치환해 코드를 만들고, 코드 중복 확인 쿼리를 하지 않는다.
+     * code-pool 과 함께 켤 수 없다.
+     */
+    private boolean enabled = false;
+    /**
+     * 치환 키. 모든 노드가 같은 값을 써야 하고, 한 번 발급을 시작한 뒤에는 바꾸면 안 된다.
+     */
+    private String key;
+    /**
+     * 구간을 빌린 노드 이름. 기록용이다.
+     */
+    private String owner = "default";
+}
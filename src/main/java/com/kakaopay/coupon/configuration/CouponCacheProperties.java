@@ -0,0 +1,21 @@
+package com.kakaopay.coupon.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.cache")
+public class CouponCacheProperties {
+
+    private boolean enabled = true;
+    /**
+     * id, email, code 캐시 각각의 최대 항목 수
+     */
+    private long maximumSize = 100_000;
+    /**
+     * 다른 노드에서 사용 처리된 쿠폰이 이 노드에서 사용 전으로 보일 수 있는 최대 시간이기도 하다.
+     */
+    private long expireAfterWriteSeconds = 600;
+}
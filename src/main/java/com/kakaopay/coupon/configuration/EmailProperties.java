@@ -0,0 +1,30 @@
+package com.kakaopay.coupon.configuration;
+
+import java.util.Arrays;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이메일 정규화 설정. 발급이 시작된 뒤에 바꾸면 이미 발급된 이메일과 정규화 결과가 달라지므로 바꾸지 않는다.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.email")
+public class EmailProperties {
+
+    /**
+     * 아래 도메인별 규칙을 적용한다.
+     */
+    private boolean providerRules = false;
+    /**
+     * local part 의 '.' 을 무시하는 도메인
+     */
+    private List<String> dotInsensitiveDomains = Arrays.asList("gmail.com", "googlemail.com");
+    /**
+     * local part 의 '+' 뒤 태그를 무시하는 도메인
+     */
+    private List<String> subAddressDomains = Arrays.asList("gmail.com", "googlemail.com", "outlook.com",
+                                                            "hotmail.com");
+}
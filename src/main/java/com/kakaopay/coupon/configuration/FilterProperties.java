@@ -0,0 +1,30 @@
+package com.kakaopay.coupon.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이메일/코드 Bloom filter 설정.
+ *
+ * filter 하나의 크기는 -n * ln(p) / (ln 2)^2 bit 이다.
+ * 쿠폰 1억 건을 1% 오탐으로 잡으면 filter 하나에 약 114MiB, 이메일과 코드 두 개에 약 229MiB 가 필요하다.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.filter")
+public class FilterProperties {
+
+    private boolean enabled = true;
+    private long expectedInsertions = 10_000_000L;
+    private double falsePositiveProbability = 0.01;
+    /**
+     * 재구성 시 한 번에 읽는 쿠폰 수
+     */
+    private int rebuildPageSize = 10_000;
+    /**
+     * 재구성 시작 이 시간(초) 전부터 만들어진 쿠폰은 스캔이 끝난 뒤 한 번 더 읽는다.
+     * 스캔이 지나간 뒤에 커밋된 쿠폰이 새 filter 에서 빠지지 않게 하기 위함이다.
+     */
+    private int rebuildCatchUpSeconds = 60;
+}
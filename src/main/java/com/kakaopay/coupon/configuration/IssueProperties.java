@@ -0,0 +1,18 @@
+package com.kakaopay.coupon.configuration;
+
+import com.kakaopay.coupon.model.IssueMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.issue")
+public class IssueProperties {
+
+    private IssueMode mode = IssueMode.CHECKED;
+    /**
+     * 같은 이메일로 동시에 들어온 발급 요청을 하나로 합친다. 합쳐진 요청은 먼저 온 요청과 같은 결과를 받는다.
+     */
+    private boolean coalesce = true;
+}
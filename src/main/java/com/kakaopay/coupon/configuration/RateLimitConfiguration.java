@@ -0,0 +1,57 @@
+package com.kakaopay.coupon.configuration;
+
+import com.kakaopay.coupon.service.IssueRateLimiter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+@Configuration
+public class RateLimitConfiguration {
+
+    private static final String PERMIT = IssueRateLimiter.Permit.class.getName();
+    private static final String[] ISSUE_PATHS = {
+        "/api/v1/coupon", "/api/v1/async/coupon", "/api/v1/coupons/batch", "/api/v1/coupons/import",
+        "/api/v1/coupons/import/*"
+    };
+
+    /**
+     * 쿠폰을 발급하는 POST 요청은 body 를 읽기 전에 요청 제한을 검사한다. 거절할 요청에 JSON 파싱과 검증 비용을 쓰지 않기 위함이다.
+     * 거절은 RateLimitedException 으로 ErrorController 가 429 로 응답하고, 통과한 자리는 응답을 쓴 뒤에 돌려준다.
+     *
+     * 비동기 요청은 결과가 나오면 같은 interceptor 를 한 번 더 거치므로(ASYNC dispatch), 자리가 이미 있으면 다시 잡지 않고
+     * 그 dispatch 가 끝날 때 돌려준다.
+     */
+    @Bean
+    public WebMvcConfigurer rateLimitConfigurer(IssueRateLimiter issueRateLimiter) {
+        return new WebMvcConfigurerAdapter() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptorAdapter() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        if (HttpMethod.POST.matches(request.getMethod()) && request.getAttribute(PERMIT) == null) {
+                            request.setAttribute(PERMIT, issueRateLimiter.acquire(issueRateLimiter.clientOf(request)));
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                                Object handler, Exception ex) {
+                        Object permit = request.getAttribute(PERMIT);
+                        if (permit != null) {
+                            request.removeAttribute(PERMIT);
+                            ((IssueRateLimiter.Permit) permit).close();
+                        }
+                    }
+                }).addPathPatterns(ISSUE_PATHS);
+            }
+        };
+    }
+}
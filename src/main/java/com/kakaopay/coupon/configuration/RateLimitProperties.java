@@ -0,0 +1,38 @@
+package com.kakaopay.coupon.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 발급 API 요청 제한 설정.
+ *
+ * enabled, permitsPerSecond, burst, maxConcurrent 는 IssueRateLimiter.reconfigure 로 실행 중에 바뀔 수 있어
+ * 요청 스레드가 바로 보도록 volatile 로 둔다.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.rate-limit")
+public class RateLimitProperties {
+
+    private volatile boolean enabled = true;
+    /**
+     * 클라이언트(API key, 없으면 IP)마다 초당 채워지는 발급 요청 수
+     */
+    private volatile double permitsPerSecond = 20;
+    /**
+     * 클라이언트가 쉬었다가 한꺼번에 보낼 수 있는 요청 수
+     */
+    private volatile int burst = 40;
+    /**
+     * 동시에 처리하는 발급 요청 수. DB connection pool 보다 작게 두어 넘는 요청은 기다리지 않고 바로 거절한다.
+     */
+    private volatile int maxConcurrent = 64;
+    private String apiKeyHeader = "X-API-Key";
+    /**
+     * 버킷을 들고 있는 클라이언트 수 상한과, 요청이 없으면 버킷을 버리는 시간.
+     * burst / permitsPerSecond 초 이상 쉰 버킷은 가득 찬 상태라 버려도 다시 만들 때와 같다.
+     */
+    private long maxClients = 100_000;
+    private long clientIdleSeconds = 600;
+}
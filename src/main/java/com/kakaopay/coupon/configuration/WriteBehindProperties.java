@@ -0,0 +1,29 @@
+package com.kakaopay.coupon.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * 저널 segment 와 checkpoint 를 두는 디렉터리. 노드마다 따로 두어야 한다.
+     */
+    private String directory = "data/journal";
+    private int segmentSize = 64 * 1024 * 1024;
+    /**
+     * 한 트랜잭션으로 insert 하는 최대 건수.
+     */
+    private int batchSize = 1000;
+    /**
+     * batch 가 차지 않아도 이 시간이 지나면 저장한다.
+     */
+    private long flushIntervalMillis = 50;
+    /**
+     * DB 에 아직 저장되지 않은 발급 건수의 상한. 넘으면 발급 요청이 기다린다.
+     */
+    private int queueCapacity = 100_000;
+}
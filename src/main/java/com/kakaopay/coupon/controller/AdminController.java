@@ -0,0 +1,27 @@
+package com.kakaopay.coupon.controller;
+
+import com.kakaopay.coupon.model.dto.RateLimitDTO;
+import com.kakaopay.coupon.service.IssueRateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    private final IssueRateLimiter issueRateLimiter;
+
+    /**
+     * 지금 적용 중인 발급 API 요청 제한. 이 API 에는 인증이 없으므로 값은 JMX 로만 바꾼다.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/rate-limit", method = RequestMethod.GET)
+    public RateLimitDTO getRateLimit() {
+        return issueRateLimiter.current();
+    }
+}
@@ -0,0 +1,60 @@
+package com.kakaopay.coupon.controller;
+
+import com.kakaopay.coupon.configuration.AsyncProperties;
+import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.dto.CouponCreateDTO;
+import com.kakaopay.coupon.service.AsyncCouponService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import javax.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * /api/v1/coupon 과 같은 요청/응답을 servlet 비동기 처리로 제공한다.
+ *
+ * 요청 스레드는 DB 작업을 couponOffloadExecutor 에 넘기고 바로 돌아가므로, 동시에 처리 중인 요청 수가
+ * Tomcat 스레드 수가 아니라 connection 수(server.tomcat.max-connections)와 대기열 크기로 정해진다.
+ * 예외는 CompletionException 을 벗겨 ErrorController 가 동기 API 와 같은 응답을 만들게 한다.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/async")
+public class AsyncCouponController {
+
+    private final AsyncCouponService asyncCouponService;
+    private final AsyncProperties asyncProperties;
+
+    @RequestMapping(value = "/coupon/{id}", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<Coupon>> getCoupon(@PathVariable Long id) {
+        return defer(asyncCouponService.get(id), coupon -> HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/coupon/code/{code}", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<Coupon>> getCouponByCode(@PathVariable String code) {
+        return defer(asyncCouponService.getByCode(code), coupon -> HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/coupon", method = RequestMethod.POST, consumes = "application/json; charset=UTF-8")
+    public DeferredResult<ResponseEntity<Coupon>> createCoupon(@RequestBody @Valid CouponCreateDTO couponCreateDTO) {
+        return defer(asyncCouponService.create(couponCreateDTO),
+                     coupon -> coupon.getId() == null ? HttpStatus.ACCEPTED : HttpStatus.CREATED);
+    }
+
+    private DeferredResult<ResponseEntity<Coupon>> defer(CompletableFuture<Coupon> future,
+                                                         Function<Coupon, HttpStatus> status) {
+        DeferredResult<ResponseEntity<Coupon>> result = new DeferredResult<>(asyncProperties.getTimeoutMillis());
+        future.whenComplete((coupon, e) -> {
+            if (e != null) {
+                result.setErrorResult(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } else {
+                result.setResult(new ResponseEntity<>(coupon, status.apply(coupon)));
+            }
+        });
+        return result;
+    }
+}
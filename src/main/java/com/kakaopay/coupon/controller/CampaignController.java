@@ -0,0 +1,31 @@
+package com.kakaopay.coupon.controller;
+
+import com.kakaopay.coupon.model.Campaign;
+import com.kakaopay.coupon.model.dto.CampaignCreateDTO;
+import com.kakaopay.coupon.service.CampaignService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 선착순 캠페인 등록/조회. 캠페인 쿠폰은 POST /api/v1/coupon 에 campaignId 를 넣어 발급한다.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1")
+public class CampaignController {
+
+    private final CampaignService campaignService;
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @RequestMapping(value = "/campaigns", method = RequestMethod.POST, consumes = "application/json; charset=UTF-8")
+    public Campaign createCampaign(@RequestBody CampaignCreateDTO campaignCreateDTO) {
+        return campaignService.create(campaignCreateDTO);
+    }
+
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/campaigns/{id}", method = RequestMethod.GET)
+    public Campaign getCampaign(@PathVariable Long id) {
+        return campaignService.get(id);
+    }
+}
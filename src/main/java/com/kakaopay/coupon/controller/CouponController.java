@@ -1,16 +1,38 @@
 package com.kakaopay.coupon.controller;
 
+import com.kakaopay.coupon.model.dto.CouponBatchCreateDTO;
+import com.kakaopay.coupon.model.dto.CouponBatchResultDTO;
 import com.kakaopay.coupon.model.dto.CouponCreateDTO;
+import com.kakaopay.coupon.model.dto.CouponCursor;
+import com.kakaopay.coupon.model.dto.CouponRedeemDTO;
+import com.kakaopay.coupon.model.dto.CouponSliceDTO;
 import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.ImportJob;
+import com.kakaopay.coupon.service.CouponExportService;
+import com.kakaopay.coupon.service.CouponImportService;
 import com.kakaopay.coupon.service.CouponService;
+import com.kakaopay.coupon.service.ExportFormat;
+import com.kakaopay.coupon.service.ImportFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -19,6 +41,8 @@ import javax.validation.Valid;
 public class CouponController {
 
     private final CouponService couponService;
+    private final CouponImportService couponImportService;
+    private final CouponExportService couponExportService;
 
     @ResponseStatus(HttpStatus.OK)
     @RequestMapping(value = "/coupon/{id}", method = RequestMethod.GET)
@@ -26,6 +50,12 @@ public class CouponController {
         return couponService.get(id);
     }
 
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/coupon/code/{code}", method = RequestMethod.GET)
+    public Coupon getCouponByCode(@PathVariable String code) {
+        return couponService.getByCode(code);
+    }
+
     @ResponseStatus(HttpStatus.OK)
     @RequestMapping(value = "/coupon", method = RequestMethod.GET)
     public Page<Coupon> getCouponListWithPage(Pageable pageable) {
@@ -33,9 +63,87 @@ public class CouponController {
         return couponService.getList(pageable);
     }
 
-    @ResponseStatus(HttpStatus.CREATED)
+    /**
+     * offset 페이지 대신 cursor 로 이어서 읽는다. 첫 페이지는 cursor 없이, 이후에는 응답의 next 를 넘긴다.
+     * id 정렬에서는 after={id} 로 시작 위치를 직접 지정할 수도 있다.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/coupons", method = RequestMethod.GET)
+    public CouponSliceDTO getCouponSlice(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) String sort,
+                                         @RequestParam(defaultValue = "20") int size) {
+        CouponCursor position = cursor != null ? CouponCursor.decode(cursor) :
+            after != null ? CouponCursor.afterId(after) : null;
+        CouponCursor.Sort order = position != null && sort == null ? position.getSort() : CouponCursor.Sort.of(sort);
+        return couponService.getSlice(position, order, size);
+    }
+
+    /**
+     * 전체 쿠폰을 NDJSON(기본) 또는 CSV(format=csv) 로 내려준다. 응답을 버퍼에 모으지 않고 읽는 대로 쓴다.
+     */
+    @RequestMapping(value = "/coupon/export", method = RequestMethod.GET)
+    public void exportCoupons(@RequestParam(required = false) String format,
+                              HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                           "attachment; filename=\"coupons." + exportFormat.name().toLowerCase() + "\"");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        couponExportService.export(writer, exportFormat);
+    }
+
+    /**
+     * WRITE_BEHIND 모드에서 아직 DB 에 저장되지 않은 쿠폰(id 없음)은 202 로 응답한다.
+     * 요청 제한(coupon.rate-limit)은 body 를 읽기 전에 RateLimitConfiguration 의 interceptor 가 검사한다.
+     */
     @RequestMapping(value = "/coupon", method = RequestMethod.POST, consumes = "application/json; charset=UTF-8")
-    public Coupon createCoupon(@RequestBody @Valid CouponCreateDTO couponCreateDTO) {
-        return couponService.create(couponCreateDTO);
+    public ResponseEntity<Coupon> createCoupon(@RequestBody @Valid CouponCreateDTO couponCreateDTO) {
+        Coupon coupon = couponService.create(couponCreateDTO);
+        return new ResponseEntity<>(coupon, coupon.getId() == null ? HttpStatus.ACCEPTED : HttpStatus.CREATED);
+    }
+
+    /**
+     * 같은 orderId 로 다시 요청하면 처음 사용했을 때와 같은 쿠폰으로 200 을 응답한다.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/coupon/{code}/redeem", method = RequestMethod.POST,
+                    consumes = "application/json; charset=UTF-8")
+    public Coupon redeemCoupon(@PathVariable String code, @RequestBody CouponRedeemDTO couponRedeemDTO) {
+        return couponService.redeem(code, couponRedeemDTO.getOrderId());
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @RequestMapping(value = "/coupons/batch", method = RequestMethod.POST, consumes = "application/json; charset=UTF-8")
+    public CouponBatchResultDTO createCoupons(@RequestBody @Valid CouponBatchCreateDTO couponBatchCreateDTO) {
+        return couponService.createAll(couponBatchCreateDTO.getEmails());
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @RequestMapping(value = "/coupons/import", method = RequestMethod.POST)
+    public ImportJob createImportJob() {
+        return couponImportService.createJob();
+    }
+
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/coupons/import/{jobId}", method = RequestMethod.GET)
+    public ImportJob getImportJob(@PathVariable Long jobId) {
+        return couponImportService.getJob(jobId);
+    }
+
+    /**
+     * body 를 @RequestBody 로 받지 않고 InputStream 에서 줄 단위로 읽는다.
+     * 같은 jobId 로 같은 파일을 다시 올리면 마지막으로 커밋된 chunk 다음 줄부터 이어서 처리한다.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/coupons/import/{jobId}", method = RequestMethod.POST,
+                    consumes = {"text/csv", "text/plain", ImportFormat.NDJSON_VALUE})
+    public ImportJob importCoupons(@PathVariable Long jobId, HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() == null ?
+            StandardCharsets.UTF_8 : Charset.forName(request.getCharacterEncoding());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+        return couponImportService.importLines(jobId, reader, ImportFormat.of(request.getContentType()));
     }
 }
@@ -0,0 +1,97 @@
+package com.kakaopay.coupon.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * https://en.wikipedia.org/wiki/Bloom_filter
+ *
+ * 문자열 전용 Bloom filter. mightContain 이 false 면 한 번도 put 되지 않은 값이다.
+ *
+ * bit 배열은 AtomicLongArray 에 두고 CAS 로 bit 를 세우므로 lock 없이 여러 스레드가 동시에 put 할 수 있다.
+ * k 개의 인덱스는 64bit 해시 하나를 둘로 나눠 h1 + i * h2 로 만든다. (Kirsch-Mitzenmacher)
+ *
+ * 크기 산정
+ * m = -n * ln(p) / (ln 2)^2, k = m / n * ln 2
+ * n = 1억, p = 1% 이면 m = 958,505,838 bit (약 114MiB), k = 7
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+    private final LongAdder insertions = new LongAdder();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long size = optimalBitSize(expectedInsertions, falsePositiveProbability);
+        this.bits = new AtomicLongArray((int) ((size + 63) >>> 6));
+        this.bitSize = (long) bits.length() << 6;
+        this.hashCount = optimalHashCount(expectedInsertions, bitSize);
+    }
+
+    public static long optimalBitSize(long expectedInsertions, double falsePositiveProbability) {
+        return (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+    }
+
+    public static int optimalHashCount(long expectedInsertions, long bitSize) {
+        return Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long h1 = hash & 0xFFFFFFFFL;
+        long h2 = hash >>> 32;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (h1 + i * h2) % bitSize;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash & 0xFFFFFFFFL;
+        long h2 = hash >>> 32;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (h1 + i * h2) % bitSize;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 지금까지 put 한 수로 계산한 오탐 확률. (1 - e^(-kn/m))^k
+     */
+    public double expectedFalsePositiveProbability() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) insertions.sum() / bitSize), hashCount);
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    // FNV-1a 64 후 SplitMix64 로 한 번 더 섞는다
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return SplitMix64.mix64(hash);
+    }
+}
@@ -0,0 +1,160 @@
+package com.kakaopay.coupon.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 서로 다른 정수(샤드 카운터)를 서로 다른 쿠폰 코드로 바꾸는 키 기반 치환.
+ *
+ * 94bit 정의역에서 AES 를 라운드 함수로 쓰는 Feistel 네트워크를 돌린 뒤 62진수 16자리로 쓴다.
+ * Feistel 은 항상 전단사이고 2^94 < 62^16 이므로 입력이 다르면 코드도 반드시 다르다.
+ * 키를 모르면 이웃한 카운터의 코드를 추측할 수 없다.
+ */
+public class CodeCipher {
+
+    private static final int HALF_BITS = 47;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 10;
+    private static final int LENGTH = 16;
+    private static final int SPACING = 4;
+    private static final char SPACER = '-';
+    private static final char[] SYMBOLS = CodeGenerator.ALPHABET.toCharArray();
+    private static final int RADIX = SYMBOLS.length;
+    private static final int[] DIGITS = new int[128];
+
+    static {
+        Arrays.fill(DIGITS, -1);
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            DIGITS[SYMBOLS[i]] = i;
+        }
+    }
+
+    private final ThreadLocal<Engine> engines;
+
+    /**
+     * secret 의 SHA-256 앞 128bit 를 AES 키로 쓴다. 같은 secret 이면 모든 노드가 같은 치환을 쓴다.
+     */
+    public CodeCipher(String secret) {
+        SecretKeySpec key = new SecretKeySpec(Arrays.copyOf(sha256(secret), 16), "AES");
+        this.engines = ThreadLocal.withInitial(() -> new Engine(key));
+    }
+
+    public String encode(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value : " + value);
+        }
+        Engine current = engines.get();
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ current.round(round, right);
+            left = right;
+            right = next;
+        }
+        return format(current.buffer, left, right);
+    }
+
+    /**
+     * encode 의 역변환. 이 키로 만들 수 없는 코드면 IllegalArgumentException.
+     */
+    public long decode(String code) {
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == SPACER) {
+                continue;
+            }
+            int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0 || ++digits > LENGTH) {
+                throw new IllegalArgumentException("Invalid code : " + code);
+            }
+            low = low * RADIX + digit;
+            high = high * RADIX + (low >>> HALF_BITS);
+            low &= HALF_MASK;
+            if (high > HALF_MASK) {
+                throw new IllegalArgumentException("Code out of range : " + code);
+            }
+        }
+
+        Engine current = engines.get();
+        long left = high;
+        long right = low;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            long previous = right ^ current.round(round, left);
+            right = left;
+            left = previous;
+        }
+        if (left >>> (Long.SIZE - 1 - HALF_BITS) != 0) {
+            throw new IllegalArgumentException("Code out of range : " + code);
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    /**
+     * (high * 2^47 + low) 를 뒤에서부터 62로 나누며 쓴다. 나머지가 62 * 2^47 을 넘지 않아 long 두 개로 충분하다.
+     */
+    private static String format(char[] buffer, long high, long low) {
+        int position = buffer.length;
+        for (int i = 0; i < LENGTH; i++) {
+            if (i > 0 && i % SPACING == 0) {
+                buffer[--position] = SPACER;
+            }
+            long remainder = high % RADIX;
+            high /= RADIX;
+            long value = (remainder << HALF_BITS) | low;
+            low = value / RADIX;
+            buffer[--position] = SYMBOLS[(int) (value % RADIX)];
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    private static byte[] sha256(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Cipher 는 thread-safe 하지 않고 만드는 비용도 크므로 스레드마다 하나씩 두고 입출력 블록도 재사용한다.
+     */
+    private static final class Engine {
+        private final Cipher cipher;
+        private final byte[] input = new byte[16];
+        private final byte[] output = new byte[16];
+        private final char[] buffer = new char[LENGTH + (LENGTH - 1) / SPACING];
+
+        private Engine(SecretKeySpec key) {
+            try {
+                cipher = Cipher.getInstance("AES/ECB/NoPadding");
+                cipher.init(Cipher.ENCRYPT_MODE, key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private long round(int round, long half) {
+            input[0] = (byte) round;
+            for (int i = 0; i < 8; i++) {
+                input[8 + i] = (byte) (half >>> (56 - 8 * i));
+            }
+            try {
+                cipher.doFinal(input, 0, input.length, output, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (output[i] & 0xFF);
+            }
+            return value & HALF_MASK;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.kakaopay.coupon.core;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * 쿠폰 코드 형식(문자 집합, 자리 수, 묶음, 접두어, 검증 문자)을 한 번 컴파일해 둔 표.
+ *
+ * 고정 문자(접두어, 구분자)를 채운 template 과 심볼 자리 목록, 문자 → 숫자 표를 미리 만들어 두므로
+ * 생성은 template 복사 뒤 심볼 자리만 채우고, 검증은 길이만큼 표를 한 번씩 보면 끝난다.
+ * 만든 뒤에는 바뀌지 않으므로 여러 스레드가 같이 쓴다.
+ *
+ * 코드의 값은 심볼을 앞자리부터 읽은 radix 진수이며 pack 으로 12 byte big-endian 으로 바꾼다.
+ * 접두어, 구분자, 검증 문자는 값에서 다시 만들 수 있으므로 넣지 않는다.
+ */
+public final class CodeFormat {
+
+    /**
+     * LUHN 은 문자 집합 크기에 맞춘 Luhn mod N 이다. 한 글자를 잘못 옮겨 적은 코드는 모두,
+     * 이웃한 두 글자를 바꿔 적은 코드는 대부분 DB 조회 없이 걸러진다.
+     */
+    public enum Checksum {
+        NONE, LUHN
+    }
+
+    public static final CodeFormat DEFAULT = compile(CodeGenerator.ALPHABET, 16, 4, '-', "", Checksum.NONE);
+
+    private static final int MAX_BITS = CouponCode.LENGTH * Byte.SIZE;
+    private static final int ASCII = 128;
+    private static final long WORD_MASK = 0xFFFFFFFFL;
+
+    private final String spec;
+    private final char[] symbols;
+    private final int radix;
+    private final int length;
+    private final Checksum checksum;
+    private final int bits;
+    /**
+     * 코드의 i 번째 문자가 몇 번째 심볼인지. 고정 문자 자리면 -1 이다.
+     */
+    private final int[] slotOf;
+    private final int[] slots;
+    private final char[] template;
+    private final int[] digits = new int[ASCII];
+    /**
+     * Luhn 에서 두 배 하는 자리의 값. doubled[d] = 2d 를 radix 진수로 쓴 각 자리의 합.
+     */
+    private final int[] doubled;
+    /**
+     * 32bit 워드 하나에서 꺼내는 심볼 수와, 분포가 균등하도록 그 미만만 쓰는 워드 상한.
+     */
+    private final int symbolsPerWord;
+    private final long wordLimit;
+
+    private CodeFormat(String alphabet, int length, int groupSize, char separator, String prefix,
+                       Checksum checksum) {
+        this.spec = String.format("alphabet=%s, length=%d, group=%d, separator=%s, prefix=%s, checksum=%s",
+                                  alphabet, length, groupSize, separator, prefix, checksum);
+        this.symbols = alphabet.toCharArray();
+        this.radix = symbols.length;
+        this.length = length;
+        this.checksum = checksum;
+        this.bits = bitsOf(radix, length);
+
+        int symbolCount = length + (checksum == Checksum.LUHN ? 1 : 0);
+        int separators = groupSize > 0 ? (symbolCount - 1) / groupSize : 0;
+        this.template = new char[prefix.length() + symbolCount + separators];
+        this.slotOf = new int[template.length];
+        this.slots = new int[symbolCount];
+        prefix.getChars(0, prefix.length(), template, 0);
+        Arrays.fill(slotOf, -1);
+        int position = prefix.length();
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            if (groupSize > 0 && symbol > 0 && symbol % groupSize == 0) {
+                template[position++] = separator;
+            }
+            slotOf[position] = symbol;
+            slots[symbol] = position;
+            template[position++] = symbols[0];
+        }
+
+        Arrays.fill(digits, -1);
+        for (int i = 0; i < radix; i++) {
+            digits[symbols[i]] = i;
+        }
+        this.doubled = new int[radix];
+        for (int d = 0; d < radix; d++) {
+            doubled[d] = (2 * d) / radix + (2 * d) % radix;
+        }
+
+        long block = 1;
+        int perWord = 0;
+        while (block * radix <= (1L << 32)) {
+            block *= radix;
+            perWord++;
+        }
+        this.symbolsPerWord = perWord;
+        this.wordLimit = ((1L << 32) / block) * block;
+    }
+
+    /**
+     * 형식이 맞지 않으면 IllegalArgumentException. 문자 집합과 접두어는 ASCII 만 쓴다.
+     *
+     * @param groupSize 심볼 몇 개마다 separator 를 넣을지. 0 이면 넣지 않는다.
+     */
+    public static CodeFormat compile(String alphabet, int length, int groupSize, char separator, String prefix,
+                                     Checksum checksum) {
+        if (alphabet == null || alphabet.length() < 2) {
+            throw new IllegalArgumentException("Alphabet needs at least 2 symbols : " + alphabet);
+        }
+        boolean[] seen = new boolean[ASCII];
+        for (char c : alphabet.toCharArray()) {
+            if (c >= ASCII || Character.isWhitespace(c) || seen[c]) {
+                throw new IllegalArgumentException("Alphabet must be distinct ASCII symbols : " + alphabet);
+            }
+            seen[c] = true;
+        }
+        if (groupSize < 0 || (groupSize > 0 && (separator >= ASCII || seen[separator]))) {
+            throw new IllegalArgumentException("Separator must be an ASCII character outside the alphabet : "
+                                               + separator);
+        }
+        if (prefix == null || !prefix.chars().allMatch(c -> c > ' ' && c < ASCII)) {
+            throw new IllegalArgumentException("Prefix must be printable ASCII : " + prefix);
+        }
+        if (length < 1 || length > MAX_BITS || bitsOf(alphabet.length(), length) > MAX_BITS) {
+            throw new IllegalArgumentException("Code must have 1 to " + MAX_BITS + " bits : " + length);
+        }
+        return new CodeFormat(alphabet, length, groupSize, separator, prefix,
+                              checksum == null ? Checksum.NONE : checksum);
+    }
+
+    /**
+     * 서로 다른 코드 수를 나타내는 데 필요한 bit 수. 검증 문자는 값이 아니므로 세지 않는다.
+     */
+    public int bits() {
+        return bits;
+    }
+
+    public int textLength() {
+        return template.length;
+    }
+
+    /**
+     * buffer 앞에 코드 하나를 쓰고 길이를 돌려준다. 스레드마다 buffer 를 두면 할당이 없다.
+     */
+    public int fill(RandomSource rng, char[] buffer) {
+        System.arraycopy(template, 0, buffer, 0, template.length);
+        int remaining = 0;
+        long word = 0;
+        int sum = 0;
+        for (int symbol = 0; symbol < length; symbol++) {
+            if (remaining == 0) {
+                word = nextWord(rng);
+                remaining = symbolsPerWord;
+            }
+            int digit = (int) (word % radix);
+            word /= radix;
+            remaining--;
+            buffer[slots[symbol]] = symbols[digit];
+            sum += weigh(symbol, digit);
+        }
+        if (checksum == Checksum.LUHN) {
+            buffer[slots[length]] = symbols[(radix - sum % radix) % radix];
+        }
+        return template.length;
+    }
+
+    public boolean isValid(CharSequence code) {
+        return pack(code) != null;
+    }
+
+    /**
+     * 코드의 값을 12 byte 로 바꾼다. 형식이나 검증 문자가 맞지 않으면 null 이다.
+     * 32bit 워드 세 개(high, middle, low)에 radix 를 곱하고 심볼을 더해 나간다.
+     */
+    public byte[] pack(CharSequence code) {
+        if (code == null || code.length() != template.length) {
+            return null;
+        }
+        long high = 0;
+        long middle = 0;
+        long low = 0;
+        int sum = 0;
+        for (int i = 0; i < template.length; i++) {
+            char c = code.charAt(i);
+            int symbol = slotOf[i];
+            if (symbol < 0) {
+                if (c != template[i]) {
+                    return null;
+                }
+                continue;
+            }
+            int digit = c < ASCII ? digits[c] : -1;
+            if (digit < 0) {
+                return null;
+            }
+            if (symbol == length) {
+                sum += digit;
+                continue;
+            }
+            sum += weigh(symbol, digit);
+            low = low * radix + digit;
+            middle = middle * radix + (low >>> 32);
+            high = high * radix + (middle >>> 32);
+            low &= WORD_MASK;
+            middle &= WORD_MASK;
+        }
+        if (checksum == Checksum.LUHN && sum % radix != 0) {
+            return null;
+        }
+        byte[] key = new byte[CouponCode.LENGTH];
+        putWord(key, 0, high);
+        putWord(key, 4, middle);
+        putWord(key, 8, low);
+        return key;
+    }
+
+    /**
+     * pack 의 역변환. 뒤에서부터 radix 로 나누며 심볼을 쓰고, 검증 문자는 다시 계산한다.
+     */
+    public String unpack(byte[] key) {
+        if (key == null || key.length != CouponCode.LENGTH) {
+            throw new IllegalArgumentException("Invalid code key length : " + (key == null ? null : key.length));
+        }
+        long high = getWord(key, 0);
+        long middle = getWord(key, 4);
+        long low = getWord(key, 8);
+        char[] buffer = template.clone();
+        int sum = 0;
+        for (int symbol = length - 1; symbol >= 0; symbol--) {
+            long value = high;
+            high = value / radix;
+            value = ((value % radix) << 32) | middle;
+            middle = value / radix;
+            value = ((value % radix) << 32) | low;
+            low = value / radix;
+            int digit = (int) (value % radix);
+            buffer[slots[symbol]] = symbols[digit];
+            sum += weigh(symbol, digit);
+        }
+        if ((high | middle | low) != 0) {
+            throw new IllegalArgumentException("Code key out of range : " + Arrays.toString(key));
+        }
+        if (checksum == Checksum.LUHN) {
+            buffer[slots[length]] = symbols[(radix - sum % radix) % radix];
+        }
+        return new String(buffer);
+    }
+
+    /**
+     * 두 형식이 같은 문자열을 코드로 받을 수 있으면 true. 길이가 같고 모든 자리에서 받는 문자가 겹칠 때다.
+     */
+    public boolean overlaps(CodeFormat other) {
+        if (template.length != other.template.length) {
+            return false;
+        }
+        for (int i = 0; i < template.length; i++) {
+            if (!intersects(i, other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    private boolean intersects(int position, CodeFormat other) {
+        if (slotOf[position] < 0) {
+            return other.accepts(position, template[position]);
+        }
+        for (char c : symbols) {
+            if (other.accepts(position, c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean accepts(int position, char c) {
+        return slotOf[position] < 0 ? template[position] == c : c < ASCII && digits[c] >= 0;
+    }
+
+    /**
+     * Luhn 은 검증 문자 바로 앞 자리부터 한 자리씩 건너 두 배 한다.
+     */
+    private int weigh(int symbol, int digit) {
+        return (length - symbol) % 2 == 1 ? doubled[digit] : digit;
+    }
+
+    private static int bitsOf(int radix, int length) {
+        return BigInteger.valueOf(radix).pow(length).subtract(BigInteger.ONE).bitLength();
+    }
+
+    private long nextWord(RandomSource rng) {
+        long word;
+        do {
+            word = rng.nextInt() & WORD_MASK;
+        } while (word >= wordLimit);
+        return word;
+    }
+
+    private static void putWord(byte[] key, int offset, long word) {
+        key[offset] = (byte) (word >>> 24);
+        key[offset + 1] = (byte) (word >>> 16);
+        key[offset + 2] = (byte) (word >>> 8);
+        key[offset + 3] = (byte) word;
+    }
+
+    private static long getWord(byte[] key, int offset) {
+        return (key[offset] & 0xFFL) << 24 | (key[offset + 1] & 0xFFL) << 16
+               | (key[offset + 2] & 0xFFL) << 8 | (key[offset + 3] & 0xFFL);
+    }
+}
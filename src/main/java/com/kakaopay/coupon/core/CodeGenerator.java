@@ -1,5 +1,8 @@
 package com.kakaopay.coupon.core;
 
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 
@@ -7,32 +10,70 @@ import org.springframework.stereotype.Component;
 @Component
 public class CodeGenerator {
 
-    private static final int COUPON_LENGTH = 16;
-    private static final int COUPON_SPACEING = 4;
-    private static final char COUPON_SPACER_CHAR = '-';
     protected static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789abcdefghijklmnopqrstuvwxyz";
-    private final Well512 rng = new Well512();
 
-    char randomChar(){
-        return ALPHABET.charAt(rng.next(ALPHABET.length()));
+    private final RandomAlgorithm algorithm;
+
+    /**
+     * RandomSource 는 state 를 동기화 없이 변경하므로 singleton bean에서 공유하면 race가 발생한다.
+     * 스레드마다 별도의 인스턴스를 두고, seed는 공용 시퀀스에서 한 번씩만 뽑아 스트림이 겹치지 않게 한다.
+     * 시퀀스의 시작은 OS 엔트로피에서 뽑으므로 같은 순간에 뜬 노드끼리도 겹치지 않는다.
+     * 가상 스레드는 요청마다 새로 만들어지므로 ThreadLocal 이 요청마다 RNG 를 새로 만든다. 가상 스레드를 쓰려면 README 의 전제 조건을 먼저 본다.
+     */
+    private final AtomicLong seedSequence = new AtomicLong(RandomSource.strongSeed());
+    private final ThreadLocal<Engine> engines = ThreadLocal.withInitial(() -> new Engine(newRandomSource()));
+
+    public CodeGenerator() {
+        this(RandomAlgorithm.XOSHIRO256);
     }
 
-    String randomUUID(int length, int spacing, char spacerChar){
-        StringBuilder sb = new StringBuilder();
-        int spacer = 0;
-        while(length > 0){
-            if(spacer == spacing){
-                sb.append(spacerChar);
-                spacer = 0;
-            }
-            length--;
-            spacer++;
-            sb.append(randomChar());
-        }
-        return sb.toString();
+    @Autowired
+    public CodeGenerator(@Value("${coupon.code.random:XOSHIRO256}") RandomAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    long nextSeed() {
+        return SplitMix64.mix64(seedSequence.getAndAdd(SplitMix64.GAMMA));
+    }
+
+    RandomSource newRandomSource() {
+        return algorithm.create(nextSeed());
+    }
+
+    RandomSource rng() {
+        return engines.get().rng;
     }
 
+    /**
+     * 기본 형식(62진수 16자리, 4자리마다 '-')의 코드.
+     */
     public String generateCode() {
-        return randomUUID(COUPON_LENGTH, COUPON_SPACEING, COUPON_SPACER_CHAR);
+        return generateCode(CodeFormat.DEFAULT);
+    }
+
+    /**
+     * 스레드별 버퍼에 형식의 template 을 복사하고 심볼 자리만 채우므로,
+     * 코드 하나당 만들어지는 객체는 반환하는 String 하나뿐이다.
+     */
+    public String generateCode(CodeFormat format) {
+        Engine current = engines.get();
+        char[] buffer = current.buffer(format.textLength());
+        return new String(buffer, 0, format.fill(current.rng, buffer));
+    }
+
+    private static final class Engine {
+        private final RandomSource rng;
+        private char[] buffer = new char[32];
+
+        private Engine(RandomSource rng) {
+            this.rng = rng;
+        }
+
+        private char[] buffer(int size) {
+            if (buffer.length < size) {
+                buffer = new char[size];
+            }
+            return buffer;
+        }
     }
 }
@@ -0,0 +1,137 @@
+package com.kakaopay.coupon.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 쿠폰 코드의 저장용 표현. 코드의 값(CodeFormat.pack)을 12 byte big-endian 으로 쓴다.
+ *
+ * 기본 형식 "XXXX-XXXX-XXXX-XXXX" 는 62진수 16자리이고 62^16 < 2^96 이므로 12 byte 를 모두 쓴다.
+ * 62^16 / 2^88 < 155 이므로 기본 형식의 첫 byte 는 154 를 넘지 않는다. 캠페인별 형식은 값을 88bit 이하로 제한하고
+ * 첫 byte 에 (TAG_BASE + id) 를 넣어 구분한다. 그래서 형식이 여럿이어도 한 컬럼의 unique index 하나로 충분하다.
+ *
+ * DB 에는 이 값만 넣고 구분자가 들어간 문자열은 API 로 내보낼 때 다시 만든다.
+ * 같은 형식 안에서는 byte 순서가 심볼 순서(ALPHABET 순)와 같다.
+ *
+ * 캠페인별 형식은 생성할 때 받아 고정하므로, 하나를 만들어 필요한 곳에 주입해 쓴다.
+ */
+public final class CouponCode {
+
+    public static final int LENGTH = 12;
+    public static final int MAX_FORMAT_ID = 100;
+
+    private static final int TAG_BASE = 154;
+    private static final int TAGGED_BITS = (LENGTH - 1) * Byte.SIZE;
+
+    private final Registered[] formats;
+
+    /**
+     * 기본 형식만 읽고 쓴다.
+     */
+    public CouponCode() {
+        this.formats = new Registered[0];
+    }
+
+    /**
+     * 캠페인별 형식을 id 로 받는다. id 는 저장된 코드에 들어가므로 발급을 시작한 뒤에는 바꾸면 안 된다.
+     * id 가 범위를 벗어나거나, 형식이 88bit 를 넘거나, 다른 형식(기본 형식 포함)과 같은 문자열을 받을 수 있으면
+     * IllegalArgumentException.
+     */
+    public CouponCode(Map<Integer, CodeFormat> formats) {
+        List<Registered> registered = new ArrayList<>(formats.size());
+        formats.forEach((id, format) -> {
+            if (id < 1 || id > MAX_FORMAT_ID) {
+                throw new IllegalArgumentException("Code format id must be 1 to " + MAX_FORMAT_ID + " : " + id);
+            } else if (format.bits() > TAGGED_BITS) {
+                throw new IllegalArgumentException("Code format must have at most " + TAGGED_BITS + " bits : " + format);
+            } else if (CodeFormat.DEFAULT.overlaps(format)) {
+                throw new IllegalArgumentException("Code format overlaps default format : " + format);
+            }
+            for (Registered other : registered) {
+                if (other.format.overlaps(format)) {
+                    throw new IllegalArgumentException("Code format overlaps format " + other.id + " : " + format);
+                }
+            }
+            registered.add(new Registered(id, format));
+        });
+        this.formats = registered.toArray(new Registered[0]);
+    }
+
+    /**
+     * 어느 형식에도 맞지 않는 코드면 null. 그런 코드는 저장될 수 없으므로 조회할 필요도 없다.
+     * 형식끼리 같은 문자열을 받지 않으므로 맞는 형식은 많아야 하나다.
+     */
+    public byte[] pack(String code) {
+        byte[] key = CodeFormat.DEFAULT.pack(code);
+        if (key != null) {
+            return key;
+        }
+        for (Registered registered : formats) {
+            key = registered.format.pack(code);
+            if (key != null) {
+                key[0] = (byte) (TAG_BASE + registered.id);
+                return key;
+            }
+        }
+        return null;
+    }
+
+    public boolean isValid(String code) {
+        return pack(code) != null;
+    }
+
+    /**
+     * pack 의 역변환. 모르는 형식의 key 면 IllegalArgumentException.
+     */
+    public String unpack(byte[] key) {
+        if (key == null || key.length != LENGTH) {
+            throw new IllegalArgumentException("Invalid code key length : " + (key == null ? null : key.length));
+        }
+        int tag = key[0] & 0xFF;
+        if (tag <= TAG_BASE) {
+            return CodeFormat.DEFAULT.unpack(key);
+        }
+        for (Registered registered : formats) {
+            if (TAG_BASE + registered.id == tag) {
+                byte[] value = key.clone();
+                value[0] = 0;
+                return registered.format.unpack(value);
+            }
+        }
+        throw new IllegalArgumentException("Unknown code format : " + (tag - TAG_BASE));
+    }
+
+    /**
+     * 형식에 맞지 않는 코드는 빼고 바꾼다.
+     */
+    public List<byte[]> packAll(Collection<String> codes) {
+        List<byte[]> keys = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            byte[] key = pack(code);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    public List<String> unpackAll(Collection<byte[]> keys) {
+        List<String> codes = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            codes.add(unpack(key));
+        }
+        return codes;
+    }
+
+    private static final class Registered {
+        private final int id;
+        private final CodeFormat format;
+
+        private Registered(int id, CodeFormat format) {
+            this.id = id;
+            this.format = format;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.kakaopay.coupon.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * 긴 문자열을 고정 길이로 줄인 키. SHA-256 의 앞 128 bit 를 쓴다.
+ *
+ * 1억 건에서 두 값이 같은 fingerprint 를 가질 확률은 약 1.5e-23 이므로 unique index 로 쓸 수 있다.
+ * 암호학적 해시이므로 특정 값과 충돌하는 입력을 만들어 다른 사람의 발급을 막을 수도 없다.
+ */
+public final class Fingerprint {
+
+    public static final int LENGTH = 16;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(Fingerprint::newDigest);
+
+    private Fingerprint() {
+    }
+
+    public static byte[] of(String value) {
+        return Arrays.copyOf(SHA256.get().digest(value.getBytes(StandardCharsets.UTF_8)), LENGTH);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
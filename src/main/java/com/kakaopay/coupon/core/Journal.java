@@ -0,0 +1,320 @@
+package com.kakaopay.coupon.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * memory-mapped segment 파일에 레코드를 이어 쓰는 append-only 저널.
+ *
+ * 레코드는 [length][crc][sequence][payload] 이고, length 를 마지막에 써서 쓰다 만 레코드는 length 0 으로 남는다.
+ * 페이지가 순서대로 디스크에 내려가지 않아 생긴 깨진 꼬리는 crc 로 걸러내고, 그 앞까지만 유효한 것으로 본다.
+ *
+ * force 는 sync 스레드 하나가 모아서 한다. force 하는 동안 들어온 레코드는 다음 force 에 함께 내려가므로
+ * awaitDurable 로 기다리는 요청들이 fsync 한 번을 나눠 쓴다(group commit).
+ *
+ * checkpoint 이하의 레코드는 다른 곳(DB)에 반영된 것으로 보고 replay 하지 않으며, 그 레코드만 담긴 segment 는 지운다.
+ *
+ * force 가 실패하면 그 뒤의 append 와 awaitDurable 은 모두 같은 IOException 으로 실패한다.
+ */
+public class Journal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER_SIZE = 16;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final Thread syncThread;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long lastSequence;
+    private long durableSequence;
+    private long checkpoint;
+    private IOException syncFailure;
+    private boolean closed;
+
+    public Journal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        Path checkpointFile = directory.resolve(CHECKPOINT);
+        if (Files.exists(checkpointFile)) {
+            checkpoint = ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong();
+        }
+        long[] last = {checkpoint};
+        scan((sequence, payload) -> last[0] = Math.max(last[0], sequence));
+        lastSequence = last[0];
+        durableSequence = last[0];
+        deleteEmptySegments();
+
+        syncThread = new Thread(this::syncLoop, "journal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    /**
+     * 레코드를 추가하고 sequence 를 돌려준다. 디스크에 내려갔는지는 awaitDurable 로 확인한다.
+     */
+    public long append(byte[] payload) throws IOException {
+        int size = HEADER_SIZE + payload.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Record is larger than segment : " + size);
+        }
+        lock.lock();
+        try {
+            if (syncFailure != null) {
+                throw syncFailure;
+            } else if (closed) {
+                throw new IOException("Journal is closed");
+            }
+            if (segment == null || segment.remaining() < size) {
+                roll();
+            }
+            long sequence = ++lastSequence;
+            CRC32 crc = new CRC32();
+            crc.update(longBytes(sequence));
+            crc.update(payload);
+
+            int position = segment.position();
+            segment.putInt(position + 4, (int) crc.getValue());
+            segment.putLong(position + 8, sequence);
+            segment.position(position + HEADER_SIZE);
+            segment.put(payload);
+            segment.putInt(position, payload.length);
+            appended.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (syncFailure != null) {
+                    throw syncFailure;
+                }
+                if (closed) {
+                    throw new IOException("Journal is closed");
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * checkpoint 다음부터 마지막 유효 레코드까지 sequence 순서로 돌려준다.
+     */
+    public void replay(BiConsumer<Long, byte[]> consumer) throws IOException {
+        long from = checkpoint;
+        scan((sequence, payload) -> {
+            if (sequence > from) {
+                consumer.accept(sequence, payload);
+            }
+        });
+    }
+
+    /**
+     * sequence 이하가 반영됐음을 기록하고, 더 이상 필요 없는 segment 를 지운다.
+     */
+    public void checkpoint(long sequence) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.wrap(longBytes(sequence)));
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+
+        lock.lock();
+        try {
+            checkpoint = Math.max(checkpoint, sequence);
+            List<Path> segments = segments();
+            for (int i = 0; i < segments.size() - 1; i++) {
+                if (firstSequence(segments.get(i + 1)) - 1 <= checkpoint) {
+                    Files.deleteIfExists(segments.get(i));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (segment != null) {
+                segment.force();
+                durableSequence = lastSequence;
+                channel.close();
+            }
+            appended.signalAll();
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            long sequence;
+            lock.lock();
+            try {
+                while (!closed && durableSequence == lastSequence) {
+                    appended.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                target = segment;
+                sequence = lastSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException failure = null;
+            try {
+                force(target);
+            } catch (IOException | RuntimeException | Error e) {
+                failure = e instanceof IOException ? (IOException) e : new IOException("Journal sync failed", e);
+            }
+
+            lock.lock();
+            try {
+                if (failure != null) {
+                    syncFailure = failure;
+                } else {
+                    durableSequence = Math.max(durableSequence, sequence);
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (failure != null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 테스트에서 디스크 오류를 흉내 낼 수 있도록 force 를 한 곳에 모아 둔다.
+     */
+    void force(MappedByteBuffer target) throws IOException {
+        target.force();
+    }
+
+    /**
+     * 지금 segment 를 디스크에 내리고 다음 sequence 로 시작하는 새 segment 를 연다.
+     */
+    private void roll() throws IOException {
+        if (segment != null) {
+            force(segment);
+            durableSequence = lastSequence;
+            synced.signalAll();
+            channel.close();
+        }
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, lastSequence + 1, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    /**
+     * 유효한 레코드가 하나도 없는 segment(만들고 쓰기 전, 또는 첫 레코드가 깨진 채로 죽은 경우)를 지운다.
+     * 그 segment 의 이름은 다음 roll 이 만들 이름과 같거나 앞서므로 남겨 두면 CREATE_NEW 가 실패한다.
+     * force 는 segment 전체를 내리므로 이런 segment 에는 awaitDurable 로 확인된 레코드가 없다.
+     */
+    private void deleteEmptySegments() throws IOException {
+        for (Path path : segments()) {
+            if (firstSequence(path) > lastSequence) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private void scan(BiConsumer<Long, byte[]> consumer) throws IOException {
+        for (Path path : segments()) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int position = buffer.position();
+                int length = buffer.getInt(position);
+                if (length <= 0 || length > buffer.remaining() - HEADER_SIZE) {
+                    break;
+                }
+                int crc = buffer.getInt(position + 4);
+                long sequence = buffer.getLong(position + 8);
+                byte[] payload = new byte[length];
+                buffer.position(position + HEADER_SIZE);
+                buffer.get(payload);
+
+                CRC32 actual = new CRC32();
+                actual.update(longBytes(sequence));
+                actual.update(payload);
+                if ((int) actual.getValue() != crc) {
+                    break;
+                }
+                consumer.accept(sequence, payload);
+            }
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                                                                     SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] longBytes(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+    }
+}
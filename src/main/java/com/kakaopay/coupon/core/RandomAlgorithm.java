@@ -0,0 +1,27 @@
+package com.kakaopay.coupon.core;
+
+import java.util.function.LongFunction;
+
+/**
+ * 코드 생성에 쓰는 난수 생성기. coupon.code.random 으로 고른다.
+ */
+public enum RandomAlgorithm {
+
+    WELL512(Well512::new),
+    XOSHIRO256(Xoshiro256StarStar::new),
+    SPLITMIX64(SplitMix64::new),
+    /**
+     * seed 를 받지 않고 OS 엔트로피로 스스로 seed 한다.
+     */
+    SECURE(seed -> new SecureRandomSource());
+
+    private final LongFunction<RandomSource> factory;
+
+    RandomAlgorithm(LongFunction<RandomSource> factory) {
+        this.factory = factory;
+    }
+
+    public RandomSource create(long seed) {
+        return factory.apply(seed);
+    }
+}
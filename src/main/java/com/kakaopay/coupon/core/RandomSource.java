@@ -0,0 +1,54 @@
+package com.kakaopay.coupon.core;
+
+import java.security.SecureRandom;
+
+/**
+ * 32bit 난수를 내는 생성기. 구현은 동기화하지 않으므로 스레드마다 따로 둔다.
+ *
+ * 범위 안의 값은 nextInt(bound) 로 뽑는다. nextInt() % bound 는 2^32 가 bound 의 배수가 아니면
+ * 앞쪽 값이 더 자주 나오므로 쓰지 않는다.
+ */
+public interface RandomSource {
+
+    int nextInt();
+
+    default long nextLong() {
+        return ((long) nextInt() << 32) | (nextInt() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * [0, bound) 의 균등한 값. Lemire 의 곱셈 방식으로 대부분 나눗셈 없이 뽑고,
+     * 하위 32bit 가 threshold 보다 작은(치우친) 경우만 버리고 다시 뽑는다.
+     * https://arxiv.org/abs/1805.10941
+     */
+    default int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive : " + bound);
+        }
+        long product = (nextInt() & 0xFFFFFFFFL) * bound;
+        long low = product & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = ((1L << 32) - bound) % bound;
+            while (low < threshold) {
+                product = (nextInt() & 0xFFFFFFFFL) * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    /**
+     * 인스턴스마다 다른 seed. 시각만으로 seed 를 만들면 같은 순간에 뜬 두 노드가 같은 스트림을 내므로
+     * OS 엔트로피(SecureRandom)에서 뽑는다.
+     */
+    static long strongSeed() {
+        return SeedHolder.RANDOM.nextLong() ^ SplitMix64.mix64(System.nanoTime());
+    }
+
+    final class SeedHolder {
+        private static final SecureRandom RANDOM = new SecureRandom();
+
+        private SeedHolder() {
+        }
+    }
+}
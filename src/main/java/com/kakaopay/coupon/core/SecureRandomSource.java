@@ -0,0 +1,45 @@
+package com.kakaopay.coupon.core;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * 다음 값을 예측할 수 없어야 하는 캠페인용. Java 9 이상이면 NIST SP 800-90A DRBG 를, 아니면 플랫폼 기본
+ * SecureRandom 을 쓴다. SecureRandom 은 호출마다 내부 잠금을 잡으므로 BUFFER_SIZE 바이트씩 받아 두고 꺼낸다.
+ * seed 는 SecureRandom 이 OS 엔트로피에서 직접 얻는다.
+ */
+public class SecureRandomSource implements RandomSource {
+
+    private static final String DRBG = "DRBG";
+    private static final int BUFFER_SIZE = 512;
+
+    private final SecureRandom random;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    public SecureRandomSource() {
+        this.random = newSecureRandom();
+        buffer.position(BUFFER_SIZE);
+    }
+
+    @Override
+    public int nextInt() {
+        if (!buffer.hasRemaining()) {
+            random.nextBytes(buffer.array());
+            buffer.clear();
+        }
+        return buffer.getInt();
+    }
+
+    String algorithm() {
+        return random.getAlgorithm();
+    }
+
+    private static SecureRandom newSecureRandom() {
+        try {
+            return SecureRandom.getInstance(DRBG);
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
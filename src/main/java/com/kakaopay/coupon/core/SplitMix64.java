@@ -0,0 +1,33 @@
+package com.kakaopay.coupon.core;
+
+/**
+ * SplitMix64. state 에 황금비 상수를 더하고 섞기만 하므로 가장 빠르며, 다른 생성기의 state 를 채우는 데도 쓴다.
+ * http://xoshiro.di.unimi.it/splitmix64.c
+ */
+public class SplitMix64 implements RandomSource {
+
+    static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        state += GAMMA;
+        return mix64(state);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,47 @@
+package com.kakaopay.coupon.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 토큰 버킷. 초당 permitsPerSecond 개씩 burst 개까지 채워지고, 요청마다 하나씩 꺼낸다.
+ *
+ * 채우는 속도와 크기는 꺼낼 때마다 받으므로 설정을 바꾸면 다음 요청부터 바로 적용된다.
+ * 잠금은 같은 버킷(같은 클라이언트)의 요청끼리만 경쟁하고 계산 몇 줄만 감싼다.
+ * 요청 스레드가 모니터에 묶이지 않도록 synchronized 대신 ReentrantLock 을 쓴다.
+ */
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double tokens, long nowNanos) {
+        this.tokens = tokens;
+        this.refilledAt = nowNanos;
+    }
+
+    /**
+     * 토큰을 하나 꺼내면 0 을, 모자라면 다음 토큰이 채워질 때까지 남은 nanos 를 돌려준다.
+     */
+    public long tryAcquire(double permitsPerSecond, int burst, long nowNanos) {
+        lock.lock();
+        try {
+            if (nowNanos > refilledAt) {
+                tokens += (nowNanos - refilledAt) * permitsPerSecond / NANOS_PER_SECOND;
+                refilledAt = nowNanos;
+            }
+            tokens = Math.min(tokens, burst);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND / permitsPerSecond);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
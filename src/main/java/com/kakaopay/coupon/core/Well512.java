@@ -1,23 +1,37 @@
 package com.kakaopay.coupon.core;
 
 // https://github.com/js42721/fastrandom/blob/master/src/main/java/fastrandom/WELL512.java
-public class Well512 {
+public class Well512 implements RandomSource {
     private int[] state = new int[16];
     private int index = 0;
 
+    /**
+     * 시각으로 seed 한 LGC 로 채우면 같은 밀리초에 뜬 두 노드가 같은 스트림을 내므로 OS 엔트로피로 seed 한다.
+     */
     public Well512() {
-        LGC lgc = new LGC();
-
-        for (int i = 0; i < 16; i++) {
-            state[i] = lgc.nextInt();
-        }
+        this(RandomSource.strongSeed());
     }
 
-    public int next(int maxValue) {
-        return (int) (next() % maxValue);
+    /**
+     * seed를 SplitMix64로 확산시켜 512bit state 전체를 채운다.
+     *
+     * LGC로 연속된 값을 채우면 seed가 한 칸 밀린 두 인스턴스의 state가 겹치게 되므로
+     * 스레드마다 독립된 스트림이 필요한 경우 이 생성자를 사용한다.
+     */
+    public Well512(long seed) {
+        SplitMix64 seeder = new SplitMix64(seed);
+        for (int i = 0; i < 16; i += 2) {
+            long mixed = seeder.nextLong();
+            state[i] = (int) mixed;
+            state[i + 1] = (int) (mixed >>> 32);
+        }
     }
 
-    private long next() {
+    /**
+     * 32bit 난수를 그대로 돌려준다. 한 워드에서 여러 심볼을 뽑는 경우에 사용한다.
+     */
+    @Override
+    public int nextInt() {
         int z1 = state[index];
         int z2 = state[(index + 13) & 0xf];
         int z3 = (z1 ^ (z1 << 16)) ^ (z2 ^ (z2 << 15));
@@ -31,7 +45,6 @@ public class Well512 {
                 ^ (z2 << 28)
                 ^ (z1 ^ ((z1 << 5) & 0xda442d24));
         state[index] = z5;
-        return Long.parseLong(Integer.toUnsignedString(z5));
+        return z5;
     }
-
 }
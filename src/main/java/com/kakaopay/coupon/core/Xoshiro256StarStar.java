@@ -0,0 +1,43 @@
+package com.kakaopay.coupon.core;
+
+/**
+ * xoshiro256**. 256bit state 를 shift/rotate/xor 로만 갱신하고, 주기는 2^256 - 1 이다.
+ * state 는 seed 를 SplitMix64 로 확산해 채우므로 seed 가 비슷해도 스트림이 겹치지 않는다.
+ * http://xoshiro.di.unimi.it/xoshiro256starstar.c
+ */
+public class Xoshiro256StarStar implements RandomSource {
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    public Xoshiro256StarStar(long seed) {
+        SplitMix64 seeder = new SplitMix64(seed);
+        s0 = seeder.nextLong();
+        s1 = seeder.nextLong();
+        s2 = seeder.nextLong();
+        s3 = seeder.nextLong();
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    /**
+     * 하위 bit 보다 상위 bit 의 품질이 좋으므로 상위 32bit 를 쓴다.
+     */
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+}
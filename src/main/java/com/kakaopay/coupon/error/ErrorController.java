@@ -1,9 +1,13 @@
 package com.kakaopay.coupon.error;
 
 import com.kakaopay.coupon.error.exception.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -14,11 +18,14 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 @Slf4j
+@RequiredArgsConstructor
 @RestControllerAdvice
 public class ErrorController {
 
@@ -26,6 +33,10 @@ public class ErrorController {
     public static final String ARG_TYPE_MISMATCH = "argument.type.mismatch";
     public static final String NOT_JSON_MEDIA_TYPE = "not.json";
     public static final String INVALID_PAGINATION = "invalid.pagination";
+    public static final String SERVER_BUSY = "server.busy";
+    public static final String REQUEST_TIMEOUT = "request.timeout";
+
+    private final MeterRegistry meterRegistry;
 
     /*
         Custom Exception
@@ -34,22 +45,56 @@ public class ErrorController {
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(NotExistCouponException.class)
     public ErrorInfo handleNotExistCoupon(HttpServletRequest req, NotExistCouponException ex) {
-        return new ErrorInfo(req.getRequestURL().toString(), ex.getLocalizedMessage(),
-                             NotExistCouponException.errorCode);
+        return errorInfo(req, ex, ex.getLocalizedMessage(), NotExistCouponException.errorCode);
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(NotExistImportJobException.class)
+    public ErrorInfo handleNotExistImportJob(HttpServletRequest req, NotExistImportJobException ex) {
+        return errorInfo(req, ex, ex.getLocalizedMessage(), NotExistImportJobException.errorCode);
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(NotExistCampaignException.class)
+    public ErrorInfo handleNotExistCampaign(HttpServletRequest req, NotExistCampaignException ex) {
+        return errorInfo(req, ex, ex.getLocalizedMessage(), NotExistCampaignException.errorCode);
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(SoldOutCampaignException.class)
+    public ErrorInfo handleSoldOutCampaign(HttpServletRequest req, SoldOutCampaignException ex) {
+        return errorInfo(req, ex, ex.getLocalizedMessage(), SoldOutCampaignException.errorCode);
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidCampaignException.class)
+    public ErrorInfo handleInvalidCampaign(HttpServletRequest req, InvalidCampaignException ex) {
+        return errorInfo(req, ex, ex.getLocalizedMessage(), InvalidCampaignException.errorCode);
+    }
+
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(RateLimitedException.class)
+    public ErrorInfo handleRateLimited(HttpServletRequest req, HttpServletResponse res, RateLimitedException ex) {
+        res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return errorInfo(req, ex, ex.getLocalizedMessage(), RateLimitedException.errorCode);
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(ImportJobConflictException.class)
+    public ErrorInfo handleImportJobConflict(HttpServletRequest req, ImportJobConflictException ex) {
+        return errorInfo(req, ex, ex.getLocalizedMessage(), ImportJobConflictException.errorCode);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(EmptyEmailException.class)
     public ErrorInfo handleEmptyEmail(HttpServletRequest req, EmptyEmailException ex) {
-        return new ErrorInfo(req.getRequestURL().toString(), ex.getLocalizedMessage(),
-                             EmptyEmailException.errorCode);
+        return errorInfo(req, ex, ex.getLocalizedMessage(), EmptyEmailException.errorCode);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(InvalidEmailException.class)
     public ErrorInfo handleInvalidEmail(HttpServletRequest req, InvalidEmailException ex) {
-        return new ErrorInfo(req.getRequestURL().toString(), ex.getLocalizedMessage(),
-                             InvalidEmailException.errorCode);
+        return errorInfo(req, ex, ex.getLocalizedMessage(), InvalidEmailException.errorCode);
     }
 
 //    @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -76,11 +121,34 @@ public class ErrorController {
 //        return builder;
 //    }
 
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidCursorException.class)
+    public ErrorInfo handleInvalidCursor(HttpServletRequest req, InvalidCursorException ex) {
+        return errorInfo(req, ex, ex.getLocalizedMessage(), InvalidCursorException.errorCode);
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(DuplicateEmailException.class)
     public ErrorInfo handleDuplicateEmail(HttpServletRequest req, DuplicateEmailException ex) {
-        return new ErrorInfo(req.getRequestURL().toString(), ex.getLocalizedMessage(),
-                             DuplicateEmailException.errorCode);
+        return errorInfo(req, ex, ex.getLocalizedMessage(), DuplicateEmailException.errorCode);
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(EmptyOrderIdException.class)
+    public ErrorInfo handleEmptyOrderId(HttpServletRequest req, EmptyOrderIdException ex) {
+        return errorInfo(req, ex, ex.getLocalizedMessage(), EmptyOrderIdException.errorCode);
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(AlreadyRedeemedCouponException.class)
+    public ErrorInfo handleAlreadyRedeemed(HttpServletRequest req, AlreadyRedeemedCouponException ex) {
+        return errorInfo(req, ex, ex.getLocalizedMessage(), AlreadyRedeemedCouponException.errorCode);
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(NotRedeemableCouponException.class)
+    public ErrorInfo handleNotRedeemable(HttpServletRequest req, NotRedeemableCouponException ex) {
+        return errorInfo(req, ex, ex.getLocalizedMessage(), NotRedeemableCouponException.errorCode);
     }
 
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -88,7 +156,7 @@ public class ErrorController {
     public ErrorInfo handleFailToGenerateCode(HttpServletRequest req, Exception ex) {
         String errorCode = (ex instanceof EmptyCodeException) ?
             EmptyCodeException.errorCode : CodeCollisionException.errorCode;
-        return new ErrorInfo(req.getRequestURL().toString(), ex.getLocalizedMessage(), errorCode);
+        return errorInfo(req, ex, ex.getLocalizedMessage(), errorCode);
     }
 
     /*
@@ -99,24 +167,35 @@ public class ErrorController {
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ErrorInfo handleNullRequestBody(HttpServletRequest req, Exception ex) {
         log.info("handleNullRequestBody - Required request body is null");
-        return new ErrorInfo(req.getRequestURL().toString(), "Required request body is null",
-                             NULL_BODY);
+        return errorInfo(req, ex, "Required request body is null", NULL_BODY);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ErrorInfo handleArgumentTypeMismatch(HttpServletRequest req, Exception ex) {
         log.info("handleArgumentTypeMismatch - Argument type mismatch");
-        return new ErrorInfo(req.getRequestURL().toString(), "Argument type mismatch",
-                             ARG_TYPE_MISMATCH);
+        return errorInfo(req, ex, "Argument type mismatch", ARG_TYPE_MISMATCH);
     }
 
     @ResponseStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
     @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
     public ErrorInfo handleNotJsonRequest(HttpServletRequest req, Exception ex) {
         log.info("handleNotJsonRequest - Only support Content type 'application/json'");
-        return new ErrorInfo(req.getRequestURL().toString(),
-                             "Only support Content type 'application/json'", NOT_JSON_MEDIA_TYPE);
+        return errorInfo(req, ex, "Only support Content type 'application/json'", NOT_JSON_MEDIA_TYPE);
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ErrorInfo handleRejectedExecution(HttpServletRequest req, Exception ex) {
+        log.warn("handleRejectedExecution - Offload queue is full");
+        return errorInfo(req, ex, "Server is busy. Try again later.", SERVER_BUSY);
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ErrorInfo handleAsyncRequestTimeout(HttpServletRequest req, Exception ex) {
+        log.warn("handleAsyncRequestTimeout - Async request timed out");
+        return errorInfo(req, ex, "Request timed out.", REQUEST_TIMEOUT);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -126,9 +205,18 @@ public class ErrorController {
         String uri = req.getRequestURL().toString();
         if (uri.contains("/api/v1/coupon")) {
             log.info("handleInvalidPagination - Pagination param is invalid");
-            return new ErrorInfo(uri, "Pagination param is invalid", INVALID_PAGINATION);
+            return errorInfo(req, ex, "Pagination param is invalid", INVALID_PAGINATION);
         } else {
             throw ex;
         }
     }
+
+    /**
+     * 처리한 예외를 coupon.http.errors{exception, code} 로 센다.
+     */
+    private ErrorInfo errorInfo(HttpServletRequest req, Exception ex, String msg, String errorCode) {
+        meterRegistry.counter("coupon.http.errors",
+                              "exception", ex.getClass().getSimpleName(), "code", errorCode).increment();
+        return new ErrorInfo(req.getRequestURL().toString(), msg, errorCode);
+    }
 }
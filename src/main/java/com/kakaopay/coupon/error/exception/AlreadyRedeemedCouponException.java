@@ -0,0 +1,14 @@
+package com.kakaopay.coupon.error.exception;
+
+public class AlreadyRedeemedCouponException extends RuntimeException {
+
+    public static final String errorCode = "already.redeemed.coupon";
+
+    public AlreadyRedeemedCouponException(String message) {
+        super(message);
+    }
+
+    public AlreadyRedeemedCouponException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
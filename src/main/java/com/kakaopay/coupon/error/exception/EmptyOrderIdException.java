@@ -0,0 +1,14 @@
+package com.kakaopay.coupon.error.exception;
+
+public class EmptyOrderIdException extends RuntimeException {
+
+    public static final String errorCode = "empty.order.id";
+
+    public EmptyOrderIdException(String message) {
+        super(message);
+    }
+
+    public EmptyOrderIdException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
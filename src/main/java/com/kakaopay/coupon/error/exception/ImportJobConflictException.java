@@ -0,0 +1,14 @@
+package com.kakaopay.coupon.error.exception;
+
+public class ImportJobConflictException extends RuntimeException {
+
+    public static final String errorCode = "import.job.conflict";
+
+    public ImportJobConflictException(String message) {
+        super(message);
+    }
+
+    public ImportJobConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
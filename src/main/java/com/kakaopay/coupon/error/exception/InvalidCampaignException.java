@@ -0,0 +1,14 @@
+package com.kakaopay.coupon.error.exception;
+
+public class InvalidCampaignException extends RuntimeException {
+
+    public static final String errorCode = "invalid.campaign";
+
+    public InvalidCampaignException(String message) {
+        super(message);
+    }
+
+    public InvalidCampaignException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.kakaopay.coupon.error.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public static final String errorCode = "invalid.cursor";
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.kakaopay.coupon.error.exception;
+
+public class NotExistCampaignException extends RuntimeException {
+
+    public static final String errorCode = "not.exist.campaign";
+
+    public NotExistCampaignException(String message) {
+        super(message);
+    }
+
+    public NotExistCampaignException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.kakaopay.coupon.error.exception;
+
+public class NotExistImportJobException extends RuntimeException {
+
+    public static final String errorCode = "not.exist.import.job";
+
+    public NotExistImportJobException(String message) {
+        super(message);
+    }
+
+    public NotExistImportJobException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
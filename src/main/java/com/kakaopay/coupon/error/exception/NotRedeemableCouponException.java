@@ -0,0 +1,14 @@
+package com.kakaopay.coupon.error.exception;
+
+public class NotRedeemableCouponException extends RuntimeException {
+
+    public static final String errorCode = "not.redeemable.coupon";
+
+    public NotRedeemableCouponException(String message) {
+        super(message);
+    }
+
+    public NotRedeemableCouponException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.kakaopay.coupon.error.exception;
+
+import lombok.Getter;
+
+/**
+ * 요청 제한에 걸렸다. retryAfterSeconds 뒤에 다시 보내면 통과할 수 있다.
+ */
+@Getter
+public class RateLimitedException extends RuntimeException {
+
+    public static final String errorCode = "too.many.requests";
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,14 @@
+package com.kakaopay.coupon.error.exception;
+
+public class SoldOutCampaignException extends RuntimeException {
+
+    public static final String errorCode = "sold.out.campaign";
+
+    public SoldOutCampaignException(String message) {
+        super(message);
+    }
+
+    public SoldOutCampaignException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,49 @@
+package com.kakaopay.coupon.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * 선착순 발급 캠페인. maxIssuance 개까지만 발급한다.
+ *
+ * 요청마다 한 행을 갱신하면 그 행 잠금에 모든 요청이 줄을 서므로 발급 수는 이 행에 두지 않는다.
+ * 대신 노드가 수량을 묶음으로 가져갈 때만 leased 를 올리고, 가져간 묶음은 CampaignStock 이 메모리에서 나눠 쓴다.
+ * leased 는 maxIssuance 를 넘지 않으므로 노드가 여럿이어도 초과 발급이 없다. 발급된 수는 coupon.campaignId 로 센다.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+public class Campaign {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "campaign_seq")
+    @SequenceGenerator(name = "campaign_seq", sequenceName = "campaign_seq", allocationSize = 1)
+    private Long id;
+    private String name;
+    private long maxIssuance;
+    /**
+     * 노드들이 가져간 수량의 합. 발급됐거나 어느 노드의 메모리 재고에 남아 있다.
+     */
+    @JsonIgnore
+    private long leased;
+    /**
+     * coupon.code.formats 의 형식 이름. null 이면 기본 형식으로 발급한다.
+     */
+    private String codeFormat;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss", timezone = "Asia/Seoul")
+    private Date createdAt;
+
+    public static Campaign create(String name, long maxIssuance, String codeFormat) {
+        Campaign campaign = new Campaign();
+        campaign.name = name;
+        campaign.maxIssuance = maxIssuance;
+        campaign.codeFormat = codeFormat;
+        campaign.createdAt = new Date();
+        return campaign;
+    }
+}
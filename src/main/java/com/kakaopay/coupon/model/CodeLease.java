@@ -0,0 +1,34 @@
+package com.kakaopay.coupon.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * 노드가 빌려 간 카운터 구간 [rangeStart, rangeEnd).
+ *
+ * 구간은 DB 시퀀스로 받은 id 로 정해지므로 노드끼리 겹치지 않는다. 재시작한 노드는 새 구간을 빌리고, 쓰다 남은 구간은 버린다.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+public class CodeLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "code_lease_seq")
+    @SequenceGenerator(name = "code_lease_seq", sequenceName = "code_lease_seq", allocationSize = 1)
+    private Long id;
+    @NonNull
+    private String owner;
+    private long rangeStart;
+    private long rangeEnd;
+    private Date createdAt;
+
+    public CodeLease(String owner) {
+        this.owner = owner;
+        this.createdAt = new Date();
+    }
+}
@@ -1,6 +1,9 @@
 package com.kakaopay.coupon.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kakaopay.coupon.core.CouponCode;
+import com.kakaopay.coupon.core.Fingerprint;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
@@ -12,24 +15,93 @@ import java.util.Date;
 @Data
 @NoArgsConstructor
 @Entity
+@Table(uniqueConstraints = {
+    @UniqueConstraint(name = Coupon.EMAIL_UNIQUE_KEY, columnNames = "emailHash"),
+    @UniqueConstraint(name = Coupon.CODE_UNIQUE_KEY, columnNames = "codeKey")
+}, indexes = {
+    @Index(name = "idx_coupon_created_at", columnList = "createdAt, id"),
+    @Index(name = "idx_coupon_campaign", columnList = "campaignId")
+})
 public class Coupon {
 
+    /**
+     * 제약 조건 위반 메시지에 이 이름이 들어 있으면 어느 컬럼이 중복인지 알 수 있다.
+     */
+    public static final String EMAIL_UNIQUE_KEY = "uk_coupon_email";
+    public static final String CODE_UNIQUE_KEY = "uk_coupon_code";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coupon_seq")
+    @SequenceGenerator(name = "coupon_seq", sequenceName = "coupon_seq", allocationSize = 100)
     private Long id;
+    /**
+     * 정규화된 이메일. EmailNormalizer 를 거친 값만 넣는다.
+     */
     @NonNull
-    @Column(unique = true)
     private String email;
+    /**
+     * email 의 fingerprint. 이메일 중복 확인과 조회는 가변 길이 email 대신 이 16 byte 컬럼의 unique index 를 탄다.
+     */
+    @JsonIgnore
+    @Column(length = Fingerprint.LENGTH, nullable = false)
+    private byte[] emailHash;
+    /**
+     * API 로 주고받는 "XXXX-XXXX-XXXX-XXXX" 형식의 코드. 저장하지 않고 읽을 때 CouponCodeMapping 이 codeKey 에서 다시 만든다.
+     */
     @NonNull
-    @Column(unique = true)
+    @Transient
     private String code;
+    /**
+     * code 를 CouponCode 로 바꾼 12 byte. 코드 중복 확인과 조회는 19자 문자열 대신 이 컬럼의 unique index 를 탄다.
+     * 저장할 때 CouponCodeMapping 이 code 에서 채운다.
+     */
+    @JsonIgnore
+    @Column(length = CouponCode.LENGTH, nullable = false)
+    private byte[] codeKey;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss", timezone = "Asia/Seoul")
     private Date createdAt;
+    /**
+     * 사용 처리된 시각과 주문. 사용 전에는 둘 다 null 이며, 한 번 채워지면 바뀌지 않는다.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss", timezone = "Asia/Seoul")
+    private Date redeemedAt;
+    private String redeemedOrderId;
+    /**
+     * 선착순 캠페인으로 발급된 쿠폰이면 그 캠페인 id. 캠페인 발급 수는 이 컬럼으로 센다.
+     */
+    private Long campaignId;
 
     public Coupon(String email, String code) {
-        this.email = email;
-        this.code = code;
+        this(email, code, null);
+    }
+
+    public Coupon(String email, String code, Long campaignId) {
+        setEmail(email);
+        setCode(code);
+        this.campaignId = campaignId;
         this.createdAt = new Date();
     }
 
+    public void setEmail(@NonNull String email) {
+        this.email = email;
+        this.emailHash = Fingerprint.of(email);
+    }
+
+    /**
+     * 필드를 모두 복사한 새 쿠폰. 날짜와 byte 배열도 복사하므로 원본과 상태를 나누지 않는다.
+     */
+    public Coupon copy() {
+        Coupon copy = new Coupon();
+        copy.id = id;
+        copy.email = email;
+        copy.emailHash = emailHash == null ? null : emailHash.clone();
+        copy.code = code;
+        copy.codeKey = codeKey == null ? null : codeKey.clone();
+        copy.createdAt = createdAt == null ? null : new Date(createdAt.getTime());
+        copy.redeemedAt = redeemedAt == null ? null : new Date(redeemedAt.getTime());
+        copy.redeemedOrderId = redeemedOrderId;
+        copy.campaignId = campaignId;
+        return copy;
+    }
+
 }
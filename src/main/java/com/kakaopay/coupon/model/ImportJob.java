@@ -0,0 +1,61 @@
+package com.kakaopay.coupon.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * 대량 이메일 파일 import 진행 상태.
+ *
+ * committedLines 는 쿠폰과 같은 트랜잭션에서 갱신되므로,
+ * 중단된 import 를 같은 파일로 다시 올리면 이 줄 수만큼 건너뛰고 이어서 처리한다.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private ImportStatus status;
+    private long committedLines;
+    private long issued;
+    private long duplicate;
+    private long invalid;
+    private String message;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss", timezone = "Asia/Seoul")
+    private Date createdAt;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss", timezone = "Asia/Seoul")
+    private Date updatedAt;
+    @JsonIgnore
+    @Version
+    private long version;
+
+    public static ImportJob create() {
+        ImportJob job = new ImportJob();
+        job.status = ImportStatus.CREATED;
+        job.createdAt = new Date();
+        job.updatedAt = job.createdAt;
+        return job;
+    }
+
+    public void commitChunk(long lines, long issued, long duplicate, long invalid) {
+        this.committedLines += lines;
+        this.issued += issued;
+        this.duplicate += duplicate;
+        this.invalid += invalid;
+        this.updatedAt = new Date();
+    }
+
+    public void changeStatus(ImportStatus status, String message) {
+        this.status = status;
+        this.message = message;
+        this.updatedAt = new Date();
+    }
+}
@@ -0,0 +1,8 @@
+package com.kakaopay.coupon.model;
+
+public enum ImportStatus {
+    CREATED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,16 @@
+package com.kakaopay.coupon.model;
+
+public enum IssueMode {
+    /**
+     * existsByCode, existsByEmail 로 확인한 뒤 저장한다.
+     */
+    CHECKED,
+    /**
+     * 확인 없이 바로 insert 하고, unique 제약 조건 위반을 중복 이메일 / 코드 충돌로 바꾼다.
+     */
+    OPTIMISTIC,
+    /**
+     * 이메일과 코드를 메모리에 잡고 로컬 저널에 기록한 뒤 바로 응답한다. DB 저장은 writer 스레드가 모아서 한다.
+     */
+    WRITE_BEHIND
+}
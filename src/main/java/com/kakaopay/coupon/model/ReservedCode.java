@@ -0,0 +1,45 @@
+package com.kakaopay.coupon.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kakaopay.coupon.core.CouponCode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * 아직 이메일에 묶이지 않은, 중복 검사를 마친 쿠폰 코드.
+ *
+ * owner 는 코드를 미리 만들어 둔 노드로, 재시작한 노드는 자기 몫의 코드만 다시 메모리에 올린다.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_reserved_code_owner", columnList = "owner"))
+public class ReservedCode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reserved_code_seq")
+    @SequenceGenerator(name = "reserved_code_seq", sequenceName = "reserved_code_seq", allocationSize = 100)
+    private Long id;
+    @NonNull
+    @Transient
+    private String code;
+    /**
+     * Coupon.codeKey 와 같은 12 byte 표현. 저장할 때 CouponCodeMapping 이 code 에서 채운다.
+     */
+    @JsonIgnore
+    @Column(unique = true, length = CouponCode.LENGTH, nullable = false)
+    private byte[] codeKey;
+    @NonNull
+    private String owner;
+    private Date createdAt;
+
+    public ReservedCode(String code, String owner) {
+        setCode(code);
+        this.owner = owner;
+        this.createdAt = new Date();
+    }
+}
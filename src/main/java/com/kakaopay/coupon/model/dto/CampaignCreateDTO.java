@@ -0,0 +1,23 @@
+package com.kakaopay.coupon.model.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class CampaignCreateDTO {
+
+    String name;
+    long maxIssuance;
+    String codeFormat;
+
+    public CampaignCreateDTO(String name, long maxIssuance) {
+        this(name, maxIssuance, null);
+    }
+
+    public CampaignCreateDTO(String name, long maxIssuance, String codeFormat) {
+        this.name = name;
+        this.maxIssuance = maxIssuance;
+        this.codeFormat = codeFormat;
+    }
+}
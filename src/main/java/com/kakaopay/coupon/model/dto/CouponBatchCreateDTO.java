@@ -0,0 +1,18 @@
+package com.kakaopay.coupon.model.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.NotEmpty;
+
+@Getter
+@NoArgsConstructor
+public class CouponBatchCreateDTO {
+
+    @NotEmpty
+    List<String> emails;
+
+    public CouponBatchCreateDTO(List<String> emails) {
+        this.emails = emails;
+    }
+}
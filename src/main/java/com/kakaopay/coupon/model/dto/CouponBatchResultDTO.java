@@ -0,0 +1,45 @@
+package com.kakaopay.coupon.model.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class CouponBatchResultDTO {
+
+    private int issued;
+    private int duplicate;
+    private int invalid;
+    private List<Item> results;
+
+    public CouponBatchResultDTO(List<Item> results) {
+        this.results = results;
+        for (Item item : results) {
+            switch (item.getStatus()) {
+                case ISSUED:
+                    issued++;
+                    break;
+                case DUPLICATE:
+                    duplicate++;
+                    break;
+                default:
+                    invalid++;
+            }
+        }
+    }
+
+    @Getter
+    @NoArgsConstructor
+    public static class Item {
+        private String email;
+        private IssueStatus status;
+        private String code;
+
+        public Item(String email, IssueStatus status, String code) {
+            this.email = email;
+            this.status = status;
+            this.code = code;
+        }
+    }
+}
@@ -3,20 +3,27 @@ package com.kakaopay.coupon.model.dto;
 import com.kakaopay.coupon.error.exception.InvalidEmailException;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.RequiredArgsConstructor;
 import org.hibernate.validator.constraints.Email;
 import org.hibernate.validator.constraints.NotBlank;
 
 @Getter
-@RequiredArgsConstructor
 @NoArgsConstructor
 public class CouponCreateDTO {
 
     @NotBlank
     @Email(message = InvalidEmailException.errorCode)
     String email;
+    /**
+     * 선착순 캠페인 쿠폰을 받을 때만 넣는다.
+     */
+    Long campaignId;
 
     public CouponCreateDTO(String email) {
+        this(email, null);
+    }
+
+    public CouponCreateDTO(String email, Long campaignId) {
         this.email = email;
+        this.campaignId = campaignId;
     }
 }
@@ -0,0 +1,77 @@
+package com.kakaopay.coupon.model.dto;
+
+import com.kakaopay.coupon.error.exception.InvalidCursorException;
+import com.kakaopay.coupon.model.Coupon;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import lombok.Getter;
+
+/**
+ * 목록 조회에서 마지막으로 돌려준 쿠폰의 정렬 키. offset 대신 이 값 다음부터 인덱스를 seek 한다.
+ *
+ * 클라이언트에게는 "i.{id}" / "c.{createdAt}.{id}" 를 base64url 로 감싼 불투명 토큰으로 내보낸다.
+ */
+@Getter
+public class CouponCursor {
+
+    public enum Sort {
+        ID("id"), CREATED_AT("createdAt");
+
+        private final String param;
+
+        Sort(String param) {
+            this.param = param;
+        }
+
+        public static Sort of(String param) {
+            if (param == null || param.isEmpty()) {
+                return ID;
+            }
+            for (Sort sort : values()) {
+                if (sort.param.equalsIgnoreCase(param)) {
+                    return sort;
+                }
+            }
+            throw new InvalidCursorException("Not supported sort : " + param);
+        }
+    }
+
+    private final Sort sort;
+    private final Date createdAt;
+    private final long id;
+
+    private CouponCursor(Sort sort, Date createdAt, long id) {
+        this.sort = sort;
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static CouponCursor afterId(long id) {
+        return new CouponCursor(Sort.ID, null, id);
+    }
+
+    public static CouponCursor after(Sort sort, Coupon last) {
+        return new CouponCursor(sort, sort == Sort.CREATED_AT ? last.getCreatedAt() : null, last.getId());
+    }
+
+    public String encode() {
+        String raw = sort == Sort.CREATED_AT ? "c." + createdAt.getTime() + "." + id : "i." + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static CouponCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split("\\.");
+            if (parts.length == 2 && parts[0].equals("i")) {
+                return afterId(Long.parseLong(parts[1]));
+            }
+            if (parts.length == 3 && parts[0].equals("c")) {
+                return new CouponCursor(Sort.CREATED_AT, new Date(Long.parseLong(parts[1])), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor : " + token, e);
+        }
+        throw new InvalidCursorException("Invalid cursor : " + token);
+    }
+}
@@ -0,0 +1,20 @@
+package com.kakaopay.coupon.model.dto;
+
+import lombok.Getter;
+
+/**
+ * JPQL constructor expression 용. codeKey 는 CouponCodeFormats 의 CouponCode 로 코드 문자열로 되돌린다.
+ */
+@Getter
+public class CouponKey {
+
+    private final Long id;
+    private final String email;
+    private final byte[] codeKey;
+
+    public CouponKey(Long id, String email, byte[] codeKey) {
+        this.id = id;
+        this.email = email;
+        this.codeKey = codeKey;
+    }
+}
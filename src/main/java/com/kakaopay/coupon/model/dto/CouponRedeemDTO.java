@@ -0,0 +1,18 @@
+package com.kakaopay.coupon.model.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class CouponRedeemDTO {
+
+    /**
+     * 사용을 요청한 주문. 같은 orderId 로 다시 요청하면 재시도로 보고 같은 결과를 돌려준다.
+     */
+    String orderId;
+
+    public CouponRedeemDTO(String orderId) {
+        this.orderId = orderId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.kakaopay.coupon.model.dto;
+
+import com.kakaopay.coupon.model.Coupon;
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 전체 개수 없이 한 페이지와 다음 페이지 토큰만 돌려준다. 마지막 페이지면 next 는 null.
+ */
+@Getter
+@NoArgsConstructor
+public class CouponSliceDTO {
+
+    private List<Coupon> content;
+    private int size;
+    private String next;
+
+    public CouponSliceDTO(List<Coupon> content, String next) {
+        this.content = content;
+        this.size = content.size();
+        this.next = next;
+    }
+}
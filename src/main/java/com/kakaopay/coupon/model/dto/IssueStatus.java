@@ -0,0 +1,7 @@
+package com.kakaopay.coupon.model.dto;
+
+public enum IssueStatus {
+    ISSUED,
+    DUPLICATE,
+    INVALID
+}
@@ -0,0 +1,19 @@
+package com.kakaopay.coupon.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 운영 중에 바꿀 수 있는 요청 제한 값. 변경 요청에서 null 인 항목은 그대로 둔다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitDTO {
+
+    Boolean enabled;
+    Double permitsPerSecond;
+    Integer burst;
+    Integer maxConcurrent;
+}
@@ -0,0 +1,32 @@
+package com.kakaopay.coupon.repository;
+
+import com.kakaopay.coupon.model.Campaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CampaignRepository extends JpaRepository<Campaign, Long> {
+
+    /**
+     * 아직 어느 노드에도 나눠 주지 않은 수량. 없는 캠페인이면 null 이다.
+     */
+    @Query("select c.maxIssuance - c.leased from Campaign c where c.id = :id")
+    Long findUnleased(@Param("id") Long id);
+
+    /**
+     * maxIssuance 를 넘지 않을 때만 count 개를 가져간다. 가져갔으면 1, 그 사이 다른 노드가 가져가 모자라면 0 이다.
+     */
+    @Modifying
+    @Query("update Campaign c set c.leased = c.leased + :count where c.id = :id and c.leased + :count <= c.maxIssuance")
+    int lease(@Param("id") Long id, @Param("count") long count);
+
+    /**
+     * 노드가 내려갈 때 쓰지 않은 수량을 돌려준다.
+     */
+    @Modifying
+    @Query("update Campaign c set c.leased = c.leased - :count where c.id = :id and c.leased >= :count")
+    int giveBack(@Param("id") Long id, @Param("count") long count);
+}
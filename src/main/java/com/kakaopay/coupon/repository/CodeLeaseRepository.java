@@ -0,0 +1,9 @@
+package com.kakaopay.coupon.repository;
+
+import com.kakaopay.coupon.model.CodeLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CodeLeaseRepository extends JpaRepository<CodeLease, Long> {
+}
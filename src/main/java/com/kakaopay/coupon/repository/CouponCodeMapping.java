@@ -0,0 +1,69 @@
+package com.kakaopay.coupon.repository;
+
+import com.kakaopay.coupon.core.CouponCode;
+import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.ReservedCode;
+import com.kakaopay.coupon.service.CouponCodeFormats;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import lombok.Getter;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PersistEvent;
+import org.hibernate.event.spi.PersistEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coupon, ReservedCode 의 code 와 codeKey 를 CouponCodeFormats 의 CouponCode 로 바꾼다.
+ *
+ * 엔티티는 주입을 받을 수 없으므로 Hibernate listener 로 persist 직전에 codeKey 를 채우고, 읽은 뒤 code 를 되살린다.
+ * 형식에 맞지 않는 코드는 codeKey 가 null 이 되어 저장할 때 실패한다.
+ * repository 구현이 이 bean 을 주입받으므로 repository 를 쓰기 전에 listener 가 등록된다.
+ */
+@Component
+public class CouponCodeMapping implements PersistEventListener, PostLoadEventListener {
+
+    @Getter
+    private final CouponCode couponCode;
+
+    public CouponCodeMapping(EntityManagerFactory entityManagerFactory, CouponCodeFormats codeFormats) {
+        this.couponCode = codeFormats.getCouponCode();
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                                                             .getServiceRegistry()
+                                                             .getService(EventListenerRegistry.class);
+        registry.prependListeners(EventType.PERSIST, this);
+        registry.appendListeners(EventType.POST_LOAD, this);
+    }
+
+    @Override
+    public void onPersist(PersistEvent event) {
+        Object entity = event.getObject();
+        if (entity instanceof Coupon) {
+            Coupon coupon = (Coupon) entity;
+            coupon.setCodeKey(couponCode.pack(coupon.getCode()));
+        } else if (entity instanceof ReservedCode) {
+            ReservedCode reserved = (ReservedCode) entity;
+            reserved.setCodeKey(couponCode.pack(reserved.getCode()));
+        }
+    }
+
+    @Override
+    public void onPersist(PersistEvent event, Map createdAlready) {
+        onPersist(event);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Coupon) {
+            Coupon coupon = (Coupon) entity;
+            coupon.setCode(couponCode.unpack(coupon.getCodeKey()));
+        } else if (entity instanceof ReservedCode) {
+            ReservedCode reserved = (ReservedCode) entity;
+            reserved.setCode(couponCode.unpack(reserved.getCodeKey()));
+        }
+    }
+}
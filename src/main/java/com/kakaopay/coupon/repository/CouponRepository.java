@@ -1,16 +1,133 @@
 package com.kakaopay.coupon.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import com.kakaopay.coupon.core.Fingerprint;
 import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.dto.CouponKey;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 
 @Repository
-public interface CouponRepository extends JpaRepository<Coupon, Long> {
+public interface CouponRepository extends JpaRepository<Coupon, Long>, CouponRepositoryCustom {
+
+    Coupon findByEmailHash(byte[] emailHash);
+    Coupon findByCodeKey(byte[] codeKey);
+
+    boolean existsByCodeKey(byte[] codeKey);
+    boolean existsByEmailHash(byte[] emailHash);
+
+    long countByCampaignId(Long campaignId);
+
+    @Query("select c.email from Coupon c where c.emailHash in :emailHashes")
+    List<String> findEmailsByHashIn(@Param("emailHashes") Collection<byte[]> emailHashes);
+
+    /*
+        이메일 조회는 모두 고정 길이 emailHash 의 unique index 로 한다. 인자는 정규화된 이메일이어야 한다.
+     */
+    default Coupon findByEmail(String email) {
+        return findByEmailHash(Fingerprint.of(email));
+    }
+
+    default boolean existsByEmail(String email) {
+        return existsByEmailHash(Fingerprint.of(email));
+    }
+
+    default List<String> findEmailsIn(Collection<String> emails) {
+        List<byte[]> hashes = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            hashes.add(Fingerprint.of(email));
+        }
+        return findEmailsByHashIn(hashes);
+    }
+
+    @Query("select c.codeKey from Coupon c where c.codeKey in :codeKeys")
+    List<byte[]> findCodeKeysIn(@Param("codeKeys") Collection<byte[]> codeKeys);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Coupon c set c.redeemedAt = :redeemedAt, c.redeemedOrderId = :orderId"
+           + " where c.codeKey = :codeKey and c.redeemedAt is null")
+    int redeemByCodeKey(@Param("codeKey") byte[] codeKey, @Param("orderId") String orderId,
+                        @Param("redeemedAt") Date redeemedAt);
+
+    /*
+        코드 조회는 입력을 한 번만 CouponCode 로 바꿔 12 byte codeKey 의 unique index 로 한다.
+        형식에 맞지 않는 코드는 저장될 수 없으므로 DB 에 묻지 않는다.
+     */
+    default Coupon findByCode(String code) {
+        byte[] codeKey = couponCode().pack(code);
+        return codeKey == null ? null : findByCodeKey(codeKey);
+    }
+
+    default boolean existsByCode(String code) {
+        byte[] codeKey = couponCode().pack(code);
+        return codeKey != null && existsByCodeKey(codeKey);
+    }
+
+    default List<String> findCodesIn(Collection<String> codes) {
+        List<byte[]> codeKeys = couponCode().packAll(codes);
+        if (codeKeys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return couponCode().unpackAll(findCodeKeysIn(codeKeys));
+    }
+
+    /**
+     * 사용되지 않은 쿠폰만 사용 처리한다. 동시에 같은 코드로 들어와도 DB 가 한 건만 1 을 돌려준다.
+     * 반영된 행이 없으면 이미 사용됐거나 없는 코드다.
+     */
+    default int redeem(String code, String orderId, Date redeemedAt) {
+        byte[] codeKey = couponCode().pack(code);
+        return codeKey == null ? 0 : redeemByCodeKey(codeKey, orderId, redeemedAt);
+    }
+
+    /*
+        keyset 목록 조회. 반환 타입이 Page 가 아니므로 count 쿼리가 나가지 않는다.
+     */
+    @Query("select c from Coupon c where c.id > :afterId order by c.id")
+    List<Coupon> findAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /*
+        앞의 c.createdAt >= :createdAt 가 (createdAt, id) 인덱스의 range 조건이 되도록 or 를 안쪽에 둔다.
+     */
+    @Query("select c from Coupon c where c.createdAt >= :createdAt"
+           + " and (c.createdAt > :createdAt or c.id > :afterId) order by c.createdAt, c.id")
+    List<Coupon> findAfterCreatedAt(@Param("createdAt") Date createdAt, @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    @Query("select c from Coupon c order by c.createdAt, c.id")
+    List<Coupon> findFirstByCreatedAt(Pageable pageable);
+
+    /**
+     * export 용 forward-only 커서. 트랜잭션 안에서 사용하고 다 읽으면 close 해야 한다.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READONLY, value = "true"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select c from Coupon c order by c.id")
+    Stream<Coupon> streamAll();
 
-    Coupon findByEmail(String email);
+    @Query("select new com.kakaopay.coupon.model.dto.CouponKey(c.id, c.email, c.codeKey) from Coupon c"
+           + " where c.id > :afterId order by c.id")
+    List<CouponKey> findKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
 
-    boolean existsByCode(String code);
-    boolean existsByEmail(String email);
+    @Query("select new com.kakaopay.coupon.model.dto.CouponKey(c.id, c.email, c.codeKey) from Coupon c"
+           + " where c.createdAt >= :since")
+    List<CouponKey> findKeysCreatedSince(@Param("since") Date since);
 }
@@ -0,0 +1,20 @@
+package com.kakaopay.coupon.repository;
+
+import com.kakaopay.coupon.core.CouponCode;
+import com.kakaopay.coupon.model.Coupon;
+
+import java.util.List;
+
+public interface CouponRepositoryCustom {
+
+    /**
+     * hibernate.jdbc.batch_size 단위로 flush/clear 하면서 insert 한다.
+     * 대량 발급 시 영속성 컨텍스트가 계속 커지지 않도록 저장된 엔티티는 detach 된다.
+     */
+    void insertAll(List<Coupon> coupons);
+
+    /**
+     * 코드로 조회하는 default 메소드가 코드를 codeKey 로 바꿀 때 쓴다.
+     */
+    CouponCode couponCode();
+}
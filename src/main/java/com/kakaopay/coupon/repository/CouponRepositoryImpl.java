@@ -0,0 +1,40 @@
+package com.kakaopay.coupon.repository;
+
+import com.kakaopay.coupon.core.CouponCode;
+import com.kakaopay.coupon.model.Coupon;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+public class CouponRepositoryImpl implements CouponRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CouponCodeMapping codeMapping;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<Coupon> coupons) {
+        for (int i = 0; i < coupons.size(); i++) {
+            entityManager.persist(coupons.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public CouponCode couponCode() {
+        return codeMapping.getCouponCode();
+    }
+}
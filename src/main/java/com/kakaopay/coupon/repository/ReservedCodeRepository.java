@@ -0,0 +1,41 @@
+package com.kakaopay.coupon.repository;
+
+import com.kakaopay.coupon.model.ReservedCode;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReservedCodeRepository extends JpaRepository<ReservedCode, Long>, ReservedCodeRepositoryCustom {
+
+    List<ReservedCode> findByOwner(String owner, Pageable pageable);
+
+    boolean existsByCodeKey(byte[] codeKey);
+
+    @Query("select r.codeKey from ReservedCode r where r.codeKey in :codeKeys")
+    List<byte[]> findCodeKeysIn(@Param("codeKeys") Collection<byte[]> codeKeys);
+
+    default boolean existsByCode(String code) {
+        byte[] codeKey = couponCode().pack(code);
+        return codeKey != null && existsByCodeKey(codeKey);
+    }
+
+    default List<String> findCodesIn(Collection<String> codes) {
+        List<byte[]> codeKeys = couponCode().packAll(codes);
+        if (codeKeys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return couponCode().unpackAll(findCodeKeysIn(codeKeys));
+    }
+
+    @Modifying
+    @Query("delete from ReservedCode r where r.id = :id")
+    int deleteById(@Param("id") Long id);
+}
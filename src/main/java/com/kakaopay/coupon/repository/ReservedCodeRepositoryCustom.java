@@ -0,0 +1,11 @@
+package com.kakaopay.coupon.repository;
+
+import com.kakaopay.coupon.core.CouponCode;
+
+public interface ReservedCodeRepositoryCustom {
+
+    /**
+     * 코드로 조회하는 default 메소드가 코드를 codeKey 로 바꿀 때 쓴다.
+     */
+    CouponCode couponCode();
+}
@@ -0,0 +1,15 @@
+package com.kakaopay.coupon.repository;
+
+import com.kakaopay.coupon.core.CouponCode;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class ReservedCodeRepositoryImpl implements ReservedCodeRepositoryCustom {
+
+    @Autowired
+    private CouponCodeMapping codeMapping;
+
+    @Override
+    public CouponCode couponCode() {
+        return codeMapping.getCouponCode();
+    }
+}
@@ -0,0 +1,34 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.dto.CouponCreateDTO;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * CouponService 호출을 couponOffloadExecutor 로 넘긴다.
+ *
+ * JDBC 는 블로킹이므로 DB 를 기다리는 스레드 수는 pool 크기로 묶이고, 요청 스레드는 기다리지 않는다.
+ * pool 과 대기열이 모두 차면 RejectedExecutionException 을 호출한 스레드에서 바로 던진다.
+ */
+@RequiredArgsConstructor
+@Service
+public class AsyncCouponService {
+
+    private final CouponService couponService;
+    private final ThreadPoolTaskExecutor couponOffloadExecutor;
+
+    public CompletableFuture<Coupon> get(Long id) {
+        return CompletableFuture.supplyAsync(() -> couponService.get(id), couponOffloadExecutor);
+    }
+
+    public CompletableFuture<Coupon> getByCode(String code) {
+        return CompletableFuture.supplyAsync(() -> couponService.getByCode(code), couponOffloadExecutor);
+    }
+
+    public CompletableFuture<Coupon> create(CouponCreateDTO dto) {
+        return CompletableFuture.supplyAsync(() -> couponService.create(dto), couponOffloadExecutor);
+    }
+}
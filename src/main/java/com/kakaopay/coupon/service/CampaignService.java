@@ -0,0 +1,40 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.error.exception.InvalidCampaignException;
+import com.kakaopay.coupon.error.exception.NotExistCampaignException;
+import com.kakaopay.coupon.model.Campaign;
+import com.kakaopay.coupon.model.dto.CampaignCreateDTO;
+import com.kakaopay.coupon.repository.CampaignRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+@RequiredArgsConstructor
+@Service
+public class CampaignService {
+
+    private final CampaignRepository campaignRepo;
+    private final CouponCodeFormats codeFormats;
+
+    @Transactional
+    public Campaign create(CampaignCreateDTO dto) {
+        if (StringUtils.isEmpty(dto.getName()) || dto.getMaxIssuance() <= 0) {
+            throw new InvalidCampaignException("Fail to create Campaign. Name is empty or max issuance is not positive.");
+        }
+        if (!codeFormats.contains(dto.getCodeFormat())) {
+            throw new InvalidCampaignException("Fail to create Campaign. Not supported code format : "
+                                               + dto.getCodeFormat());
+        }
+        return campaignRepo.save(Campaign.create(dto.getName(), dto.getMaxIssuance(), dto.getCodeFormat()));
+    }
+
+    @Transactional(readOnly = true)
+    public Campaign get(Long id) {
+        Campaign campaign = campaignRepo.findOne(id);
+        if (campaign == null) {
+            throw new NotExistCampaignException("Not exist campaign with id : " + id);
+        }
+        return campaign;
+    }
+}
@@ -0,0 +1,178 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.configuration.CampaignProperties;
+import com.kakaopay.coupon.core.StripedStock;
+import com.kakaopay.coupon.error.exception.NotExistCampaignException;
+import com.kakaopay.coupon.model.Campaign;
+import com.kakaopay.coupon.repository.CampaignRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 캠페인별 남은 발급 수량을 메모리에서 센다.
+ *
+ * 노드는 캠페인 행에서 leaseSize 개씩 조건부 UPDATE 로 가져와(lease) StripedStock 에 나눠 담고, 발급 전에 하나를 꺼낸다.
+ * 발급에 실패하면 이 노드의 재고로 되돌린다. 가져간 수의 합(leased)이 maxIssuance 를 넘지 못하므로 노드가 여럿이어도
+ * 초과 발급이 없다. 캠페인 행은 묶음을 가져갈 때만 갱신하므로 발급 요청은 그 행 잠금에 줄을 서지 않는다.
+ *
+ * 가져갈 수량이 없으면 품절로 보고 soldOutRecheckSeconds 동안은 다시 묻지 않는다.
+ * 내려갈 때 쓰지 않은 수량은 돌려주지만, 죽은 노드가 들고 있던 수량만큼은 덜 발급된다.
+ *
+ * 발급할 코드의 형식 이름도 캠페인을 처음 읽을 때 같이 들고 있는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CampaignStock {
+
+    private final CampaignProperties properties;
+    private final CampaignRepository campaignRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+    private Counter soldOut;
+    private Counter leases;
+
+    @PostConstruct
+    public void init() {
+        soldOut = meterRegistry.counter("coupon.campaign.sold.out");
+        leases = meterRegistry.counter("coupon.campaign.leases");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        stocks.forEach((campaignId, stock) -> {
+            long unused = stock.stock.drain(Long.MAX_VALUE);
+            if (unused == 0) {
+                return;
+            }
+            try {
+                transactionTemplate.execute(status -> campaignRepo.giveBack(campaignId, unused));
+                log.info("CampaignStock - destroy : gave back {} of campaign {}", unused, campaignId);
+            } catch (RuntimeException e) {
+                log.warn("CampaignStock - destroy : failed to give back {} of campaign {}", unused, campaignId, e);
+            }
+        });
+    }
+
+    /**
+     * 재고 하나를 꺼낸다. 품절이면 false 다.
+     */
+    public boolean tryAcquire(Long campaignId) {
+        Stock stock = stock(campaignId);
+        if (stock.stock.tryAcquire() || acquireLeased(campaignId, stock)) {
+            return true;
+        }
+        soldOut.increment();
+        return false;
+    }
+
+    public void release(Long campaignId) {
+        stock(campaignId).stock.release(1);
+    }
+
+    /**
+     * 캠페인의 코드 형식 이름. 기본 형식이면 null 이다.
+     */
+    public String codeFormatOf(Long campaignId) {
+        return stock(campaignId).codeFormat;
+    }
+
+    /**
+     * 이 노드가 가져와 아직 쓰지 않은 수량
+     */
+    public long remaining(Long campaignId) {
+        return stock(campaignId).stock.remaining();
+    }
+
+    /**
+     * 메모리 재고가 비었으면 캠페인 행에서 한 묶음을 가져와 하나를 꺼낸다.
+     * 묶음은 한 스레드만 가져오고, 기다린 스레드는 그 묶음에서 꺼낸다.
+     */
+    private boolean acquireLeased(Long campaignId, Stock stock) {
+        stock.leaseLock.lock();
+        try {
+            while (!stock.stock.tryAcquire()) {
+                if (stock.soldOut && System.nanoTime() - stock.soldOutAt < recheckNanos()) {
+                    return false;
+                }
+                long leased = lease(campaignId);
+                if (leased == 0) {
+                    stock.soldOut = true;
+                    stock.soldOutAt = System.nanoTime();
+                    return false;
+                }
+                stock.soldOut = false;
+                stock.stock.add(leased);
+                leases.increment();
+            }
+            return true;
+        } finally {
+            stock.leaseLock.unlock();
+        }
+    }
+
+    /**
+     * 남은 수량이 leaseSize 보다 적으면 남은 만큼만 가져간다. 다른 노드와 겹쳐 UPDATE 가 반영되지 않으면 다시 읽는다.
+     */
+    private long lease(Long campaignId) {
+        return transactionTemplate.execute(status -> {
+            while (true) {
+                Long unleased = campaignRepo.findUnleased(campaignId);
+                long count = Math.min(properties.getLeaseSize(), unleased == null ? 0 : unleased);
+                if (count <= 0) {
+                    return 0L;
+                } else if (campaignRepo.lease(campaignId, count) == 1) {
+                    return count;
+                }
+            }
+        });
+    }
+
+    private long recheckNanos() {
+        return TimeUnit.SECONDS.toNanos(properties.getSoldOutRecheckSeconds());
+    }
+
+    private Stock stock(Long campaignId) {
+        Stock stock = stocks.get(campaignId);
+        return stock != null ? stock : stocks.computeIfAbsent(campaignId, this::load);
+    }
+
+    private Stock load(Long campaignId) {
+        Campaign campaign = campaignRepo.findOne(campaignId);
+        if (campaign == null) {
+            throw new NotExistCampaignException("Not exist campaign with id : " + campaignId);
+        }
+        Stock stock = new Stock(new StripedStock(0, properties.getStockStripes()), campaign.getCodeFormat());
+        Gauge.builder("coupon.campaign.remaining", stock.stock, StripedStock::remaining)
+             .tag("campaign", String.valueOf(campaignId))
+             .register(meterRegistry);
+        log.info("CampaignStock - load : campaign {} max {}", campaignId, campaign.getMaxIssuance());
+        return stock;
+    }
+
+    private static final class Stock {
+        private final StripedStock stock;
+        private final String codeFormat;
+        private final ReentrantLock leaseLock = new ReentrantLock();
+        private boolean soldOut;
+        private long soldOutAt;
+
+        Stock(StripedStock stock, String codeFormat) {
+            this.stock = stock;
+            this.codeFormat = codeFormat;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.kakaopay.coupon.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kakaopay.coupon.configuration.CouponCacheProperties;
+import com.kakaopay.coupon.model.Coupon;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * id, email, code 로 조회한 쿠폰을 담아 두는 read-through 캐시.
+ *
+ * 발급된 쿠폰은 사용 처리될 때만 바뀌며, 그때 evictByCode 로 이 노드의 세 캐시를 비우고 다시 읽은 상태를 put 한다.
+ * 그 밖에는 크기(W-TinyLFU)와 TTL 로만 비운다. 캐시는 노드마다 따로 있으므로 다른 노드에서 사용 처리된 쿠폰은
+ * TTL 이 끝날 때까지 사용 전 상태로 보일 수 있다. 사용 가능 여부는 캐시가 아니라 DB 의 조건부 UPDATE 로 판단하므로 중복 사용은 생기지 않는다.
+ * 캐시에는 복사본을 넣고 꺼낼 때도 복사본을 돌려주므로, 호출한 쪽이 쿠폰을 바꿔도 캐시나 다른 요청에 번지지 않는다.
+ * 없는 쿠폰(null)과 아직 저장되지 않은(id 가 없는) WRITE_BEHIND 쿠폰은 캐시하지 않는다. 적중/미스/제거 통계는 cache.* 메트릭으로 내보낸다.
+ */
+@Component
+public class CouponCache {
+
+    private final boolean enabled;
+    private final Cache<Long, Coupon> byId;
+    private final Cache<String, Coupon> byEmail;
+    private final Cache<String, Coupon> byCode;
+
+    public CouponCache(CouponCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.byId = CaffeineCacheMetrics.monitor(meterRegistry, build(properties), "coupon.by.id");
+        this.byEmail = CaffeineCacheMetrics.monitor(meterRegistry, build(properties), "coupon.by.email");
+        this.byCode = CaffeineCacheMetrics.monitor(meterRegistry, build(properties), "coupon.by.code");
+    }
+
+    private static <K> Cache<K, Coupon> build(CouponCacheProperties properties) {
+        return Caffeine.newBuilder()
+                       .maximumSize(properties.getMaximumSize())
+                       .expireAfterWrite(properties.getExpireAfterWriteSeconds(), TimeUnit.SECONDS)
+                       .recordStats()
+                       .build();
+    }
+
+    public Coupon getById(Long id, Function<Long, Coupon> loader) {
+        return enabled ? load(byId, id, loader) : loader.apply(id);
+    }
+
+    public Coupon getByEmail(String email, Function<String, Coupon> loader) {
+        return enabled ? load(byEmail, email, loader) : loader.apply(email);
+    }
+
+    public Coupon getByCode(String code, Function<String, Coupon> loader) {
+        return enabled ? load(byCode, code, loader) : loader.apply(code);
+    }
+
+    /**
+     * coupon 의 복사본 하나를 세 캐시에 넣는다. 넣은 뒤 coupon 을 바꿔도 캐시는 바뀌지 않는다.
+     */
+    public void put(Coupon coupon) {
+        if (!enabled || !cacheable(coupon)) {
+            return;
+        }
+        Coupon copy = coupon.copy();
+        byId.put(copy.getId(), copy);
+        byEmail.put(copy.getEmail(), copy);
+        byCode.put(copy.getCode(), copy);
+    }
+
+    /**
+     * code 로 캐시된 쿠폰을 세 캐시에서 모두 지운다. 쿠폰 상태를 바꾼 뒤 다시 읽기 전에 부른다.
+     */
+    public void evictByCode(String code) {
+        if (!enabled) {
+            return;
+        }
+        Coupon cached = byCode.getIfPresent(code);
+        byCode.invalidate(code);
+        if (cached != null) {
+            byId.invalidate(cached.getId());
+            byEmail.invalidate(cached.getEmail());
+        }
+    }
+
+    /**
+     * 한 캐시에서 읽어 온 쿠폰은 나머지 두 캐시에도 넣는다. id 가 없는 쿠폰은 loader 결과만 돌려주고 캐시에는 남기지 않는다.
+     * 같은 key 를 동시에 읽는 요청은 loader 한 번의 결과를 나눠 받되, 각자 복사본을 받는다.
+     */
+    private <K> Coupon load(Cache<K, Coupon> cache, K key, Function<K, Coupon> loader) {
+        Coupon[] loaded = new Coupon[1];
+        Coupon cached = cache.get(key, k -> {
+            loaded[0] = loader.apply(k);
+            return cacheable(loaded[0]) ? loaded[0].copy() : null;
+        });
+        if (loaded[0] == null) {
+            return cached == null ? null : cached.copy();
+        }
+        put(loaded[0]);
+        return loaded[0];
+    }
+
+    private static boolean cacheable(Coupon coupon) {
+        return coupon != null && coupon.getId() != null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.configuration.CodeFormatProperties;
+import com.kakaopay.coupon.core.CodeFormat;
+import com.kakaopay.coupon.core.CouponCode;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * coupon.code.formats 의 형식을 생성할 때 한 번 컴파일해 이름으로 돌려준다.
+ *
+ * 저장된 코드를 읽고 쓰는 CouponCode 도 여기서 만든다. 코드를 다루는 bean 은 이 bean 을 주입받으므로
+ * 형식이 준비되기 전에 코드를 읽는 일이 없다.
+ */
+@Slf4j
+@Component
+public class CouponCodeFormats {
+
+    private final Map<String, CodeFormat> formats = new HashMap<>();
+    @Getter
+    private final CouponCode couponCode;
+
+    public CouponCodeFormats(CodeFormatProperties properties) {
+        Map<Integer, CodeFormat> byId = new HashMap<>();
+        properties.getFormats().forEach((name, spec) -> {
+            CodeFormat format = CodeFormat.compile(spec.getAlphabet(), spec.getLength(), spec.getGroup(),
+                                                   spec.getSeparator(), spec.getPrefix(), spec.getChecksum());
+            if (byId.putIfAbsent(spec.getId(), format) != null) {
+                throw new IllegalArgumentException("Code format id " + spec.getId() + " is already used : " + name);
+            }
+            formats.put(name, format);
+            log.info("CouponCodeFormats - init : {} (id {}) {}", name, spec.getId(), format);
+        });
+        this.couponCode = new CouponCode(byId);
+    }
+
+    /**
+     * name 이 null 이면 기본 형식, 등록되지 않은 이름이면 null 이다.
+     */
+    public CodeFormat get(String name) {
+        return name == null ? CodeFormat.DEFAULT : formats.get(name);
+    }
+
+    public boolean contains(String name) {
+        return get(name) != null;
+    }
+}
@@ -0,0 +1,221 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.configuration.CodePoolProperties;
+import com.kakaopay.coupon.core.CodeGenerator;
+import com.kakaopay.coupon.model.ReservedCode;
+import com.kakaopay.coupon.repository.CouponRepository;
+import com.kakaopay.coupon.repository.ReservedCodeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * 중복 검사를 미리 마친 쿠폰 코드를 reserved_code 테이블에 예약해 두고 메모리 큐로 꺼내 쓴다.
+ *
+ * 발급 요청은 큐에서 코드를 꺼내 이메일에 묶기만 하므로 existsByCode 를 호출하지 않는다.
+ * 남은 코드가 lowWatermark 아래로 내려가면 refillParallelism 개의 스레드가 size 까지 다시 채운다.
+ * 큐에서 꺼낸 뒤 트랜잭션이 롤백된 코드는 테이블에 남아 있으므로 재시작 시 다시 불러온다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CouponCodePool {
+
+    private final CodePoolProperties properties;
+    private final CodeGenerator codeGenerator;
+    private final CouponRepository couponRepo;
+    private final ReservedCodeRepository reservedCodeRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+    private String owner;
+    private final Queue<ReservedCode> codes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private ExecutorService refillExecutor;
+    private Counter hits;
+    private Counter misses;
+    private Counter reserved;
+    private Timer refillTimer;
+
+    @PostConstruct
+    public void init() {
+        hits = meterRegistry.counter("coupon.code.pool.hits");
+        misses = meterRegistry.counter("coupon.code.pool.misses");
+        reserved = meterRegistry.counter("coupon.code.pool.reserved");
+        refillTimer = meterRegistry.timer("coupon.code.pool.refill");
+        meterRegistry.gauge("coupon.code.pool.available", available);
+        Gauge.builder("coupon.code.pool.size", properties, CodePoolProperties::getSize).register(meterRegistry);
+        Gauge.builder("coupon.code.pool.low.watermark", properties, CodePoolProperties::getLowWatermark)
+             .register(meterRegistry);
+        Gauge.builder("coupon.code.pool.refill.parallelism", properties, CodePoolProperties::getRefillParallelism)
+             .register(meterRegistry);
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+        owner = StringUtils.hasText(properties.getOwner()) ? properties.getOwner() : localOwner();
+        AtomicInteger threadCount = new AtomicInteger();
+        refillExecutor = Executors.newFixedThreadPool(properties.getRefillParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "code-pool-refill-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<ReservedCode> stored = reservedCodeRepo.findByOwner(owner,
+                                                                 new PageRequest(0, properties.getSize()));
+        codes.addAll(stored);
+        available.addAndGet(stored.size());
+        log.info("CouponCodePool - init : loaded {} reserved codes for {}", stored.size(), owner);
+        triggerRefill();
+    }
+
+    /**
+     * 노드마다 다른 기본 owner. 같은 호스트에서 포트만 달리 띄운 노드도 구분된다.
+     */
+    private String localOwner() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + ":" + serverPort;
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot resolve local host name. Set coupon.code-pool.owner", e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (refillExecutor != null) {
+            refillExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 예약된 코드를 하나 꺼낸다. pool 을 쓰지 않거나 비어 있으면 null 을 돌려준다.
+     */
+    public ReservedCode poll() {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        ReservedCode code = codes.poll();
+        if (code == null) {
+            misses.increment();
+            triggerRefill();
+            return null;
+        }
+        hits.increment();
+        if (available.decrementAndGet() < properties.getLowWatermark()) {
+            triggerRefill();
+        }
+        return code;
+    }
+
+    /**
+     * 쿠폰에 묶인 코드를 예약 테이블에서 지운다. 호출한 쪽의 트랜잭션에 참여한다.
+     */
+    public void consume(ReservedCode code) {
+        reservedCodeRepo.deleteById(code.getId());
+    }
+
+    /**
+     * 발급에 실패해 쓰지 않은 코드를 다시 큐에 넣는다.
+     */
+    public void giveBack(ReservedCode code) {
+        codes.offer(code);
+        available.incrementAndGet();
+    }
+
+    public boolean isReserved(String code) {
+        return properties.isEnabled() && reservedCodeRepo.existsByCode(code);
+    }
+
+    public List<String> findReserved(Collection<String> codes) {
+        return properties.isEnabled() ? reservedCodeRepo.findCodesIn(codes) : Collections.emptyList();
+    }
+
+    public int available() {
+        return available.get();
+    }
+
+    void triggerRefill() {
+        if (refillExecutor == null || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        int deficit = properties.getSize() - available.get();
+        if (deficit <= 0) {
+            refilling.set(false);
+            return;
+        }
+        int parallelism = Math.max(1, properties.getRefillParallelism());
+        int share = (deficit + parallelism - 1) / parallelism;
+        List<CompletableFuture<Integer>> tasks = new ArrayList<>(parallelism);
+        for (int remaining = deficit; remaining > 0; remaining -= share) {
+            int count = Math.min(share, remaining);
+            tasks.add(CompletableFuture.supplyAsync(() -> refill(count), refillExecutor));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).whenComplete((result, e) -> {
+            refilling.set(false);
+            if (e != null) {
+                log.warn("CouponCodePool - refill : failed", e);
+            }
+        });
+    }
+
+    int refill(int count) {
+        int filled = 0;
+        while (filled < count) {
+            int batchSize = Math.min(properties.getRefillBatchSize(), count - filled);
+            List<ReservedCode> batch = refillTimer.record(() -> reserveBatch(batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            codes.addAll(batch);
+            available.addAndGet(batch.size());
+            reserved.increment(batch.size());
+            filled += batch.size();
+        }
+        return filled;
+    }
+
+    private List<ReservedCode> reserveBatch(int count) {
+        return transactionTemplate.execute(status -> {
+            Set<String> generated = new HashSet<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                generated.add(codeGenerator.generateCode());
+            }
+            generated.removeAll(couponRepo.findCodesIn(generated));
+            generated.removeAll(reservedCodeRepo.findCodesIn(generated));
+
+            List<ReservedCode> batch = new ArrayList<>(generated.size());
+            for (String code : generated) {
+                batch.add(new ReservedCode(code, owner));
+            }
+            return reservedCodeRepo.save(batch);
+        });
+    }
+}
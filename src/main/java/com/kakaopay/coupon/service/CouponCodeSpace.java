@@ -0,0 +1,136 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.configuration.CodePoolProperties;
+import com.kakaopay.coupon.configuration.CodeSpaceProperties;
+import com.kakaopay.coupon.core.CodeCipher;
+import com.kakaopay.coupon.model.CodeLease;
+import com.kakaopay.coupon.repository.CodeLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * 노드마다 겹치지 않는 카운터 구간을 빌려 와서, 카운터 값을 CodeCipher 로 치환해 코드를 만든다.
+ *
+ * 구간이 겹치지 않고 치환이 전단사이므로 여러 노드가 동시에 발급해도 코드가 충돌하지 않는다.
+ * 그래서 existsByCode / findCodesIn 확인 없이 바로 저장한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CouponCodeSpace {
+
+    /**
+     * 구간 하나의 크기. id 에서 바로 구간을 계산하므로 바꾸면 이전 구간과 겹칠 수 있어 설정으로 두지 않는다.
+     */
+    static final int LEASE_BITS = 20;
+
+    private final CodeSpaceProperties properties;
+    private final CodePoolProperties codePoolProperties;
+    private final CodeLeaseRepository codeLeaseRepo;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private volatile Lease lease;
+    private CodeCipher cipher;
+    private TransactionTemplate requiresNew;
+    private Counter leases;
+
+    @PostConstruct
+    public void init() {
+        leases = meterRegistry.counter("coupon.code.space.leases");
+        Gauge.builder("coupon.code.space.remaining", this, CouponCodeSpace::remaining).register(meterRegistry);
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (codePoolProperties.isEnabled()) {
+            throw new IllegalStateException("coupon.code-space and coupon.code-pool cannot be enabled together.");
+        }
+        if (StringUtils.isEmpty(properties.getKey())) {
+            throw new IllegalStateException("coupon.code-space.key is required when coupon.code-space is enabled.");
+        }
+        cipher = new CodeCipher(properties.getKey());
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String next() {
+        return cipher.encode(nextValue());
+    }
+
+    public List<String> next(int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(next());
+        }
+        return codes;
+    }
+
+    long nextValue() {
+        while (true) {
+            Lease current = lease;
+            if (current != null) {
+                long value = current.next.getAndIncrement();
+                if (value < current.end) {
+                    return value;
+                }
+            }
+            leaseLock.lock();
+            try {
+                if (lease == current) {
+                    lease = acquire();
+                }
+            } finally {
+                leaseLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 발급 트랜잭션이 롤백돼도 구간 기록은 남도록 별도 트랜잭션으로 저장한다.
+     */
+    private Lease acquire() {
+        CodeLease saved = requiresNew.execute(status -> {
+            CodeLease codeLease = codeLeaseRepo.save(new CodeLease(properties.getOwner()));
+            codeLease.setRangeStart(codeLease.getId() << LEASE_BITS);
+            codeLease.setRangeEnd((codeLease.getId() + 1) << LEASE_BITS);
+            return codeLease;
+        });
+        leases.increment();
+        log.info("CouponCodeSpace - acquire : lease {} [{}, {}) for {}",
+                 saved.getId(), saved.getRangeStart(), saved.getRangeEnd(), saved.getOwner());
+        return new Lease(saved.getRangeStart(), saved.getRangeEnd());
+    }
+
+    private double remaining() {
+        Lease current = lease;
+        return current == null ? 0 : Math.max(0, current.end - current.next.get());
+    }
+
+    private static final class Lease {
+        private final AtomicLong next;
+        private final long end;
+
+        private Lease(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
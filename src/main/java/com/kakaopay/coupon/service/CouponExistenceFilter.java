@@ -0,0 +1,225 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.configuration.FilterProperties;
+import com.kakaopay.coupon.core.BloomFilter;
+import com.kakaopay.coupon.core.CouponCode;
+import com.kakaopay.coupon.model.dto.CouponKey;
+import com.kakaopay.coupon.repository.CouponRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * 이메일/코드 중복 확인 앞에 두는 Bloom filter.
+ *
+ * isNewEmail, isNewCode 가 true 면 DB 에 없는 값이 확실하므로 exists 쿼리를 생략할 수 있다.
+ * false 는 "있을 수도 있다" 는 뜻으로 DB 를 확인해야 한다. filter 가 준비되기 전에는 항상 false 다.
+ *
+ * 재구성은 별도 스레드에서 새 filter 를 채운 뒤 교체하므로 그 동안에도 기존 filter 로 요청을 처리한다.
+ * 재구성 중에 발급된 쿠폰은 기존 filter 와 새 filter 양쪽에 넣는다.
+ * 재구성은 HTTP 로 열지 않고 JMX(com.kakaopay.coupon:name=couponExistenceFilter) 로만 시작한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@ManagedResource(objectName = "com.kakaopay.coupon:name=couponExistenceFilter",
+                 description = "이메일/코드 Bloom filter")
+public class CouponExistenceFilter {
+
+    private final FilterProperties properties;
+    private final CouponRepository couponRepo;
+    private final CouponCodeFormats codeFormats;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Filters current;
+    private volatile Filters building;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private ExecutorService rebuildExecutor;
+
+    private Counter emailNegatives;
+    private Counter emailPositives;
+    private Counter emailFalsePositives;
+    private Counter codeNegatives;
+    private Counter codePositives;
+    private Counter codeFalsePositives;
+
+    @PostConstruct
+    public void init() {
+        emailNegatives = meterRegistry.counter("coupon.filter.checks", "filter", "email", "result", "negative");
+        emailPositives = meterRegistry.counter("coupon.filter.checks", "filter", "email", "result", "positive");
+        emailFalsePositives = meterRegistry.counter("coupon.filter.false.positives", "filter", "email");
+        codeNegatives = meterRegistry.counter("coupon.filter.checks", "filter", "code", "result", "negative");
+        codePositives = meterRegistry.counter("coupon.filter.checks", "filter", "code", "result", "positive");
+        codeFalsePositives = meterRegistry.counter("coupon.filter.false.positives", "filter", "code");
+
+        registerGauges("email", filters -> filters.emails, emailNegatives, emailFalsePositives);
+        registerGauges("code", filters -> filters.codes, codeNegatives, codeFalsePositives);
+        Gauge.builder("coupon.filter.ready", this, filter -> filter.current == null ? 0 : 1).register(meterRegistry);
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+        rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coupon-filter-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuild();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (rebuildExecutor != null) {
+            rebuildExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isNewEmail(String email) {
+        Filters filters = current;
+        if (filters == null) {
+            return false;
+        }
+        return check(filters.emails, email, emailNegatives, emailPositives);
+    }
+
+    public boolean isNewCode(String code) {
+        Filters filters = current;
+        if (filters == null) {
+            return false;
+        }
+        return check(filters.codes, code, codeNegatives, codePositives);
+    }
+
+    /**
+     * filter 가 있을 수 있다고 했지만 DB 에는 없었던 경우 호출한다.
+     */
+    public void recordEmailFalsePositive() {
+        if (current != null) {
+            emailFalsePositives.increment();
+        }
+    }
+
+    public void recordCodeFalsePositive() {
+        if (current != null) {
+            codeFalsePositives.increment();
+        }
+    }
+
+    public void put(String email, String code) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.put(email, code);
+        }
+        Filters next = building;
+        if (next != null) {
+            next.put(email, code);
+        }
+    }
+
+    /**
+     * 새 filter 를 백그라운드에서 채운다. 이미 재구성 중이면 false 를 돌려준다.
+     */
+    @ManagedOperation(description = "filter 를 백그라운드에서 다시 만든다. 이미 재구성 중이면 false")
+    public boolean rebuild() {
+        if (rebuildExecutor == null || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.submit(() -> {
+            try {
+                doRebuild();
+            } catch (RuntimeException e) {
+                log.warn("CouponExistenceFilter - rebuild : failed", e);
+                building = null;
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    void doRebuild() {
+        long startedAt = System.currentTimeMillis();
+        Filters next = new Filters(properties.getExpectedInsertions(), properties.getFalsePositiveProbability());
+        building = next;
+        Date catchUpSince = new Date(startedAt - TimeUnit.SECONDS.toMillis(properties.getRebuildCatchUpSeconds()));
+
+        CouponCode couponCode = codeFormats.getCouponCode();
+        long afterId = 0;
+        List<CouponKey> keys;
+        do {
+            keys = couponRepo.findKeysAfter(afterId, new PageRequest(0, properties.getRebuildPageSize()));
+            for (CouponKey key : keys) {
+                next.put(key.getEmail(), couponCode.unpack(key.getCodeKey()));
+                afterId = key.getId();
+            }
+        } while (keys.size() == properties.getRebuildPageSize());
+        for (CouponKey key : couponRepo.findKeysCreatedSince(catchUpSince)) {
+            next.put(key.getEmail(), couponCode.unpack(key.getCodeKey()));
+        }
+
+        current = next;
+        building = null;
+        log.info("CouponExistenceFilter - rebuild : {} coupons, {} bits x {} hashes, {} ms",
+                 next.emails.insertions(), next.emails.bitSize(), next.emails.hashCount(),
+                 System.currentTimeMillis() - startedAt);
+    }
+
+    private static boolean check(BloomFilter filter, String value, Counter negatives, Counter positives) {
+        if (filter.mightContain(value)) {
+            positives.increment();
+            return false;
+        }
+        negatives.increment();
+        return true;
+    }
+
+    private void registerGauges(String name, Function<Filters, BloomFilter> selector,
+                                Counter negatives, Counter falsePositives) {
+        gauge("coupon.filter.expected.fpp", name,
+              filters -> selector.apply(filters).expectedFalsePositiveProbability());
+        gauge("coupon.filter.insertions", name, filters -> selector.apply(filters).insertions());
+        gauge("coupon.filter.bits", name, filters -> selector.apply(filters).bitSize());
+        Gauge.builder("coupon.filter.observed.fpp", this, filter -> {
+            double absent = negatives.count() + falsePositives.count();
+            return absent == 0 ? 0 : falsePositives.count() / absent;
+        }).tag("filter", name).register(meterRegistry);
+    }
+
+    private void gauge(String metric, String name, ToDoubleFunction<Filters> value) {
+        Gauge.builder(metric, this, filter -> {
+            Filters filters = filter.current;
+            return filters == null ? 0 : value.applyAsDouble(filters);
+        }).tag("filter", name).register(meterRegistry);
+    }
+
+    private static final class Filters {
+        private final BloomFilter emails;
+        private final BloomFilter codes;
+
+        private Filters(long expectedInsertions, double falsePositiveProbability) {
+            this.emails = new BloomFilter(expectedInsertions, falsePositiveProbability);
+            this.codes = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        }
+
+        private void put(String email, String code) {
+            emails.put(email);
+            codes.put(code);
+        }
+    }
+}
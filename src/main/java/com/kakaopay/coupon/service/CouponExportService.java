@@ -0,0 +1,57 @@
+package com.kakaopay.coupon.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.repository.CouponRepository;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 전체 쿠폰을 forward-only 커서로 읽어 바로 응답에 쓴다.
+ *
+ * 페이지를 만들지 않고, 쓴 엔티티는 즉시 detach 해서 persistence context 가 커지지 않게 한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CouponExportService {
+
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final CouponRepository couponRepo;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 커서는 트랜잭션 안에서만 열려 있으므로 모든 줄을 쓸 때까지 트랜잭션을 유지한다.
+     */
+    @Transactional(readOnly = true)
+    public long export(Writer writer, ExportFormat format) throws IOException {
+        long exported = 0;
+        format.writeHeader(writer);
+        try (Stream<Coupon> coupons = couponRepo.streamAll()) {
+            Iterator<Coupon> iterator = coupons.iterator();
+            while (iterator.hasNext()) {
+                Coupon coupon = iterator.next();
+                format.write(writer, coupon, objectMapper);
+                entityManager.detach(coupon);
+                if (++exported % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("export finished. format : {}, exported : {}", format, exported);
+        return exported;
+    }
+}
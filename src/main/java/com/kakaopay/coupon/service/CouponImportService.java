@@ -0,0 +1,143 @@
+package com.kakaopay.coupon.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakaopay.coupon.error.exception.ImportJobConflictException;
+import com.kakaopay.coupon.error.exception.NotExistImportJobException;
+import com.kakaopay.coupon.model.ImportJob;
+import com.kakaopay.coupon.model.ImportStatus;
+import com.kakaopay.coupon.model.dto.CouponBatchResultDTO;
+import com.kakaopay.coupon.repository.ImportJobRepository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 이메일 파일을 줄 단위로 읽어 chunk 마다 쿠폰을 발급한다.
+ *
+ * 요청 body 를 한 번에 메모리에 올리지 않고, chunk 하나(chunkSize 줄)만 들고 있다가
+ * 그 chunk 의 발급과 job 진행 상황을 한 트랜잭션으로 커밋한다. 그래서 중간에 죽어도 발급된 쿠폰과 committedLines 가
+ * 어긋나지 않고, 다시 올린 파일은 커밋되지 않은 chunk 부터 처리한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CouponImportService {
+
+    private final ImportJobRepository importJobRepo;
+    private final CouponService couponService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private static final int TRY_COUNT_IN_CONFLICT = 5;
+
+    @Value("${coupon.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Transactional
+    public ImportJob createJob() {
+        return importJobRepo.save(ImportJob.create());
+    }
+
+    @Transactional(readOnly = true)
+    public ImportJob getJob(Long id) {
+        ImportJob job = importJobRepo.findOne(id);
+        if (job == null) {
+            throw new NotExistImportJobException("Not exist import job with id : " + id);
+        }
+        return job;
+    }
+
+    /**
+     * 이미 커밋된 줄(committedLines)은 읽고 버린 뒤 이어서 처리한다.
+     * 처리 도중 실패하면 job 은 FAILED 가 되고, 같은 파일을 다시 올려 재개할 수 있다.
+     */
+    public ImportJob importLines(Long jobId, BufferedReader reader, ImportFormat format) throws IOException {
+        ImportJob job = getJob(jobId);
+        if (job.getStatus() == ImportStatus.COMPLETED) {
+            return job;
+        }
+        long committed = job.getCommittedLines();
+        changeStatus(jobId, ImportStatus.RUNNING, null);
+        log.info("CouponImportService - importLines : job {} resume from line {}", jobId, committed);
+
+        try {
+            long lineNumber = 0;
+            String line;
+            while (lineNumber < committed && reader.readLine() != null) {
+                lineNumber++;
+            }
+
+            List<String> emails = new ArrayList<>(chunkSize);
+            long chunkLines = 0;
+            while ((line = reader.readLine()) != null) {
+                chunkLines++;
+                if (!line.trim().isEmpty() && !(lineNumber == 0 && format.isHeader(line))) {
+                    emails.add(format.extractEmail(line, objectMapper));
+                }
+                lineNumber++;
+                if (emails.size() == chunkSize) {
+                    committed = commitChunk(jobId, committed, chunkLines, emails);
+                    emails.clear();
+                    chunkLines = 0;
+                }
+            }
+            if (chunkLines > 0) {
+                commitChunk(jobId, committed, chunkLines, emails);
+            }
+        } catch (ImportJobConflictException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            log.warn("CouponImportService - importLines : job {} failed", jobId, e);
+            changeStatus(jobId, ImportStatus.FAILED, e.getMessage());
+            throw e;
+        }
+        return changeStatus(jobId, ImportStatus.COMPLETED, null);
+    }
+
+    /**
+     * committedLines 를 확인해 같은 job 을 동시에 올린 요청 중 하나만 진행한다. 둘이 같이 확인을 지나도
+     * 이메일 unique key 때문에 늦은 쪽은 제약 조건 위반으로 롤백되고, 다시 시도할 때 확인에서 걸린다.
+     * 다른 발급 요청과 겹쳐 생긴 위반도 chunk 전체를 롤백하고 다시 시도한다.
+     */
+    private long commitChunk(Long jobId, long expectedCommitted, long lines, List<String> emails) {
+        for (int tryCount = TRY_COUNT_IN_CONFLICT; ; tryCount--) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    ImportJob job = importJobRepo.findOne(jobId);
+                    checkCommitted(job, expectedCommitted);
+                    CouponBatchResultDTO result = couponService.createAllInTransaction(emails);
+                    job.commitChunk(lines, result.getIssued(), result.getDuplicate(), result.getInvalid());
+                    importJobRepo.save(job);
+                    return job.getCommittedLines();
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (tryCount == 1) {
+                    throw e;
+                }
+                log.info("CouponImportService - commitChunk : job {} conflicted, retry chunk", jobId);
+            }
+        }
+    }
+
+    private static void checkCommitted(ImportJob job, long expectedCommitted) {
+        if (job.getCommittedLines() != expectedCommitted) {
+            throw new ImportJobConflictException("Import job " + job.getId() + " is being processed by another upload.");
+        }
+    }
+
+    private ImportJob changeStatus(Long jobId, ImportStatus status, String message) {
+        return transactionTemplate.execute(transactionStatus -> {
+            ImportJob job = importJobRepo.findOne(jobId);
+            job.changeStatus(status, message);
+            return importJobRepo.save(job);
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.configuration.IssueProperties;
+import com.kakaopay.coupon.core.SingleFlight;
+import com.kakaopay.coupon.model.Coupon;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 같은 이메일로 동시에 들어온 발급 요청을 하나로 합친다.
+ *
+ * 먼저 온 요청만 중복 확인/코드 생성/저장을 하고, 그 사이에 들어온 요청은 DB 를 거치지 않고
+ * 같은 결과(발급된 쿠폰 또는 같은 예외)를 받는다. 먼저 온 요청이 끝난 뒤에 들어온 요청은 평소처럼 처리되어
+ * 이미 발급된 이메일이면 DuplicateEmailException 을 받는다.
+ */
+@RequiredArgsConstructor
+@Component
+public class CouponIssueCoalescer {
+
+    private final IssueProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final SingleFlight<String, Coupon> inFlight = new SingleFlight<>();
+
+    @PostConstruct
+    public void init() {
+        FunctionCounter.builder("coupon.create.coalesced", inFlight, SingleFlight::shared)
+                       .description("진행 중인 같은 이메일 발급 결과를 받아 간 요청 수")
+                       .register(meterRegistry);
+        Gauge.builder("coupon.create.in.flight", inFlight, SingleFlight::inFlight)
+             .description("발급 중인 이메일 수")
+             .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isCoalesce();
+    }
+
+    /**
+     * email 은 EmailNormalizer 를 거친 값이어야 같은 고객의 요청이 하나로 합쳐진다.
+     */
+    public Coupon issue(String email, Supplier<Coupon> work) {
+        return inFlight.execute(email, work);
+    }
+}
@@ -0,0 +1,71 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.model.IssueMode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * 단건 발급의 단계별 시간과 코드 생성 시도 횟수를 기록한다.
+ *
+ * coupon.create 는 발급 전체(트랜잭션 커밋 포함)를 mode, outcome 태그로,
+ * coupon.create.stage 는 그 안의 코드 확보, 이메일 중복 확인, 저장을 stage 태그로 나눠 잰다.
+ * coupon.redeem 은 사용 요청을 outcome(redeemed, retried, 예외 이름) 별로 센다.
+ */
+@Component
+public class CouponMetrics {
+
+    public static final String STAGE_CODE = "code";
+    public static final String STAGE_EMAIL_CHECK = "email.check";
+    public static final String STAGE_SAVE = "save";
+    public static final String SUCCESS = "success";
+    public static final String REDEEMED = "redeemed";
+    public static final String RETRIED = "retried";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> stages = new ConcurrentHashMap<>();
+    private final DistributionSummary codeAttempts;
+
+    public CouponMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.codeAttempts = DistributionSummary.builder("coupon.code.attempts")
+                                               .description("코드 하나를 발급하기까지 생성한 횟수. 1 이면 충돌 없음")
+                                               .sla(1, 2, 3, 4, 5)
+                                               .register(meterRegistry);
+    }
+
+    public <T> T time(String stage, Supplier<T> supplier) {
+        return stages.computeIfAbsent(stage, this::stageTimer).record(supplier);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordCreate(Timer.Sample sample, IssueMode mode, String outcome) {
+        sample.stop(Timer.builder("coupon.create")
+                         .tag("mode", String.valueOf(mode))
+                         .tag("outcome", outcome)
+                         .publishPercentileHistogram()
+                         .register(meterRegistry));
+    }
+
+    public void recordRedeem(String outcome) {
+        meterRegistry.counter("coupon.redeem", "outcome", outcome).increment();
+    }
+
+    public void recordCodeAttempts(int attempts) {
+        codeAttempts.record(attempts);
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("coupon.create.stage")
+                    .tag("stage", stage)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+    }
+}
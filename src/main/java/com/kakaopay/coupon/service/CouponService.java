@@ -1,17 +1,43 @@
 package com.kakaopay.coupon.service;
 
+import com.kakaopay.coupon.configuration.IssueProperties;
+import com.kakaopay.coupon.model.IssueMode;
+import com.kakaopay.coupon.model.dto.CouponBatchResultDTO;
 import com.kakaopay.coupon.model.dto.CouponCreateDTO;
+import com.kakaopay.coupon.model.dto.CouponCursor;
+import com.kakaopay.coupon.model.dto.CouponSliceDTO;
+import com.kakaopay.coupon.core.CodeFormat;
 import com.kakaopay.coupon.core.CodeGenerator;
 import com.kakaopay.coupon.error.exception.*;
 import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.ReservedCode;
+import com.kakaopay.coupon.model.dto.IssueStatus;
 import com.kakaopay.coupon.repository.CouponRepository;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 @Slf4j
@@ -21,64 +47,616 @@ public class CouponService {
 
     private final CouponRepository couponRepo;
     private final CodeGenerator codeGenerator;
+    private final Validator validator;
+    private final CouponCodePool codePool;
+    private final CouponExistenceFilter existenceFilter;
+    private final IssueProperties issueProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final CouponCache couponCache;
+    private final CouponMetrics couponMetrics;
+    private final CouponCodeSpace codeSpace;
+    private final CouponWriteBehind writeBehind;
+    private final CouponIssueCoalescer coalescer;
+    private final EmailNormalizer emailNormalizer;
+    private final CampaignStock campaignStock;
+    private final CouponCodeFormats codeFormats;
 
     private static final int TRY_COUNT_IN_COLLISION = 5;
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    private static final int MAX_SLICE_SIZE = 1000;
 
-    @Transactional(readOnly = true)
+    /**
+     * 단건 조회는 캐시를 먼저 보고, 없을 때만 repository 트랜잭션으로 DB 를 읽는다.
+     */
     public Coupon get(Long id) {
-        Coupon coupon = couponRepo.findOne(id);
+        Coupon coupon = couponCache.getById(id, key -> couponRepo.findOne(key));
         if (coupon == null) {
             throw new NotExistCouponException("Not exist coupon with id : " + id);
         }
         return coupon;
     }
 
+    public Coupon getByCode(String code) {
+        Coupon coupon = couponCache.getByCode(code, this::findByCode);
+        if (coupon == null) {
+            throw new NotExistCouponException("Not exist coupon with code : " + code);
+        }
+        return coupon;
+    }
+
     @Transactional(readOnly = true)
     public Page<Coupon> getList(Pageable pageable) {
         return couponRepo.findAll(pageable);
     }
 
+    /**
+     * offset/count 없이 cursor 다음 행부터 size 개를 읽는다. 한 개를 더 읽어 다음 페이지가 있는지 판단한다.
+     */
     @Transactional(readOnly = true)
+    public CouponSliceDTO getSlice(CouponCursor cursor, CouponCursor.Sort sort, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        if (cursor != null && cursor.getSort() != sort) {
+            throw new InvalidCursorException("Cursor was issued for another sort : " + sort);
+        }
+        Pageable first = new PageRequest(0, limit + 1);
+        List<Coupon> coupons;
+        if (sort == CouponCursor.Sort.CREATED_AT) {
+            coupons = cursor == null ? couponRepo.findFirstByCreatedAt(first) :
+                couponRepo.findAfterCreatedAt(cursor.getCreatedAt(), cursor.getId(), first);
+        } else {
+            coupons = couponRepo.findAfterId(cursor == null ? 0L : cursor.getId(), first);
+        }
+
+        if (coupons.size() <= limit) {
+            return new CouponSliceDTO(coupons, null);
+        }
+        List<Coupon> content = coupons.subList(0, limit);
+        return new CouponSliceDTO(content, CouponCursor.after(sort, content.get(limit - 1)).encode());
+    }
+
     public Coupon getByEmail(String email) {
-        return couponRepo.findByEmail(email);
+        return couponCache.getByEmail(emailNormalizer.normalize(email), this::findByEmail);
+    }
+
+    /**
+     * WRITE_BEHIND 모드에서는 아직 저장되지 않은 쿠폰도 조회된다. 이때 id 는 null 이다.
+     */
+    private Coupon findByCode(String code) {
+        Coupon pending = writeBehind.isEnabled() ? writeBehind.findPendingByCode(code) : null;
+        return pending != null ? pending : couponRepo.findByCode(code);
+    }
+
+    private Coupon findByEmail(String email) {
+        Coupon pending = writeBehind.isEnabled() ? writeBehind.findPendingByEmail(email) : null;
+        return pending != null ? pending : couponRepo.findByEmail(email);
     }
 
-    @Transactional
     public Coupon create(String email) {
         return create(new CouponCreateDTO(email));
     }
 
-    @Transactional
+    /**
+     * 트랜잭션은 TransactionTemplate 으로 직접 연다.
+     * OPTIMISTIC 모드는 제약 조건 위반으로 롤백된 뒤 새 트랜잭션에서 다시 시도해야 하므로
+     * 바깥 트랜잭션 안에서 호출하지 않는다.
+     * 이메일은 정규화한 뒤 저장하고, 같은 이메일로 동시에 들어온 요청은 CouponIssueCoalescer 가 하나로 합친다.
+     */
     public Coupon create(CouponCreateDTO dto) {
         if (StringUtils.isEmpty(dto.getEmail())) {
             log.info("CouponService - create : empty dto");
             throw new EmptyEmailException("Fail to create Coupon. Email is null or empty.");
         }
-        String code = generateUniqueCode();
+        CouponCreateDTO normalized = new CouponCreateDTO(emailNormalizer.normalize(dto.getEmail()),
+                                                         dto.getCampaignId());
+        return coalescer.isEnabled() ?
+            coalescer.issue(normalized.getEmail(), () -> createInCampaign(normalized)) : createInCampaign(normalized);
+    }
+
+    /**
+     * 캠페인 쿠폰은 재고를 하나 꺼낸 뒤에 발급하고, 발급에 실패하면 재고를 되돌린다.
+     * 재고는 노드가 묶음으로 가져온 것에서 꺼내므로 요청이 몰려도 캠페인 행이나 count 쿼리에 줄을 서지 않는다.
+     * 코드는 캠페인의 형식으로 만든다.
+     */
+    private Coupon createInCampaign(CouponCreateDTO dto) {
+        Long campaignId = dto.getCampaignId();
+        if (campaignId == null) {
+            return createTimed(dto, CodeFormat.DEFAULT);
+        }
+        if (!campaignStock.tryAcquire(campaignId)) {
+            throw new SoldOutCampaignException("Fail to create Coupon. Campaign is sold out : " + campaignId);
+        }
+        try {
+            return createTimed(dto, formatOf(campaignId));
+        } catch (RuntimeException e) {
+            campaignStock.release(campaignId);
+            throw e;
+        }
+    }
+
+    private CodeFormat formatOf(Long campaignId) {
+        String name = campaignStock.codeFormatOf(campaignId);
+        CodeFormat format = name == null ? CodeFormat.DEFAULT : codeFormats.get(name);
+        if (format == null) {
+            throw new IllegalStateException("Code format of campaign " + campaignId + " is not configured : " + name);
+        }
+        return format;
+    }
+
+    private Coupon createTimed(CouponCreateDTO dto, CodeFormat format) {
+        IssueMode mode = issueProperties.getMode();
+        Timer.Sample sample = couponMetrics.start();
+        String outcome = CouponMetrics.SUCCESS;
+        try {
+            switch (mode) {
+                case OPTIMISTIC:
+                    return createOptimistic(dto, format);
+                case WRITE_BEHIND:
+                    return createWriteBehind(dto, format);
+                default:
+                    return createInTransaction(dto, format);
+            }
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            couponMetrics.recordCreate(sample, mode, outcome);
+        }
+    }
+
+    private Coupon createInTransaction(CouponCreateDTO dto, CodeFormat format) {
+        try {
+            Coupon coupon = transactionTemplate.execute(status -> createChecked(dto, format));
+            couponCache.put(coupon);
+            return coupon;
+        } catch (DataIntegrityViolationException e) {
+            throw translateViolation(e);
+        }
+    }
+
+    private Coupon createChecked(CouponCreateDTO dto, CodeFormat format) {
+        ReservedCode reserved = pollReserved(format);
+        String code = reserved != null ?
+            reserved.getCode() : couponMetrics.time(CouponMetrics.STAGE_CODE, () -> nextCheckedCode(format));
         if (StringUtils.isEmpty(code)) {
             log.warn("CouponService - create : empty code");
             throw new EmptyCodeException("Fail to create Coupon. Code is null or empty.");
-        } else if (couponRepo.existsByEmail(dto.getEmail())) {
+        } else if (couponMetrics.time(CouponMetrics.STAGE_EMAIL_CHECK, () -> isIssuedEmail(dto.getEmail()))) {
+            if (reserved != null) {
+                codePool.giveBack(reserved);
+            }
             throw new DuplicateEmailException("Fail to create Coupon. Already coupon issued for this mail.");
         }
 
-        Coupon coupon = new Coupon(dto.getEmail(), code);
-        couponRepo.save(coupon);
+        Coupon coupon = new Coupon(dto.getEmail(), code, dto.getCampaignId());
+        couponMetrics.time(CouponMetrics.STAGE_SAVE, () -> couponRepo.save(coupon));
+        existenceFilter.put(coupon.getEmail(), coupon.getCode());
+        if (reserved != null) {
+            codePool.consume(reserved);
+        }
         log.info("CouponService - create : success with coupon code : {}", coupon.getCode());
         return coupon;
     }
 
+    /**
+     * exists 쿼리 없이 insert 한 번으로 발급한다.
+     * 이메일 제약 조건 위반은 DuplicateEmailException 으로, 코드 제약 조건 위반은 새 코드로 다시 시도한다.
+     * 동시에 같은 이메일로 들어온 요청도 DB 가 하나만 통과시키므로 중복 발급이 생기지 않는다.
+     */
+    private Coupon createOptimistic(CouponCreateDTO dto, CodeFormat format) {
+        for (int tryCount = TRY_COUNT_IN_COLLISION; tryCount > 0; tryCount--) {
+            ReservedCode reserved = pollReserved(format);
+            String code = reserved != null ?
+                reserved.getCode() : couponMetrics.time(CouponMetrics.STAGE_CODE, () -> nextOptimisticCode(format));
+            if (StringUtils.isEmpty(code)) {
+                log.warn("CouponService - create : empty code");
+                throw new EmptyCodeException("Fail to create Coupon. Code is null or empty.");
+            }
+            try {
+                Coupon coupon = couponMetrics.time(CouponMetrics.STAGE_SAVE, () -> transactionTemplate.execute(status -> {
+                    Coupon created = couponRepo.saveAndFlush(
+                        new Coupon(dto.getEmail(), code, dto.getCampaignId()));
+                    if (reserved != null) {
+                        codePool.consume(reserved);
+                    }
+                    return created;
+                }));
+                couponMetrics.recordCodeAttempts(TRY_COUNT_IN_COLLISION - tryCount + 1);
+                existenceFilter.put(coupon.getEmail(), coupon.getCode());
+                couponCache.put(coupon);
+                log.info("CouponService - create : success with coupon code : {}", coupon.getCode());
+                return coupon;
+            } catch (DataIntegrityViolationException e) {
+                RuntimeException translated = translateViolation(e);
+                if (!(translated instanceof CodeCollisionException)) {
+                    if (reserved != null) {
+                        codePool.giveBack(reserved);
+                    }
+                    throw translated;
+                }
+                log.info("CouponService - create : code collision, retry");
+            }
+        }
+        couponMetrics.recordCodeAttempts(TRY_COUNT_IN_COLLISION);
+        throw new CodeCollisionException("Fail to create Coupon. Collision occur more than 5 in code generator.");
+    }
+
+    /**
+     * 이메일을 메모리에 먼저 잡은 뒤 DB 를 확인한다. writer 는 DB 커밋 후에 이메일을 놓으므로
+     * 같은 이메일이 두 번 통과하지 않는다. 저장은 writer 스레드가 하고 여기서는 저널 기록까지만 기다린다.
+     */
+    private Coupon createWriteBehind(CouponCreateDTO dto, CodeFormat format) {
+        String email = dto.getEmail();
+        if (!writeBehind.reserve(email)) {
+            throw new DuplicateEmailException("Fail to create Coupon. Already coupon issued for this mail.");
+        }
+        String code;
+        try {
+            if (couponMetrics.time(CouponMetrics.STAGE_EMAIL_CHECK, () -> isIssuedEmail(email))) {
+                throw new DuplicateEmailException("Fail to create Coupon. Already coupon issued for this mail.");
+            }
+            code = couponMetrics.time(CouponMetrics.STAGE_CODE, () -> nextCheckedCode(format));
+            if (StringUtils.isEmpty(code)) {
+                log.warn("CouponService - create : empty code");
+                throw new EmptyCodeException("Fail to create Coupon. Code is null or empty.");
+            }
+        } catch (RuntimeException e) {
+            writeBehind.release(email);
+            throw e;
+        }
+        Coupon coupon = couponMetrics.time(CouponMetrics.STAGE_SAVE,
+                                           () -> writeBehind.issue(new Coupon(email, code, dto.getCampaignId())));
+        log.info("CouponService - create : journaled coupon code : {}", coupon.getCode());
+        return coupon;
+    }
+
+    private RuntimeException translateViolation(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        if (message.contains(Coupon.EMAIL_UNIQUE_KEY)) {
+            return new DuplicateEmailException("Fail to create Coupon. Already coupon issued for this mail.", e);
+        } else if (message.contains(Coupon.CODE_UNIQUE_KEY)) {
+            return new CodeCollisionException("Fail to create Coupon. Code collision occur.", e);
+        }
+        return e;
+    }
+
+    /**
+     * 조건부 UPDATE 한 번으로 사용 처리한다. 행 잠금은 UPDATE 하는 동안만 잡히므로 테이블 잠금이나
+     * SELECT ... FOR UPDATE 없이도 같은 코드로 몰린 요청 중 하나만 성공한다.
+     *
+     * 어느 코드 형식에도 맞지 않는 코드는 트랜잭션을 열지 않고 NotExistCouponException 을 던진다.
+     * UPDATE 가 커밋되면 이 노드의 캐시를 비우고 커밋된 상태를 다시 읽어 캐시에 넣는다. 반영된 행이 없을 때도 그 상태로 판단한다.
+     * 같은 orderId 로 이미 사용된 쿠폰이면 재시도로 보고 그 쿠폰을 돌려주고,
+     * 다른 주문이 사용했으면 AlreadyRedeemedCouponException 을 던진다.
+     */
+    public Coupon redeem(String code, String orderId) {
+        if (StringUtils.isEmpty(orderId)) {
+            throw new EmptyOrderIdException("Fail to redeem Coupon. Order id is null or empty.");
+        }
+        String outcome = CouponMetrics.REDEEMED;
+        try {
+            if (!codeFormats.getCouponCode().isValid(code)) {
+                throw new NotExistCouponException("Not exist coupon with code : " + code);
+            }
+            int updated = transactionTemplate.execute(status -> couponRepo.redeem(code, orderId, new Date()));
+            couponCache.evictByCode(code);
+            Coupon coupon = couponRepo.findByCode(code);
+            couponCache.put(coupon);
+            if (coupon == null) {
+                if (writeBehind.isEnabled() && writeBehind.findPendingByCode(code) != null) {
+                    throw new NotRedeemableCouponException("Fail to redeem Coupon. Coupon is not stored yet : " + code);
+                }
+                throw new NotExistCouponException("Not exist coupon with code : " + code);
+            } else if (updated == 0) {
+                if (!orderId.equals(coupon.getRedeemedOrderId())) {
+                    throw new AlreadyRedeemedCouponException("Fail to redeem Coupon. Already redeemed by another order.");
+                }
+                outcome = CouponMetrics.RETRIED;
+            }
+            log.info("CouponService - redeem : {} coupon code : {}", outcome, code);
+            return coupon;
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            couponMetrics.recordRedeem(outcome);
+        }
+    }
+
+    /**
+     * 이메일 목록을 한 번에 발급한다.
+     *
+     * 입력 순서대로 결과를 돌려주며, 형식이 잘못된 이메일은 INVALID,
+     * 목록 안에서 반복되거나 이미 발급된 이메일은 DUPLICATE 로 표시한다. 중복은 정규화한 이메일로 판단한다.
+     * 중복 확인과 코드 충돌 확인은 BATCH_CHUNK_SIZE 단위의 IN 쿼리로, 저장은 JDBC batch insert 로 처리한다.
+     * chunk 마다 따로 커밋하므로 바깥 트랜잭션 안에서 호출하지 않는다.
+     */
+    public CouponBatchResultDTO createAll(List<String> emails) {
+        return createAll(emails, false);
+    }
+
+    /**
+     * createAll 과 같지만 호출한 쪽의 트랜잭션 안에서 발급한다. 발급과 호출한 쪽의 상태를 함께 커밋해야 할 때 쓴다.
+     * 다른 요청과 겹쳐 제약 조건 위반이 나면 한 건씩 다시 저장하지 않고 DataIntegrityViolationException 을 그대로 던지므로
+     * 호출한 쪽이 트랜잭션을 롤백하고 다시 시도한다. filter 반영과 WRITE_BEHIND 이메일 해제는 트랜잭션이 끝난 뒤에 한다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public CouponBatchResultDTO createAllInTransaction(List<String> emails) {
+        return createAll(emails, true);
+    }
+
+    private CouponBatchResultDTO createAll(List<String> emails, boolean joinTransaction) {
+        CouponBatchResultDTO.Item[] results = new CouponBatchResultDTO.Item[emails.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < emails.size(); i++) {
+            String email = emails.get(i);
+            if (!isValidEmail(email)) {
+                results[i] = new CouponBatchResultDTO.Item(email, IssueStatus.INVALID, null);
+            } else if (candidates.putIfAbsent(emailNormalizer.normalize(email), i) != null) {
+                results[i] = new CouponBatchResultDTO.Item(email, IssueStatus.DUPLICATE, null);
+            }
+        }
+
+        List<String> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        Iterator<String> iterator = candidates.keySet().iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == BATCH_CHUNK_SIZE || !iterator.hasNext()) {
+                if (joinTransaction) {
+                    createChunkInTransaction(chunk, candidates, results);
+                } else {
+                    createChunk(chunk, candidates, results);
+                }
+                chunk.clear();
+            }
+        }
+        log.info("CouponService - createAll : requested {}, unique {}", emails.size(), candidates.size());
+        return new CouponBatchResultDTO(Arrays.asList(results));
+    }
+
+    private void createChunk(List<String> chunk, Map<String, Integer> indexes,
+                             CouponBatchResultDTO.Item[] results) {
+        List<String> reserved = reserve(chunk, indexes, results);
+        try {
+            storeChunk(reserved, indexes, results);
+        } finally {
+            if (writeBehind.isEnabled()) {
+                reserved.forEach(writeBehind::release);
+            }
+        }
+    }
+
+    private void createChunkInTransaction(List<String> chunk, Map<String, Integer> indexes,
+                                          CouponBatchResultDTO.Item[] results) {
+        List<String> reserved = reserve(chunk, indexes, results);
+        List<Coupon> stored = new ArrayList<>(reserved.size());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    stored.forEach(coupon -> existenceFilter.put(coupon.getEmail(), coupon.getCode()));
+                }
+                if (writeBehind.isEnabled()) {
+                    reserved.forEach(writeBehind::release);
+                }
+            }
+        });
+        if (reserved.isEmpty()) {
+            return;
+        }
+        stored.addAll(insertChunk(reserved, indexes, results));
+        for (Coupon coupon : stored) {
+            results[indexes.get(coupon.getEmail())] =
+                new CouponBatchResultDTO.Item(coupon.getEmail(), IssueStatus.ISSUED, coupon.getCode());
+        }
+    }
+
+    /**
+     * WRITE_BEHIND 모드에서는 단건 발급과 같이 이메일을 메모리에 먼저 잡는다. 저장 대기 중이거나 발급 중인 이메일은
+     * DUPLICATE 이다. 잡은 이메일은 chunk 를 커밋한 뒤에 놓으므로 그 뒤의 단건 발급은 DB 확인에서 걸린다.
+     */
+    private List<String> reserve(List<String> chunk, Map<String, Integer> indexes,
+                                 CouponBatchResultDTO.Item[] results) {
+        if (!writeBehind.isEnabled()) {
+            return chunk;
+        }
+        List<String> reserved = new ArrayList<>(chunk.size());
+        for (String email : chunk) {
+            if (writeBehind.reserve(email)) {
+                reserved.add(email);
+            } else {
+                results[indexes.get(email)] = new CouponBatchResultDTO.Item(email, IssueStatus.DUPLICATE, null);
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * 확인과 insert 를 한 트랜잭션으로 커밋한다. 그 사이 다른 요청이 같은 이메일이나 코드를 먼저 저장해
+     * 제약 조건 위반이 나면 이 chunk 만 롤백하고 남은 이메일을 한 건씩 다시 저장한다.
+     */
+    private void storeChunk(List<String> emails, Map<String, Integer> indexes,
+                            CouponBatchResultDTO.Item[] results) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        List<Coupon> coupons;
+        try {
+            coupons = transactionTemplate.execute(status -> insertChunk(emails, indexes, results));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("CouponService - createAll : constraint violation, store one by one");
+            for (String email : emails) {
+                if (results[indexes.get(email)] == null) {
+                    results[indexes.get(email)] = createOneInBatch(email);
+                }
+            }
+            return;
+        }
+        for (Coupon coupon : coupons) {
+            results[indexes.get(coupon.getEmail())] =
+                new CouponBatchResultDTO.Item(coupon.getEmail(), IssueStatus.ISSUED, coupon.getCode());
+            existenceFilter.put(coupon.getEmail(), coupon.getCode());
+        }
+    }
+
+    private List<Coupon> insertChunk(List<String> emails, Map<String, Integer> indexes,
+                                     CouponBatchResultDTO.Item[] results) {
+        List<String> uncertain = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            if (!existenceFilter.isNewEmail(email)) {
+                uncertain.add(email);
+            }
+        }
+        Set<String> issuedEmails = uncertain.isEmpty() ?
+            Collections.emptySet() : new HashSet<>(couponRepo.findEmailsIn(uncertain));
+        for (int i = issuedEmails.size(); i < uncertain.size(); i++) {
+            existenceFilter.recordEmailFalsePositive();
+        }
+        List<String> targets = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            if (issuedEmails.contains(email)) {
+                results[indexes.get(email)] = new CouponBatchResultDTO.Item(email, IssueStatus.DUPLICATE, null);
+            } else {
+                targets.add(email);
+            }
+        }
+        if (targets.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> codes = generateUniqueCodes(targets.size());
+        List<Coupon> coupons = new ArrayList<>(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            coupons.add(new Coupon(targets.get(i), codes.get(i)));
+        }
+        couponRepo.insertAll(coupons);
+        return coupons;
+    }
+
+    /**
+     * 이메일 제약 조건 위반은 DUPLICATE 로, 코드 제약 조건 위반은 새 코드로 다시 시도한다.
+     */
+    private CouponBatchResultDTO.Item createOneInBatch(String email) {
+        for (int tryCount = TRY_COUNT_IN_COLLISION; tryCount > 0; tryCount--) {
+            Coupon coupon = new Coupon(email, nextCheckedCode(CodeFormat.DEFAULT));
+            try {
+                transactionTemplate.execute(status -> {
+                    couponRepo.insertAll(Collections.singletonList(coupon));
+                    return null;
+                });
+                existenceFilter.put(coupon.getEmail(), coupon.getCode());
+                return new CouponBatchResultDTO.Item(email, IssueStatus.ISSUED, coupon.getCode());
+            } catch (DataIntegrityViolationException e) {
+                RuntimeException translated = translateViolation(e);
+                if (translated instanceof DuplicateEmailException) {
+                    return new CouponBatchResultDTO.Item(email, IssueStatus.DUPLICATE, null);
+                } else if (!(translated instanceof CodeCollisionException)) {
+                    throw translated;
+                }
+                log.info("CouponService - createAll : code collision, retry");
+            }
+        }
+        throw new CodeCollisionException("Fail to create Coupon. Collision occur more than 5 in code generator.");
+    }
+
+    private boolean isIssuedEmail(String email) {
+        if (existenceFilter.isNewEmail(email)) {
+            return false;
+        }
+        if (couponRepo.existsByEmail(email)) {
+            return true;
+        }
+        existenceFilter.recordEmailFalsePositive();
+        return false;
+    }
+
+    private boolean isIssuedCode(String code) {
+        if (existenceFilter.isNewCode(code)) {
+            return false;
+        }
+        if (couponRepo.existsByCode(code)) {
+            return true;
+        }
+        existenceFilter.recordCodeFalsePositive();
+        return false;
+    }
+
+    private boolean isValidEmail(String email) {
+        return !StringUtils.isEmpty(email) && validator.validate(new CouponCreateDTO(email)).isEmpty();
+    }
+
+    /**
+     * code-pool, code-space 는 기본 형식의 코드만 만든다. 다른 형식은 생성한 뒤 중복을 확인한다.
+     */
+    private ReservedCode pollReserved(CodeFormat format) {
+        return format == CodeFormat.DEFAULT ? codePool.poll() : null;
+    }
+
+    /**
+     * code-space 를 쓰면 충돌할 수 없는 코드를 받으므로 중복 확인을 하지 않는다.
+     */
+    private String nextCheckedCode(CodeFormat format) {
+        return format == CodeFormat.DEFAULT && codeSpace.isEnabled() ? codeSpace.next() : generateUniqueCode(format);
+    }
+
+    private String nextOptimisticCode(CodeFormat format) {
+        return format == CodeFormat.DEFAULT && codeSpace.isEnabled() ? codeSpace.next() : generateCode(format);
+    }
+
+    private String generateCode(CodeFormat format) {
+        return format == CodeFormat.DEFAULT ? codeGenerator.generateCode() : codeGenerator.generateCode(format);
+    }
+
+    private List<String> generateUniqueCodes(int count) {
+        if (codeSpace.isEnabled()) {
+            return codeSpace.next(count);
+        }
+        Set<String> codes = new HashSet<>(count * 2);
+        int tryCount = TRY_COUNT_IN_COLLISION;
+        while (codes.size() < count) {
+            if (tryCount == 0) {
+                throw new CodeCollisionException("Fail to create Coupon. Collision occur more than 5 in code generator.");
+            }
+            tryCount--;
+            int missing = count - codes.size();
+            Set<String> generated = new HashSet<>(missing * 2);
+            for (int i = 0; i < missing; i++) {
+                String code = codeGenerator.generateCode();
+                if (!codes.contains(code)) {
+                    generated.add(code);
+                }
+            }
+            Set<String> uncertain = new HashSet<>();
+            for (String code : generated) {
+                if (!existenceFilter.isNewCode(code)) {
+                    uncertain.add(code);
+                }
+            }
+            if (!uncertain.isEmpty()) {
+                List<String> issued = couponRepo.findCodesIn(uncertain);
+                generated.removeAll(issued);
+                for (int i = issued.size(); i < uncertain.size(); i++) {
+                    existenceFilter.recordCodeFalsePositive();
+                }
+            }
+            generated.removeAll(codePool.findReserved(generated));
+            codes.addAll(generated);
+        }
+        return new ArrayList<>(codes);
+    }
+
 //    @Transactional(readOnly = true)
-    private String generateUniqueCode() {
+    private String generateUniqueCode(CodeFormat format) {
         int tryCount = TRY_COUNT_IN_COLLISION;
         String code = null;
         while (tryCount  > 0) {
-            code = codeGenerator.generateCode();
-            if (!couponRepo.existsByCode(code)) {
+            code = generateCode(format);
+            if (!isIssuedCode(code) && !codePool.isReserved(code) && !writeBehind.isPendingCode(code)) {
+                couponMetrics.recordCodeAttempts(TRY_COUNT_IN_COLLISION - tryCount + 1);
                 break;
             }
             tryCount--;
             if (tryCount == 0) {
+                couponMetrics.recordCodeAttempts(TRY_COUNT_IN_COLLISION);
                 throw new CodeCollisionException("Fail to create Coupon. Collision occur more than 5 in code generator.");
             }
         }
@@ -0,0 +1,398 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.configuration.IssueProperties;
+import com.kakaopay.coupon.configuration.WriteBehindProperties;
+import com.kakaopay.coupon.core.Journal;
+import com.kakaopay.coupon.error.exception.CodeCollisionException;
+import com.kakaopay.coupon.error.exception.DuplicateEmailException;
+import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.IssueMode;
+import com.kakaopay.coupon.repository.CouponRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * WRITE_BEHIND 모드의 발급 경로.
+ *
+ * 이메일과 코드를 메모리에 잡고 저널에 기록해 디스크에 내려가면 응답한다. DB 저장은 writer 스레드가
+ * batchSize 단위 트랜잭션으로 하고, 저장한 sequence 까지 저널에 checkpoint 를 남긴다.
+ * 프로세스가 죽으면 재시작할 때 checkpoint 이후의 기록을 다시 저장한다.
+ *
+ * 중복 이메일은 이 노드 안에서는 메모리에서, 이미 저장된 것은 DB 에서 막는다. 일괄 발급과 import 도 같은 reserve 를
+ * 거친다. 다른 노드가 같은 이메일을 먼저 저장했다면 응답은 이미 나갔으므로 저장 단계에서 버리고
+ * coupon.write.behind.dropped 로 센다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CouponWriteBehind {
+
+    private static final long RETRY_BACKOFF_MILLIS = 1000;
+    /**
+     * 캠페인 쿠폰이 아닌 레코드의 campaignId. campaignId 가 없던 이전 레코드도 이 값으로 읽는다.
+     */
+    private static final long NO_CAMPAIGN = -1;
+
+    private final WriteBehindProperties properties;
+    private final IssueProperties issueProperties;
+    private final CouponRepository couponRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final CouponExistenceFilter existenceFilter;
+    private final CouponCache couponCache;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> reservedEmails = ConcurrentHashMap.newKeySet();
+    private final Map<String, Coupon> pendingByEmail = new ConcurrentHashMap<>();
+    private final Map<String, Coupon> pendingByCode = new ConcurrentHashMap<>();
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private Semaphore capacity;
+    private Journal journal;
+    private Thread writer;
+    private volatile boolean running;
+    private Counter flushed;
+    private Counter dropped;
+    private Counter replayed;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() throws IOException {
+        flushed = meterRegistry.counter("coupon.write.behind.flushed");
+        dropped = meterRegistry.counter("coupon.write.behind.dropped");
+        replayed = meterRegistry.counter("coupon.write.behind.replayed");
+        flushTimer = meterRegistry.timer("coupon.write.behind.flush");
+        Gauge.builder("coupon.write.behind.pending", pendingByCode, Map::size).register(meterRegistry);
+        if (!isEnabled()) {
+            return;
+        }
+        capacity = new Semaphore(properties.getQueueCapacity());
+        journal = new Journal(Paths.get(properties.getDirectory()), properties.getSegmentSize());
+        replay();
+
+        running = true;
+        writer = new Thread(this::writeLoop, "write-behind-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 큐에 남은 발급 건을 저장한 뒤 저널을 닫는다. 저장하지 못한 건은 다음 기동 때 replay 된다.
+     */
+    @PreDestroy
+    public void destroy() throws IOException, InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return issueProperties.getMode() == IssueMode.WRITE_BEHIND;
+    }
+
+    /**
+     * 이메일을 이 노드에서 발급 중인 것으로 잡는다. 이미 잡혀 있거나 저장 대기 중이면 false.
+     * 잡은 뒤 발급하지 않기로 했다면 release 해야 한다.
+     */
+    public boolean reserve(String email) {
+        return reservedEmails.add(email);
+    }
+
+    public void release(String email) {
+        reservedEmails.remove(email);
+    }
+
+    /**
+     * reserve 한 이메일의 쿠폰을 저널에 기록하고 디스크에 내려갈 때까지 기다린다. 반환된 쿠폰은 아직 id 가 없다.
+     * 저널에 기록하지 못하면 이메일을 놓는다. 기록한 뒤의 실패는 writer 가 저장하므로 놓지 않는다.
+     *
+     * 기록한 뒤 디스크에 내리지 못했으면 실패로 응답하지 않는다. 큐에 들어간 쿠폰은 writer 가 저장하고, 디스크에 일부
+     * 내려갔다면 replay 로도 저장될 수 있기 때문이다. 대신 writer 가 DB 에 커밋할 때까지 기다린다.
+     */
+    public Coupon issue(Coupon coupon) {
+        if (pendingByCode.putIfAbsent(coupon.getCode(), coupon) != null) {
+            release(coupon.getEmail());
+            throw new CodeCollisionException("Fail to create Coupon. Code collision occur.");
+        }
+        pendingByEmail.put(coupon.getEmail(), coupon);
+
+        Entry entry;
+        capacity.acquireUninterruptibly();
+        appendLock.lock();
+        try {
+            entry = new Entry(journal.append(encode(coupon)), coupon);
+            queue.add(entry);
+        } catch (IOException e) {
+            capacity.release();
+            pendingByCode.remove(coupon.getCode());
+            pendingByEmail.remove(coupon.getEmail());
+            release(coupon.getEmail());
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        try {
+            journal.awaitDurable(entry.sequence);
+        } catch (IOException e) {
+            log.warn("CouponWriteBehind - issue : journal sync failed, wait until {} is stored", coupon.getCode(), e);
+            awaitStored(entry, e);
+        }
+        return coupon;
+    }
+
+    /**
+     * 다른 노드가 같은 이메일을 먼저 저장해 버려졌으면 DuplicateEmailException 이다.
+     * 종료 중이라 writer 가 저장을 포기했으면 실패로 응답하지만, 디스크에 내려간 기록은 다음 기동 때 replay 된다.
+     */
+    private void awaitStored(Entry entry, IOException syncFailure) {
+        boolean stored;
+        try {
+            stored = entry.stored.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(syncFailure);
+        } catch (ExecutionException e) {
+            throw new UncheckedIOException(syncFailure);
+        }
+        if (!stored) {
+            throw new DuplicateEmailException("Fail to create Coupon. Already coupon issued for this mail.");
+        }
+    }
+
+    public Coupon findPendingByEmail(String email) {
+        return pendingByEmail.get(email);
+    }
+
+    public Coupon findPendingByCode(String code) {
+        return pendingByCode.get(code);
+    }
+
+    public boolean isPendingCode(String code) {
+        return pendingByCode.containsKey(code);
+    }
+
+    /**
+     * 저장 대기 중인 발급 건 수.
+     */
+    public int pending() {
+        return pendingByCode.size();
+    }
+
+    private void replay() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        journal.replay((sequence, payload) -> entries.add(new Entry(sequence, decode(payload))));
+        for (Entry entry : entries) {
+            reservedEmails.add(entry.coupon.getEmail());
+        }
+        for (int from = 0; from < entries.size(); from += properties.getBatchSize()) {
+            List<Entry> batch = entries.subList(from, Math.min(entries.size(), from + properties.getBatchSize()));
+            flush(batch);
+        }
+        replayed.increment(entries.size());
+        log.info("CouponWriteBehind - replay : {} entries after checkpoint", entries.size());
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(properties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                flushWithRetry(batch);
+                capacity.release(batch.size());
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * DB 오류가 나면 같은 batch 를 다시 저장한다. 종료 중이면 포기하고 replay 에 맡긴다.
+     */
+    private void flushWithRetry(List<Entry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                flush(batch);
+                return;
+            } catch (RuntimeException | IOException e) {
+                if (!running) {
+                    log.warn("CouponWriteBehind - flush : give up {} entries on shutdown", batch.size(), e);
+                    for (Entry entry : batch) {
+                        entry.stored.completeExceptionally(e);
+                    }
+                    return;
+                }
+                log.warn("CouponWriteBehind - flush : failed, retry {} entries", batch.size(), e);
+                Thread.sleep(RETRY_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    void flush(List<Entry> batch) throws IOException {
+        List<Coupon> stored = flushTimer.record(() -> store(batch));
+        for (Coupon coupon : stored) {
+            existenceFilter.put(coupon.getEmail(), coupon.getCode());
+            couponCache.put(coupon);
+        }
+        journal.checkpoint(batch.get(batch.size() - 1).sequence);
+        for (Entry entry : batch) {
+            pendingByCode.remove(entry.coupon.getCode());
+            pendingByEmail.remove(entry.coupon.getEmail());
+            reservedEmails.remove(entry.coupon.getEmail());
+            entry.stored.complete(!entry.dropped);
+        }
+        flushed.increment(stored.size());
+    }
+
+    /**
+     * 이미 저장된 건(replay 중 checkpoint 전에 죽은 경우)은 건너뛰고 나머지를 한 트랜잭션으로 insert 한다.
+     * 제약 조건 위반이 나면 한 건씩 다시 저장해 위반한 건만 버린다.
+     */
+    private List<Coupon> store(List<Entry> batch) {
+        List<Entry> targets = transactionTemplate.execute(status -> {
+            List<String> emails = new ArrayList<>(batch.size());
+            List<String> codes = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                emails.add(entry.coupon.getEmail());
+                codes.add(entry.coupon.getCode());
+            }
+            Set<String> storedEmails = new HashSet<>(couponRepo.findEmailsIn(emails));
+            Set<String> storedCodes = new HashSet<>(couponRepo.findCodesIn(codes));
+            List<Entry> entries = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                boolean emailStored = storedEmails.contains(entry.coupon.getEmail());
+                boolean codeStored = storedCodes.contains(entry.coupon.getCode());
+                if (emailStored != codeStored) {
+                    drop(entry);
+                } else if (!emailStored) {
+                    entries.add(entry);
+                }
+            }
+            return entries;
+        });
+        List<Coupon> coupons = new ArrayList<>(targets.size());
+        for (Entry target : targets) {
+            coupons.add(copy(target.coupon));
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                couponRepo.insertAll(coupons);
+                return null;
+            });
+            return coupons;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("CouponWriteBehind - flush : constraint violation, store one by one");
+        }
+
+        List<Coupon> stored = new ArrayList<>(targets.size());
+        for (Entry target : targets) {
+            Coupon coupon = copy(target.coupon);
+            try {
+                transactionTemplate.execute(status -> {
+                    couponRepo.insertAll(Collections.singletonList(coupon));
+                    return null;
+                });
+                stored.add(coupon);
+            } catch (DataIntegrityViolationException e) {
+                drop(target);
+            }
+        }
+        return stored;
+    }
+
+    private void drop(Entry entry) {
+        entry.dropped = true;
+        dropped.increment();
+        log.warn("CouponWriteBehind - flush : drop coupon {} for {}, already issued", entry.coupon.getCode(),
+                 entry.coupon.getEmail());
+    }
+
+    /**
+     * 응답으로 나간 쿠폰은 그대로 두고, 영속화는 복사본으로 한다. 롤백된 엔티티에 남은 id 로 다시 persist 하지 않기 위해서다.
+     */
+    private static Coupon copy(Coupon coupon) {
+        Coupon copy = new Coupon(coupon.getEmail(), coupon.getCode(), coupon.getCampaignId());
+        copy.setCreatedAt(coupon.getCreatedAt());
+        return copy;
+    }
+
+    static byte[] encode(Coupon coupon) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(coupon.getEmail());
+            out.writeUTF(coupon.getCode());
+            out.writeLong(coupon.getCreatedAt().getTime());
+            out.writeLong(coupon.getCampaignId() == null ? NO_CAMPAIGN : coupon.getCampaignId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Coupon decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            Coupon coupon = new Coupon(in.readUTF(), in.readUTF());
+            coupon.setCreatedAt(new Date(in.readLong()));
+            long campaignId = in.available() >= Long.BYTES ? in.readLong() : NO_CAMPAIGN;
+            coupon.setCampaignId(campaignId == NO_CAMPAIGN ? null : campaignId);
+            return coupon;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static final class Entry {
+        private final long sequence;
+        private final Coupon coupon;
+        /**
+         * writer 가 DB 에 저장했으면 true, 이미 발급된 이메일이라 버렸으면 false 로 끝난다.
+         */
+        private final CompletableFuture<Boolean> stored = new CompletableFuture<>();
+        private volatile boolean dropped;
+
+        Entry(long sequence, Coupon coupon) {
+            this.sequence = sequence;
+            this.coupon = coupon;
+        }
+    }
+}
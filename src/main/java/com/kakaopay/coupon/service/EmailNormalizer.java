@@ -0,0 +1,38 @@
+package com.kakaopay.coupon.service;
+
+import com.kakaopay.coupon.configuration.EmailProperties;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 같은 메일함을 가리키는 주소를 하나의 문자열로 만든다. 중복 확인, 저장, 조회 모두 이 결과로 한다.
+ *
+ * 앞뒤 공백을 지우고 전체를 소문자로 바꾼다. local part 의 대소문자를 구분하는 메일 서비스는 사실상 없으므로
+ * Foo@X.com 과 foo@x.com 을 같은 고객으로 본다.
+ * provider-rules 를 켜면 도메인별로 '.' 과 '+태그' 를 지운다. 지운 주소로 보내도 같은 메일함에 도착한다.
+ */
+@RequiredArgsConstructor
+@Component
+public class EmailNormalizer {
+
+    private final EmailProperties properties;
+
+    public String normalize(String email) {
+        String folded = email.trim().toLowerCase(Locale.ROOT);
+        int at = folded.lastIndexOf('@');
+        if (!properties.isProviderRules() || at < 0) {
+            return folded;
+        }
+        String local = folded.substring(0, at);
+        String domain = folded.substring(at + 1);
+        if (properties.getSubAddressDomains().contains(domain)) {
+            int plus = local.indexOf('+');
+            local = plus < 0 ? local : local.substring(0, plus);
+        }
+        if (properties.getDotInsensitiveDomains().contains(domain)) {
+            local = local.replace(".", "");
+        }
+        return local + '@' + domain;
+    }
+}
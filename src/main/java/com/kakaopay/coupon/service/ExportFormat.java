@@ -0,0 +1,96 @@
+package com.kakaopay.coupon.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakaopay.coupon.model.Coupon;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * export 응답에 쿠폰 한 건을 한 줄로 쓴다.
+ */
+public enum ExportFormat {
+
+    /**
+     * id,email,code,createdAt,redeemedAt,redeemedOrderId,campaignId. 날짜는 JSON 응답과 같은 형식이고, 값이 없는 칸은 비운다.
+     */
+    CSV("text/csv") {
+        @Override
+        void writeHeader(Writer writer) throws IOException {
+            writer.write("id,email,code,createdAt,redeemedAt,redeemedOrderId,campaignId\n");
+        }
+
+        @Override
+        void write(Writer writer, Coupon coupon, ObjectMapper objectMapper) throws IOException {
+            writer.write(String.valueOf(coupon.getId()));
+            writer.write(',');
+            writer.write(escape(coupon.getEmail()));
+            writer.write(',');
+            writer.write(escape(coupon.getCode()));
+            writer.write(',');
+            writeDate(writer, coupon.getCreatedAt());
+            writer.write(',');
+            writeDate(writer, coupon.getRedeemedAt());
+            writer.write(',');
+            if (coupon.getRedeemedOrderId() != null) {
+                writer.write(escape(coupon.getRedeemedOrderId()));
+            }
+            writer.write(',');
+            if (coupon.getCampaignId() != null) {
+                writer.write(String.valueOf(coupon.getCampaignId()));
+            }
+            writer.write('\n');
+        }
+
+        private void writeDate(Writer writer, Date date) throws IOException {
+            if (date != null) {
+                writer.write(DATE_FORMAT.get().format(date));
+            }
+        }
+
+        private String escape(String column) {
+            if (column.indexOf(',') < 0 && column.indexOf('"') < 0 && column.indexOf('\n') < 0) {
+                return column;
+            }
+            return '"' + column.replace("\"", "\"\"") + '"';
+        }
+    },
+
+    /**
+     * 한 줄에 GET /api/v1/coupon/{id} 응답과 같은 JSON 객체 하나.
+     */
+    NDJSON(ImportFormat.NDJSON_VALUE) {
+        @Override
+        void write(Writer writer, Coupon coupon, ObjectMapper objectMapper) throws IOException {
+            writer.write(objectMapper.writeValueAsString(coupon));
+            writer.write('\n');
+        }
+    };
+
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = ThreadLocal.withInitial(() -> {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        format.setTimeZone(TimeZone.getTimeZone("Asia/Seoul"));
+        return format;
+    });
+
+    private final String contentType;
+
+    ExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    void writeHeader(Writer writer) throws IOException {
+    }
+
+    abstract void write(Writer writer, Coupon coupon, ObjectMapper objectMapper) throws IOException;
+
+    public static ExportFormat of(String format) {
+        return "csv".equalsIgnoreCase(format) ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,65 @@
+package com.kakaopay.coupon.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.springframework.http.MediaType;
+
+/**
+ * import 파일 한 줄에서 이메일을 꺼낸다. 읽을 수 없는 줄은 null 을 돌려 INVALID 로 집계되게 한다.
+ */
+public enum ImportFormat {
+
+    /**
+     * 첫 번째 컬럼을 이메일로 사용한다. "email" 헤더 줄은 건너뛴다.
+     */
+    CSV {
+        @Override
+        String extractEmail(String line, ObjectMapper objectMapper) {
+            int comma = line.indexOf(',');
+            String column = (comma < 0 ? line : line.substring(0, comma)).trim();
+            if (column.length() >= 2 && column.charAt(0) == '"' && column.charAt(column.length() - 1) == '"') {
+                column = column.substring(1, column.length() - 1).trim();
+            }
+            return column;
+        }
+
+        @Override
+        boolean isHeader(String line) {
+            return extractEmail(line, null).equalsIgnoreCase("email");
+        }
+    },
+
+    /**
+     * 한 줄에 {"email": "..."} 객체 하나.
+     */
+    NDJSON {
+        @Override
+        String extractEmail(String line, ObjectMapper objectMapper) {
+            try {
+                JsonNode email = objectMapper.readTree(line).get("email");
+                return email == null || !email.isTextual() ? null : email.asText();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    };
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    abstract String extractEmail(String line, ObjectMapper objectMapper);
+
+    boolean isHeader(String line) {
+        return false;
+    }
+
+    public static ImportFormat of(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.getSubtype().contains("json")) {
+                return NDJSON;
+            }
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,158 @@
+package com.kakaopay.coupon.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.kakaopay.coupon.configuration.RateLimitProperties;
+import com.kakaopay.coupon.core.TokenBucket;
+import com.kakaopay.coupon.error.exception.RateLimitedException;
+import com.kakaopay.coupon.model.dto.RateLimitDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedOperationParameters;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 발급 요청이 DB connection 을 기다리며 쌓이기 전에 앞에서 거절한다.
+ *
+ * 클라이언트(API key, 없으면 IP)마다 토큰 버킷으로 초당 요청 수를 제한하고, 통과한 요청도 동시에 처리 중인 수가
+ * maxConcurrent 를 넘으면 기다리게 하지 않고 바로 거절한다. 통과한 요청의 latency 는 DB 가 maxConcurrent 개를
+ * 처리하는 시간으로 묶이고, 넘친 요청은 429 와 Retry-After 를 곧바로 받는다.
+ * 운영 중에는 JMX(com.kakaopay.coupon:name=issueRateLimiter) 로 값을 바꾼다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ManagedResource(objectName = "com.kakaopay.coupon:name=issueRateLimiter", description = "발급 API 요청 제한")
+public class IssueRateLimiter {
+
+    static final String CLIENT = "client";
+    static final String CONCURRENCY = "concurrency";
+
+    /**
+     * 동시 처리 수는 요청 하나가 끝나면 바로 줄어드므로 1초 뒤에 다시 보내게 한다.
+     */
+    private static final long CONCURRENCY_RETRY_AFTER_SECONDS = 1;
+    private static final Permit NOT_LIMITED = () -> {
+    };
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    Ticker ticker = Ticker.systemTicker();
+    private Cache<String, TokenBucket> buckets;
+    private Counter clientRejected;
+    private Counter concurrencyRejected;
+
+    /**
+     * 통과한 요청의 자리. 처리가 끝나면 닫는다.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+                          .maximumSize(properties.getMaxClients())
+                          .expireAfterAccess(properties.getClientIdleSeconds(), TimeUnit.SECONDS)
+                          .build();
+        clientRejected = meterRegistry.counter("coupon.rate.limit.rejected", "reason", CLIENT);
+        concurrencyRejected = meterRegistry.counter("coupon.rate.limit.rejected", "reason", CONCURRENCY);
+        Gauge.builder("coupon.rate.limit.in.flight", inFlight, AtomicInteger::get)
+             .description("요청 제한을 통과해 처리 중인 발급 요청 수")
+             .register(meterRegistry);
+        Gauge.builder("coupon.rate.limit.clients", this, limiter -> limiter.buckets.estimatedSize())
+             .description("버킷을 들고 있는 클라이언트 수")
+             .register(meterRegistry);
+    }
+
+    /**
+     * 프록시가 붙인 X-Forwarded-For 는 클라이언트가 바꿀 수 있으므로 보지 않는다.
+     */
+    public String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(properties.getApiKeyHeader());
+        return StringUtils.hasText(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    public Permit acquire(String client) {
+        if (!properties.isEnabled()) {
+            return NOT_LIMITED;
+        }
+        TokenBucket bucket = buckets.get(client, key -> new TokenBucket(properties.getBurst(), ticker.read()));
+        long waitNanos = bucket.tryAcquire(properties.getPermitsPerSecond(), properties.getBurst(), ticker.read());
+        if (waitNanos > 0) {
+            clientRejected.increment();
+            throw new RateLimitedException("Too many requests from " + client,
+                                           Math.max(1, (long) Math.ceil(waitNanos / 1e9)));
+        }
+        if (inFlight.incrementAndGet() > properties.getMaxConcurrent()) {
+            inFlight.decrementAndGet();
+            concurrencyRejected.increment();
+            throw new RateLimitedException("Too many concurrent requests", CONCURRENCY_RETRY_AFTER_SECONDS);
+        }
+        return inFlight::decrementAndGet;
+    }
+
+    public RateLimitDTO current() {
+        return new RateLimitDTO(properties.isEnabled(), properties.getPermitsPerSecond(), properties.getBurst(),
+                                properties.getMaxConcurrent());
+    }
+
+    /**
+     * 값을 모두 검사한 뒤에 바꾼다. 다음 요청부터 적용되며 이미 통과한 요청은 그대로 처리된다.
+     * HTTP 로는 열지 않고 JMX 나 같은 프로세스 안(부하 테스트 등)에서만 부른다. 값이 잘못되면 IllegalArgumentException.
+     */
+    public RateLimitDTO reconfigure(RateLimitDTO update) {
+        if ((update.getPermitsPerSecond() != null && !(update.getPermitsPerSecond() > 0))
+            || (update.getBurst() != null && update.getBurst() < 1)
+            || (update.getMaxConcurrent() != null && update.getMaxConcurrent() < 1)) {
+            throw new IllegalArgumentException("Fail to change rate limit. Rate, burst and concurrency must be positive.");
+        }
+        if (update.getEnabled() != null) {
+            properties.setEnabled(update.getEnabled());
+        }
+        if (update.getPermitsPerSecond() != null) {
+            properties.setPermitsPerSecond(update.getPermitsPerSecond());
+        }
+        if (update.getBurst() != null) {
+            properties.setBurst(update.getBurst());
+        }
+        if (update.getMaxConcurrent() != null) {
+            properties.setMaxConcurrent(update.getMaxConcurrent());
+        }
+        RateLimitDTO current = current();
+        log.info("IssueRateLimiter - reconfigure : enabled {}, {}/s, burst {}, max concurrent {}",
+                 current.getEnabled(), current.getPermitsPerSecond(), current.getBurst(), current.getMaxConcurrent());
+        return current;
+    }
+
+    /**
+     * JMX 용 reconfigure. 비운 값은 그대로 두며, 바뀐 뒤의 값을 문자열로 돌려준다.
+     */
+    @ManagedOperation(description = "발급 API 요청 제한을 바꾼다. 비운 값은 그대로 둔다")
+    @ManagedOperationParameters({
+        @ManagedOperationParameter(name = "enabled", description = "요청 제한 사용 여부"),
+        @ManagedOperationParameter(name = "permitsPerSecond", description = "클라이언트별 초당 요청 수"),
+        @ManagedOperationParameter(name = "burst", description = "클라이언트별 버킷 크기"),
+        @ManagedOperationParameter(name = "maxConcurrent", description = "동시에 처리할 발급 요청 수")
+    })
+    public String reconfigure(Boolean enabled, Double permitsPerSecond, Integer burst, Integer maxConcurrent) {
+        RateLimitDTO current = reconfigure(new RateLimitDTO(enabled, permitsPerSecond, burst, maxConcurrent));
+        return String.format("enabled %s, %s/s, burst %d, max concurrent %d", current.getEnabled(),
+                             current.getPermitsPerSecond(), current.getBurst(), current.getMaxConcurrent());
+    }
+}
@@ -1,11 +1,15 @@
 package com.kakaopay.coupon;
 
 import com.google.common.base.CaseFormat;
+import java.lang.reflect.AnnotatedElement;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.persistence.Entity;
 import javax.persistence.EntityManager;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.PersistenceContext;
+import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EntityType;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
@@ -35,6 +39,10 @@ public class DatabaseCleanUp implements InitializingBean {
 
         for (TableKey tableKey : tableKeys) {
             entityManager.createNativeQuery("TRUNCATE TABLE " + tableKey.tableName).executeUpdate();
+            // sequence 로 id를 받는 테이블은 pooled optimizer 가 메모리에 id 구간을 들고 있으므로 되돌리지 않는다
+            if (tableKey.sequenceGenerated) {
+                continue;
+            }
             entityManager.createNativeQuery("ALTER TABLE " + tableKey.tableName
                                                 + " ALTER COLUMN " + tableKey.primaryKeyName
                                                 + " RESTART WITH 1").executeUpdate();
@@ -46,15 +54,20 @@ public class DatabaseCleanUp implements InitializingBean {
     private static class TableKey {
         private String tableName;
         private String primaryKeyName;
+        private boolean sequenceGenerated;
 
-        private TableKey(final String tableName, final String primaryKeyName) {
+        private TableKey(final String tableName, final String primaryKeyName, final boolean sequenceGenerated) {
             this.tableName = tableName;
             this.primaryKeyName = primaryKeyName;
+            this.sequenceGenerated = sequenceGenerated;
         }
 
-        public static TableKey of(EntityType entityType) {
+        public static TableKey of(EntityType<?> entityType) {
+            Attribute<?, ?> id = entityType.getId(entityType.getIdType().getJavaType());
+            GeneratedValue generatedValue = ((AnnotatedElement) id.getJavaMember()).getAnnotation(GeneratedValue.class);
             return new TableKey(CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, entityType.getName()),
-                                entityType.getId(entityType.getIdType().getJavaType()).getName());
+                                id.getName(),
+                                generatedValue != null && generatedValue.strategy() == GenerationType.SEQUENCE);
         }
     }
 }
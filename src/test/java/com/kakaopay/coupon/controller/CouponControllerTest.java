@@ -4,20 +4,32 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.kakaopay.coupon.AcceptanceTest;
 import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.dto.CampaignCreateDTO;
+import com.kakaopay.coupon.model.dto.CouponBatchCreateDTO;
 import com.kakaopay.coupon.model.dto.CouponCreateDTO;
+import com.kakaopay.coupon.model.dto.CouponRedeemDTO;
+import com.kakaopay.coupon.model.dto.RateLimitDTO;
+import com.kakaopay.coupon.service.IssueRateLimiter;
 import io.restassured.RestAssured;
 import io.restassured.response.ExtractableResponse;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import java.util.Arrays;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 
 public class CouponControllerTest extends AcceptanceTest {
 
+    @Autowired
+    private IssueRateLimiter issueRateLimiter;
+
     @Test
     public void 쿠폰_발급() {
         // given
-        CouponCreateDTO request = new CouponCreateDTO("jimin.joo@@naver.com");
+        CouponCreateDTO request = new CouponCreateDTO("jimin.joo@naver.com");
 
         // when
         ExtractableResponse<Response> response = 쿠폰_발급_요청(request);
@@ -26,6 +38,119 @@ public class CouponControllerTest extends AcceptanceTest {
         쿠폰_발급_성공(response);
     }
 
+    @Test
+    public void 대소문자만_다른_이메일_중복_발급() {
+        // given
+        Coupon issued = 쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("Jimin.Joo@NHNSoft.com")));
+
+        // when
+        ExtractableResponse<Response> response = 쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@nhnsoft.com"));
+
+        // then
+        assertThat(issued.getEmail()).isEqualTo("jimin.joo@nhnsoft.com");
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.jsonPath().getString("errorCode")).isEqualTo("duplicate.email");
+    }
+
+    @Test
+    public void 쿠폰_사용() {
+        // given
+        Coupon issued = 쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@nhnsoft.com")));
+
+        // when
+        ExtractableResponse<Response> redeemed = 쿠폰_사용_요청(issued.getCode(), "order-1");
+        ExtractableResponse<Response> retried = 쿠폰_사용_요청(issued.getCode(), "order-1");
+        ExtractableResponse<Response> conflict = 쿠폰_사용_요청(issued.getCode(), "order-2");
+
+        // then
+        assertThat(redeemed.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(redeemed.jsonPath().getString("redeemedOrderId")).isEqualTo("order-1");
+        assertThat(redeemed.jsonPath().getString("redeemedAt")).isNotNull();
+        assertThat(retried.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(retried.jsonPath().getString("redeemedAt")).isEqualTo(redeemed.jsonPath().getString("redeemedAt"));
+        assertThat(conflict.statusCode()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(conflict.jsonPath().getString("errorCode")).isEqualTo("already.redeemed.coupon");
+        assertThat(RestAssured.get("/api/v1/coupon/code/{code}", issued.getCode()).jsonPath()
+                              .getString("redeemedOrderId")).isEqualTo("order-1");
+        assertThat(쿠폰_사용_요청("none", "order-1").statusCode()).isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    public void 캠페인_선착순_발급() {
+        // given
+        ExtractableResponse<Response> campaign = 캠페인_등록_요청(new CampaignCreateDTO("first come", 1));
+        long campaignId = campaign.jsonPath().getLong("id");
+
+        // when
+        ExtractableResponse<Response> first = 쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@nhnsoft.com", campaignId));
+        ExtractableResponse<Response> second = 쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@naver.com", campaignId));
+
+        // then
+        assertThat(campaign.statusCode()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(쿠폰_발급_성공(first).getCampaignId()).isEqualTo(campaignId);
+        assertThat(second.statusCode()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(second.jsonPath().getString("errorCode")).isEqualTo("sold.out.campaign");
+        assertThat(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@kakao.com", campaignId + 1)).statusCode())
+            .isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(캠페인_등록_요청(new CampaignCreateDTO("", 0)).statusCode())
+            .isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    public void 캠페인_코드_형식_발급() {
+        // given
+        ExtractableResponse<Response> campaign = 캠페인_등록_요청(new CampaignCreateDTO("promo", 10, "promo"));
+        long campaignId = campaign.jsonPath().getLong("id");
+
+        // when
+        Coupon issued = 쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@nhnsoft.com", campaignId)));
+        String mistyped = issued.getCode().substring(0, 3) + (issued.getCode().charAt(3) == '2' ? '3' : '2')
+                          + issued.getCode().substring(4);
+
+        // then
+        assertThat(campaign.jsonPath().getString("codeFormat")).isEqualTo("promo");
+        assertThat(issued.getCode()).matches("PR-[2-9A-HJ-NP-Z]{4}-[2-9A-HJ-NP-Z]{4}-[2-9A-HJ-NP-Z]{3}");
+        assertThat(RestAssured.get("/api/v1/coupon/code/{code}", issued.getCode()).jsonPath().getLong("id"))
+            .isEqualTo(issued.getId());
+        assertThat(쿠폰_사용_요청(issued.getCode(), "order-1").statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(쿠폰_사용_요청(mistyped, "order-1").statusCode()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(캠페인_등록_요청(new CampaignCreateDTO("unknown", 10, "unknown")).statusCode())
+            .isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    public void 쿠폰_발급_요청_수_제한() {
+        // given
+        RateLimitDTO before = RestAssured.get("/api/v1/admin/rate-limit").as(RateLimitDTO.class);
+        issueRateLimiter.reconfigure(new RateLimitDTO(true, 0.01, 1, null));
+
+        try {
+            // when
+            ExtractableResponse<Response> admitted = API_key_로_쿠폰_발급_요청("partner-a", "jimin.joo@nhnsoft.com");
+            ExtractableResponse<Response> limited = API_key_로_쿠폰_발급_요청("partner-a", "jimin.joo@naver.com");
+            ExtractableResponse<Response> limitedAsync = API_key_로_발급_요청(
+                "partner-a", "/api/v1/async/coupon", new CouponCreateDTO("jimin.joo@daum.net"));
+            ExtractableResponse<Response> limitedBatch = API_key_로_발급_요청(
+                "partner-a", "/api/v1/coupons/batch", new CouponBatchCreateDTO(Arrays.asList("jimin.joo@gmail.com")));
+            ExtractableResponse<Response> otherAsync = API_key_로_발급_요청(
+                "partner-b", "/api/v1/async/coupon", new CouponCreateDTO("jimin.joo@kakao.com"));
+
+            // then
+            assertThat(admitted.statusCode()).isEqualTo(HttpStatus.CREATED.value());
+            assertThat(limited.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+            assertThat(limited.jsonPath().getString("errorCode")).isEqualTo("too.many.requests");
+            assertThat(Long.parseLong(limited.header(HttpHeaders.RETRY_AFTER))).isGreaterThanOrEqualTo(1);
+            assertThat(limitedAsync.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+            assertThat(limitedBatch.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+            assertThat(otherAsync.statusCode()).isEqualTo(HttpStatus.CREATED.value());
+            assertThat(RestAssured.given().body(before).contentType(MediaType.APPLICATION_JSON_VALUE)
+                                  .put("/api/v1/admin/rate-limit").statusCode())
+                .isEqualTo(HttpStatus.METHOD_NOT_ALLOWED.value());
+        } finally {
+            issueRateLimiter.reconfigure(before);
+        }
+    }
+
     @Test
     public void 쿠폰_조회() {
         // given
@@ -38,6 +163,25 @@ public class CouponControllerTest extends AcceptanceTest {
         쿠폰_조회_성공_JsonPath(response, expected);
     }
 
+    @Test
+    public void 쿠폰_코드로_조회() {
+        // given
+        Coupon expected = 쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@nhnsoft.com")));
+
+        // when
+        ExtractableResponse<Response> response = RestAssured
+            .given()
+                .log().all()
+            .when()
+                .get("/api/v1/coupon/code/{code}", expected.getCode())
+            .then()
+                .log().all()
+                .extract();
+
+        // then
+        쿠폰_조회_성공_JsonPath(response, expected);
+    }
+
     @Test
     public void 쿠폰_리스트_조회() {
         // given
@@ -53,6 +197,248 @@ public class CouponControllerTest extends AcceptanceTest {
         assertThat(response.jsonPath().getLong("content[0].id")).isEqualTo(expected.getId());
     }
 
+    @Test
+    public void 쿠폰_커서_조회() {
+        // given
+        Coupon first = 쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo1@nhnsoft.com")));
+        Coupon second = 쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo2@nhnsoft.com")));
+        Coupon third = 쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo3@nhnsoft.com")));
+
+        // when
+        ExtractableResponse<Response> firstPage = 쿠폰_커서_조회_요청(2, null, "createdAt");
+        ExtractableResponse<Response> lastPage = 쿠폰_커서_조회_요청(2, firstPage.jsonPath().getString("next"), null);
+        ExtractableResponse<Response> afterId = RestAssured
+            .given()
+                .log().all()
+                .param("after", first.getId())
+            .when()
+                .get("/api/v1/coupons")
+            .then()
+                .log().all()
+                .extract();
+
+        // then
+        assertThat(firstPage.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(firstPage.jsonPath().getList("content.id", Long.class))
+            .containsExactly(first.getId(), second.getId());
+        assertThat(lastPage.jsonPath().getList("content.id", Long.class)).containsExactly(third.getId());
+        assertThat(lastPage.jsonPath().getString("next")).isNull();
+        assertThat(afterId.jsonPath().getList("content.id", Long.class))
+            .containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    public void 쿠폰_커서_조회_잘못된_커서() {
+        // when
+        ExtractableResponse<Response> response = 쿠폰_커서_조회_요청(2, "invalid", null);
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.jsonPath().getString("errorCode")).isEqualTo("invalid.cursor");
+    }
+
+    @Test
+    public void 쿠폰_내보내기() {
+        // given
+        long campaignId = 캠페인_등록_요청(new CampaignCreateDTO("export", 10)).jsonPath().getLong("id");
+        Coupon first = 쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo1@nhnsoft.com")));
+        Coupon second = 쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo2@nhnsoft.com", campaignId)));
+        String redeemedAt = 쿠폰_사용_요청(first.getCode(), "order,1").jsonPath().getString("redeemedAt");
+
+        // when
+        ExtractableResponse<Response> ndjson = 쿠폰_내보내기_요청(null);
+        ExtractableResponse<Response> csv = 쿠폰_내보내기_요청("csv");
+
+        // then
+        assertThat(ndjson.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(ndjson.contentType()).startsWith("application/x-ndjson");
+        String[] lines = ndjson.asString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":" + first.getId(), first.getCode());
+        assertThat(lines[1]).contains("\"id\":" + second.getId(), second.getCode());
+
+        assertThat(csv.contentType()).startsWith("text/csv");
+        assertThat(csv.asString().split("\n")).containsExactly(
+            "id,email,code,createdAt,redeemedAt,redeemedOrderId,campaignId",
+            first.getId() + ",jimin.joo1@nhnsoft.com," + first.getCode() + "," + 쿠폰_발급일(first)
+            + "," + redeemedAt + ",\"order,1\",",
+            second.getId() + ",jimin.joo2@nhnsoft.com," + second.getCode() + "," + 쿠폰_발급일(second)
+            + ",,," + campaignId);
+    }
+
+    @Test
+    public void 쿠폰_발급_지표() {
+        // given
+        쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@nhnsoft.com")));
+        쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@nhnsoft.com"));
+
+        // when
+        ExtractableResponse<Response> response = RestAssured
+            .given()
+                .log().all()
+            .when()
+                .get("/prometheus")
+            .then()
+                .extract();
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.asString())
+            .contains("coupon_create_seconds_count{mode=\"CHECKED\",outcome=\"success\",}")
+            .contains("coupon_create_stage_seconds_count{stage=\"save\",}")
+            .contains("coupon_code_attempts_count")
+            .contains("coupon_http_errors_total{code=\"duplicate.email\",exception=\"DuplicateEmailException\",}")
+            .contains("coupon_http_serialization_seconds_count{type=\"Coupon\",}")
+            .contains("hibernate_")
+            .contains("dataSource_connections_active");
+    }
+
+    @Test
+    public void 민감한_관리_API_는_인증_필요() {
+        // when
+        ExtractableResponse<Response> env = RestAssured
+            .given()
+                .log().all()
+            .when()
+                .get("/env")
+            .then()
+                .extract();
+        ExtractableResponse<Response> metrics = RestAssured
+            .given()
+                .log().all()
+            .when()
+                .get("/metrics")
+            .then()
+                .extract();
+
+        // then
+        assertThat(env.statusCode()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+        assertThat(metrics.statusCode()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    public void filter_재구성은_HTTP_로_열지_않음() {
+        // when
+        ExtractableResponse<Response> http = RestAssured
+            .given()
+                .log().all()
+            .when()
+                .post("/api/v1/admin/filter/rebuild")
+            .then()
+                .extract();
+
+        // then
+        assertThat(http.statusCode()).isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    public void 쿠폰_일괄_발급() {
+        // given
+        쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@nhnsoft.com")));
+        CouponBatchCreateDTO request = new CouponBatchCreateDTO(Arrays.asList(
+            "jimin.joo1@nhnsoft.com", "jimin.joo@nhnsoft.com", "invalid", "jimin.joo1@nhnsoft.com",
+            "jimin.joo2@nhnsoft.com"));
+
+        // when
+        ExtractableResponse<Response> response = 쿠폰_일괄_발급_요청(request);
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(response.jsonPath().getInt("issued")).isEqualTo(2);
+        assertThat(response.jsonPath().getInt("duplicate")).isEqualTo(2);
+        assertThat(response.jsonPath().getInt("invalid")).isEqualTo(1);
+        assertThat(response.jsonPath().getList("results.status"))
+            .containsExactly("ISSUED", "DUPLICATE", "INVALID", "DUPLICATE", "ISSUED");
+        쿠폰_리스트_조회_성공(쿠폰_리스트_조회_요청(10, 0), 3, 3);
+    }
+
+    @Test
+    public void 쿠폰_파일_가져오기() {
+        // given
+        쿠폰_발급_성공(쿠폰_발급_요청(new CouponCreateDTO("jimin.joo@nhnsoft.com")));
+        long jobId = 쿠폰_가져오기_작업_생성_요청().jsonPath().getLong("id");
+        String body = "email\njimin.joo1@nhnsoft.com\njimin.joo@nhnsoft.com\ninvalid\n\njimin.joo2@nhnsoft.com\n";
+
+        // when
+        ExtractableResponse<Response> response = 쿠폰_가져오기_요청(jobId, body, "text/csv");
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.jsonPath().getString("status")).isEqualTo("COMPLETED");
+        assertThat(response.jsonPath().getLong("committedLines")).isEqualTo(6);
+        assertThat(response.jsonPath().getLong("issued")).isEqualTo(2);
+        assertThat(response.jsonPath().getLong("duplicate")).isEqualTo(1);
+        assertThat(response.jsonPath().getLong("invalid")).isEqualTo(1);
+        assertThat(쿠폰_가져오기_작업_조회_요청(jobId).jsonPath().getString("status")).isEqualTo("COMPLETED");
+        쿠폰_리스트_조회_성공(쿠폰_리스트_조회_요청(10, 0), 3, 3);
+    }
+
+    @Test
+    public void 쿠폰_가져오기_작업_없음() {
+        // when
+        ExtractableResponse<Response> response = 쿠폰_가져오기_작업_조회_요청(Long.MAX_VALUE);
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(response.jsonPath().getString("errorCode")).isEqualTo("not.exist.import.job");
+    }
+
+    @Test
+    public void 비동기_쿠폰_발급_조회() {
+        // given
+        CouponCreateDTO request = new CouponCreateDTO("jimin.joo@nhnsoft.com");
+
+        // when
+        ExtractableResponse<Response> created = 비동기_쿠폰_발급_요청(request);
+        ExtractableResponse<Response> duplicate = 비동기_쿠폰_발급_요청(request);
+
+        // then
+        Coupon expected = 쿠폰_발급_성공(created);
+        쿠폰_조회_성공_JsonPath(RestAssured.get("/api/v1/async/coupon/{id}", expected.getId()).then().extract(), expected);
+        쿠폰_조회_성공_JsonPath(RestAssured.get("/api/v1/async/coupon/code/{code}", expected.getCode()).then().extract(),
+                               expected);
+        assertThat(duplicate.statusCode()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(duplicate.jsonPath().getString("errorCode")).isEqualTo("duplicate.email");
+        assertThat(RestAssured.get("/api/v1/async/coupon/{id}", Long.MAX_VALUE).statusCode())
+            .isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+
+    public static ExtractableResponse<Response> 쿠폰_가져오기_작업_생성_요청() {
+        return RestAssured
+            .given()
+                .log().all()
+            .when()
+                .post("/api/v1/coupons/import")
+            .then()
+                .log().all()
+                .extract();
+    }
+
+    public static ExtractableResponse<Response> 쿠폰_가져오기_요청(final long jobId, final String body,
+                                                            final String contentType) {
+        return RestAssured
+            .given()
+                .log().all()
+                .body(body)
+                .contentType(contentType)
+            .when()
+                .post("/api/v1/coupons/import/{jobId}", jobId)
+            .then()
+                .log().all()
+                .extract();
+    }
+
+    public static ExtractableResponse<Response> 쿠폰_가져오기_작업_조회_요청(final long jobId) {
+        return RestAssured
+            .given()
+                .log().all()
+            .when()
+                .get("/api/v1/coupons/import/{jobId}", jobId)
+            .then()
+                .log().all()
+                .extract();
+    }
+
     public static ExtractableResponse<Response> 쿠폰_발급_요청(final CouponCreateDTO request) {
         return RestAssured
             .given()
@@ -66,6 +452,87 @@ public class CouponControllerTest extends AcceptanceTest {
                 .extract();
     }
 
+    public static ExtractableResponse<Response> 캠페인_등록_요청(final CampaignCreateDTO request) {
+        return RestAssured
+            .given()
+                .log().all()
+                .body(request)
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .when()
+                .post("/api/v1/campaigns")
+            .then()
+                .log().all()
+                .extract();
+    }
+
+    public static ExtractableResponse<Response> API_key_로_쿠폰_발급_요청(final String apiKey, final String email) {
+        return RestAssured
+            .given()
+                .log().all()
+                .header("X-API-Key", apiKey)
+                .body(new CouponCreateDTO(email))
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .when()
+                .post("/api/v1/coupon")
+            .then()
+                .log().all()
+                .extract();
+    }
+
+    public static ExtractableResponse<Response> API_key_로_발급_요청(final String apiKey, final String path,
+                                                               final Object request) {
+        return RestAssured
+            .given()
+                .log().all()
+                .header("X-API-Key", apiKey)
+                .body(request)
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .when()
+                .post(path)
+            .then()
+                .log().all()
+                .extract();
+    }
+
+    public static ExtractableResponse<Response> 쿠폰_사용_요청(final String code, final String orderId) {
+        return RestAssured
+            .given()
+                .log().all()
+                .body(new CouponRedeemDTO(orderId))
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .when()
+                .post("/api/v1/coupon/{code}/redeem", code)
+            .then()
+                .log().all()
+                .extract();
+    }
+
+    public static ExtractableResponse<Response> 비동기_쿠폰_발급_요청(final CouponCreateDTO request) {
+        return RestAssured
+            .given()
+                .log().all()
+                .body(request)
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .when()
+                .post("/api/v1/async/coupon")
+            .then()
+                .log().all()
+                .extract();
+    }
+
+    public static ExtractableResponse<Response> 쿠폰_일괄_발급_요청(final CouponBatchCreateDTO request) {
+        return RestAssured
+            .given()
+                .log().all()
+                .body(request)
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .when()
+                .post("/api/v1/coupons/batch")
+            .then()
+                .log().all()
+                .extract();
+    }
+
     public static Coupon 쿠폰_발급_성공(ExtractableResponse<Response> response) {
         assertThat(response.statusCode()).isEqualTo(HttpStatus.CREATED.value());
 
@@ -114,6 +581,40 @@ public class CouponControllerTest extends AcceptanceTest {
     }
 
 
+    public static ExtractableResponse<Response> 쿠폰_커서_조회_요청(final int size, final String cursor,
+                                                            final String sort) {
+        RequestSpecification request = RestAssured.given().log().all().param("size", size);
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        if (sort != null) {
+            request.param("sort", sort);
+        }
+        return request
+                .when()
+                    .get("/api/v1/coupons")
+                .then()
+                    .log().all()
+                    .extract();
+    }
+
+    public static ExtractableResponse<Response> 쿠폰_내보내기_요청(final String format) {
+        RequestSpecification request = RestAssured.given().log().all();
+        if (format != null) {
+            request.param("format", format);
+        }
+        return request
+                .when()
+                    .get("/api/v1/coupon/export")
+                .then()
+                    .log().all()
+                    .extract();
+    }
+
+    private static String 쿠폰_발급일(Coupon coupon) {
+        return RestAssured.get("/api/v1/coupon/{id}", coupon.getId()).jsonPath().getString("createdAt");
+    }
+
     public static void 쿠폰_리스트_조회_성공(ExtractableResponse<Response> response, int totalElements, int numberOfElements) {
         assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
 
@@ -0,0 +1,57 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class BloomFilterTest {
+
+    @Test
+    public void noFalseNegativeTest() {
+        // given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@nhnsoft.com");
+        }
+
+        // then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@nhnsoft.com")).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(10_000);
+    }
+
+    @Test
+    public void falsePositiveRateTest() {
+        // given
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@nhnsoft.com");
+        }
+
+        // when
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@nhnsoft.com")) {
+                falsePositives++;
+            }
+        }
+
+        // then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(filter.expectedFalsePositiveProbability()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    public void sizingFor100MillionCouponsTest() {
+        // when
+        long bits = BloomFilter.optimalBitSize(100_000_000L, 0.01);
+
+        // then
+        assertThat(bits).isEqualTo(958_505_838L);
+        assertThat(bits / 8 / 1024 / 1024).isEqualTo(114);
+        assertThat(BloomFilter.optimalHashCount(100_000_000L, bits)).isEqualTo(7);
+    }
+}
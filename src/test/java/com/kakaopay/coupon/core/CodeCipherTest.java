@@ -0,0 +1,58 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class CodeCipherTest {
+
+    private final CodeCipher cipher = new CodeCipher("secret");
+
+    @Test
+    public void uniqueTest() {
+        // given
+        Set<String> codes = new HashSet<>();
+
+        // when
+        for (long value = 0; value < 100_000; value++) {
+            codes.add(cipher.encode(value));
+        }
+
+        // then
+        assertThat(codes).hasSize(100_000);
+        for (String code : codes) {
+            assertThat(code).matches("[A-Za-z0-9]{4}(-[A-Za-z0-9]{4}){3}");
+        }
+    }
+
+    @Test
+    public void decodeTest() {
+        // given
+        long[] values = {0, 1, 1L << 20, (1L << 47) - 1, 1L << 47, Long.MAX_VALUE};
+
+        // when, then
+        for (long value : values) {
+            assertThat(cipher.decode(cipher.encode(value))).isEqualTo(value);
+        }
+    }
+
+    @Test
+    public void keyTest() {
+        // given
+        CodeCipher other = new CodeCipher("other");
+
+        // when, then
+        assertThat(other.encode(1)).isNotEqualTo(cipher.encode(1));
+        assertThat(new CodeCipher("secret").encode(1)).isEqualTo(cipher.encode(1));
+    }
+
+    @Test
+    public void decodeTestInvalid() {
+        // when, then
+        assertThatThrownBy(() -> cipher.decode("!!!!-AAAA-AAAA-AAAA")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cipher.decode("zzzz-zzzz-zzzz-zzzz")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
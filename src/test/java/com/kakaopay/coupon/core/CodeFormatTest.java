@@ -0,0 +1,120 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class CodeFormatTest {
+
+    private static final String READABLE = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ";
+
+    private final CodeFormat promo = CodeFormat.compile(READABLE, 10, 4, '-', "PR-", CodeFormat.Checksum.LUHN);
+    private final CodeGenerator codeGenerator = new CodeGenerator();
+
+    @Test
+    public void generateCodeTest() {
+        // given
+        Set<String> codes = new HashSet<>();
+
+        // when, then
+        for (int i = 0; i < 10_000; i++) {
+            String code = codeGenerator.generateCode(promo);
+            assertThat(code).matches("PR-[2-9A-HJ-NP-Z]{4}-[2-9A-HJ-NP-Z]{4}-[2-9A-HJ-NP-Z]{3}");
+            assertThat(promo.isValid(code)).isTrue();
+            assertThat(promo.unpack(promo.pack(code))).isEqualTo(code);
+            codes.add(code);
+        }
+        assertThat(codes).hasSize(10_000);
+        assertThat(promo.textLength()).isEqualTo(16);
+        assertThat(promo.bits()).isEqualTo(50);
+    }
+
+    @Test
+    public void checksumRejectsEverySingleSymbolErrorTest() {
+        // given
+        String code = codeGenerator.generateCode(promo);
+
+        // when, then
+        for (int i = 0; i < code.length(); i++) {
+            for (char c : READABLE.toCharArray()) {
+                if (c != code.charAt(i)) {
+                    String mistyped = code.substring(0, i) + c + code.substring(i + 1);
+                    assertThat(promo.isValid(mistyped)).as(mistyped).isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void checksumRejectsAdjacentTranspositionTest() {
+        // given
+        int transposed = 0;
+        int rejected = 0;
+
+        // when
+        for (int i = 0; i < 1_000; i++) {
+            String code = codeGenerator.generateCode(promo);
+            for (int position = 3; position < code.length() - 1; position++) {
+                char left = code.charAt(position);
+                char right = code.charAt(position + 1);
+                if (left == right || left == '-' || right == '-') {
+                    continue;
+                }
+                String swapped = code.substring(0, position) + right + left + code.substring(position + 2);
+                transposed++;
+                if (!promo.isValid(swapped)) {
+                    rejected++;
+                }
+            }
+        }
+
+        // then
+        assertThat((double) rejected / transposed).isGreaterThan(0.9);
+    }
+
+    @Test
+    public void defaultFormatTest() {
+        // given
+        String code = codeGenerator.generateCode();
+
+        // when, then
+        assertThat(CodeFormat.DEFAULT.isValid(code)).isTrue();
+        assertThat(CodeFormat.DEFAULT.pack(code)).isEqualTo(new CouponCode().pack(code));
+        assertThat(CodeFormat.DEFAULT.bits()).isEqualTo(96);
+        assertThat(CodeFormat.DEFAULT.isValid("8io4-7KPN-dzc6-Ov6")).isFalse();
+    }
+
+    @Test
+    public void overlapsTest() {
+        // given
+        CodeFormat sameShape = CodeFormat.compile("ABCD", 16, 4, '-', "", CodeFormat.Checksum.NONE);
+        CodeFormat otherPrefix = CodeFormat.compile(READABLE, 10, 4, '-', "EV-", CodeFormat.Checksum.LUHN);
+        CodeFormat lowerCase = CodeFormat.compile("abcdefgh", 16, 4, '-', "", CodeFormat.Checksum.NONE);
+
+        // when, then
+        assertThat(CodeFormat.DEFAULT.overlaps(sameShape)).isTrue();
+        assertThat(CodeFormat.DEFAULT.overlaps(promo)).isFalse();
+        assertThat(promo.overlaps(otherPrefix)).isFalse();
+        assertThat(sameShape.overlaps(lowerCase)).isFalse();
+    }
+
+    @Test
+    public void compileTestInvalid() {
+        // when, then
+        assertThatThrownBy(() -> CodeFormat.compile("A", 4, 0, '-', "", null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CodeFormat.compile("AAB", 4, 0, '-', "", null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CodeFormat.compile("AB-", 4, 2, '-', "", null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CodeFormat.compile("AB가", 4, 0, '-', "", null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CodeFormat.compile(READABLE, 20, 4, '-', "", null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CodeFormat.compile(READABLE, 10, 4, '-', "P R", null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
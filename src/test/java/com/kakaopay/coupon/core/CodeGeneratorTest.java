@@ -0,0 +1,199 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import org.junit.After;
+import org.junit.Test;
+
+public class CodeGeneratorTest {
+
+    private static final Pattern CODE_PATTERN = Pattern.compile("^[A-Za-z0-9]{4}(-[A-Za-z0-9]{4}){3}$");
+    private static final int THREAD_COUNT = 16;
+    private static final int CODE_COUNT_PER_THREAD = 20_000;
+
+    private final CodeGenerator codeGenerator = new CodeGenerator();
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void generateCodeTest() {
+        // when
+        String code = codeGenerator.generateCode();
+
+        // then
+        assertThat(code).matches(CODE_PATTERN);
+    }
+
+    @Test
+    public void generateCodeWithEveryAlgorithmTest() {
+        for (RandomAlgorithm algorithm : RandomAlgorithm.values()) {
+            // given
+            CodeGenerator generator = new CodeGenerator(algorithm);
+
+            // when
+            Set<String> codes = new HashSet<>();
+            for (int i = 0; i < 1_000; i++) {
+                codes.add(generator.generateCode());
+            }
+
+            // then
+            assertThat(codes).hasSize(1_000);
+            assertThat(codes.iterator().next()).matches(CODE_PATTERN);
+            assertThat(generator.rng().getClass()).isEqualTo(algorithm.create(0L).getClass());
+        }
+    }
+
+    @Test
+    public void spacerAtFixedOffsetTest() {
+        // given
+        CodeFormat format = CodeFormat.compile(CodeGenerator.ALPHABET, 10, 3, '_', "", CodeFormat.Checksum.NONE);
+
+        // when
+        String code = codeGenerator.generateCode(format);
+
+        // then
+        assertThat(code).hasSize(13);
+        assertThat(code).matches("^[A-Za-z0-9]{3}(_[A-Za-z0-9]{3}){2}_[A-Za-z0-9]$");
+    }
+
+    @Test
+    public void symbolsAreUniformPerPositionTest() {
+        // given
+        final int codeCount = 200_000;
+        final int symbolCount = CodeGenerator.ALPHABET.length();
+        int[][] histogram = new int[16][symbolCount];
+
+        // when
+        for (int i = 0; i < codeCount; i++) {
+            String symbols = codeGenerator.generateCode().replace("-", "");
+            for (int position = 0; position < symbols.length(); position++) {
+                histogram[position][CodeGenerator.ALPHABET.indexOf(symbols.charAt(position))]++;
+            }
+        }
+
+        // then
+        double expected = (double) codeCount / symbolCount;
+        for (int[] counts : histogram) {
+            for (int count : counts) {
+                assertThat((double) count).isBetween(expected * 0.85, expected * 1.15);
+            }
+        }
+    }
+
+    @Test
+    public void concurrentGenerateCodeTest() throws Exception {
+        // when
+        List<List<String>> results = runConcurrently(() -> {
+            List<String> codes = new ArrayList<>(CODE_COUNT_PER_THREAD);
+            for (int i = 0; i < CODE_COUNT_PER_THREAD; i++) {
+                codes.add(codeGenerator.generateCode());
+            }
+            return codes;
+        });
+
+        // then
+        Set<String> unique = new HashSet<>();
+        for (List<String> codes : results) {
+            for (String code : codes) {
+                assertThat(code).matches(CODE_PATTERN);
+                unique.add(code);
+            }
+        }
+        assertThat(unique).hasSize(THREAD_COUNT * CODE_COUNT_PER_THREAD);
+    }
+
+    @Test
+    public void eachThreadOwnsIndependentStreamTest() throws Exception {
+        // when
+        List<Object[]> results = runConcurrently(() -> {
+            RandomSource rng = codeGenerator.rng();
+            int[] head = new int[16];
+            for (int i = 0; i < head.length; i++) {
+                head[i] = rng.nextInt(Integer.MAX_VALUE);
+            }
+            return new Object[]{rng, head};
+        });
+
+        // then
+        Map<RandomSource, Boolean> instances = new IdentityHashMap<>();
+        Set<String> streams = new HashSet<>();
+        for (Object[] result : results) {
+            instances.put((RandomSource) result[0], true);
+            streams.add(Arrays.toString((int[]) result[1]));
+        }
+        assertThat(instances).hasSize(THREAD_COUNT);
+        assertThat(streams).hasSize(THREAD_COUNT);
+    }
+
+    @Test
+    public void seedSequenceNeverRepeatsTest() {
+        // when
+        Set<Long> seeds = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            seeds.add(codeGenerator.nextSeed());
+        }
+
+        // then
+        assertThat(seeds).hasSize(100_000);
+    }
+
+    @Test
+    public void sameSeedReproducesStreamTest() {
+        // given
+        Well512 first = new Well512(42L);
+        Well512 second = new Well512(42L);
+        Well512 other = new Well512(43L);
+
+        // when
+        int[] firstStream = new int[32];
+        int[] secondStream = new int[32];
+        int[] otherStream = new int[32];
+        for (int i = 0; i < 32; i++) {
+            firstStream[i] = first.nextInt(Integer.MAX_VALUE);
+            secondStream[i] = second.nextInt(Integer.MAX_VALUE);
+            otherStream[i] = other.nextInt(Integer.MAX_VALUE);
+        }
+
+        // then
+        assertThat(firstStream).isEqualTo(secondStream);
+        assertThat(firstStream).isNotEqualTo(otherStream);
+    }
+
+    private <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        CountDownLatch ready = new CountDownLatch(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                return task.call();
+            }));
+        }
+        ready.await();
+        start.countDown();
+
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+}
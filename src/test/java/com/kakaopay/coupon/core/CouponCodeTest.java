@@ -0,0 +1,130 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class CouponCodeTest {
+
+    private final CouponCode couponCode = new CouponCode();
+
+    @Test
+    public void packTest() {
+        // given
+        CodeGenerator codeGenerator = new CodeGenerator();
+        Set<String> keys = new HashSet<>();
+
+        // when, then
+        for (int i = 0; i < 100_000; i++) {
+            String code = codeGenerator.generateCode();
+            byte[] key = couponCode.pack(code);
+            assertThat(key).hasSize(CouponCode.LENGTH);
+            assertThat(couponCode.unpack(key)).isEqualTo(code);
+            keys.add(Arrays.toString(key));
+        }
+        assertThat(keys).hasSize(100_000);
+    }
+
+    @Test
+    public void packTestBoundary() {
+        // when
+        byte[] min = couponCode.pack("AAAA-AAAA-AAAA-AAAA");
+        byte[] max = couponCode.pack("zzzz-zzzz-zzzz-zzzz");
+
+        // then
+        assertThat(min).isEqualTo(new byte[CouponCode.LENGTH]);
+        assertThat(couponCode.unpack(min)).isEqualTo("AAAA-AAAA-AAAA-AAAA");
+        assertThat(couponCode.unpack(max)).isEqualTo("zzzz-zzzz-zzzz-zzzz");
+        // 62^16 - 1 은 2^96 보다 작으므로 맨 앞 byte 가 0xFF 가 되지 않는다.
+        assertThat(max[0] & 0xFF).isLessThan(0xFF);
+    }
+
+    @Test
+    public void packTestOrder() {
+        // when
+        byte[] first = couponCode.pack("AAAA-AAAA-AAAA-AAAz");
+        byte[] second = couponCode.pack("AAAA-AAAA-AAAA-AABA");
+
+        // then
+        assertThat(compare(first, second)).isNegative();
+    }
+
+    @Test
+    public void packTestInvalid() {
+        // when, then
+        assertThat(couponCode.pack(null)).isNull();
+        assertThat(couponCode.pack("abc")).isNull();
+        assertThat(couponCode.pack("AAAAAAAAAAAAAAAA")).isNull();
+        assertThat(couponCode.pack("AAAA-AAAA-AAAA-AAA!")).isNull();
+        assertThat(couponCode.pack("AAAA-AAAA-AAAA-AAA가")).isNull();
+        assertThat(couponCode.pack("AAAA_AAAA-AAAA-AAAA")).isNull();
+    }
+
+    @Test
+    public void unpackTestInvalid() {
+        // given
+        byte[] overflow = new byte[CouponCode.LENGTH];
+        Arrays.fill(overflow, (byte) 0xFF);
+
+        // when, then
+        assertThatThrownBy(() -> couponCode.unpack(overflow)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> couponCode.unpack(new byte[4])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void formatTest() {
+        // given
+        CodeFormat format = CodeFormat.compile("23456789ABCDEFGHJKLMNPQRSTUVWXYZ", 8, 4, '-', "TS-",
+                                               CodeFormat.Checksum.LUHN);
+        CouponCode formatted = new CouponCode(Collections.singletonMap(99, format));
+        String code = new CodeGenerator().generateCode(format);
+
+        // when
+        byte[] key = formatted.pack(code);
+
+        // then
+        assertThat(key).hasSize(CouponCode.LENGTH);
+        assertThat(key[0] & 0xFF).isGreaterThan(154);
+        assertThat(formatted.unpack(key)).isEqualTo(code);
+        assertThat(formatted.pack(code.toLowerCase())).isNull();
+        assertThat(couponCode.pack(code)).isNull();
+        assertThatThrownBy(() -> couponCode.unpack(key)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void formatTestInvalid() {
+        // given
+        CodeFormat sameShape = CodeFormat.compile("ABCD", 16, 4, '-', "", CodeFormat.Checksum.NONE);
+        CodeFormat wide = CodeFormat.compile("ABCD", 45, 0, '-', "WD-", CodeFormat.Checksum.NONE);
+        CodeFormat other = CodeFormat.compile("ABCD", 8, 4, '-', "OT-", CodeFormat.Checksum.NONE);
+        Map<Integer, CodeFormat> overlapping = new LinkedHashMap<>();
+        overlapping.put(97, other);
+        overlapping.put(96, CodeFormat.compile("ABCE", 8, 4, '-', "OT-", CodeFormat.Checksum.NONE));
+
+        // when, then
+        assertThatThrownBy(() -> new CouponCode(Collections.singletonMap(98, sameShape)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CouponCode(Collections.singletonMap(98, wide)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CouponCode(Collections.singletonMap(0, other)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CouponCode(overlapping)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int compare(byte[] left, byte[] right) {
+        for (int i = 0; i < left.length; i++) {
+            int diff = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,172 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayAfterCrashTest() throws IOException {
+        // given
+        Path directory = folder.getRoot().toPath();
+        Journal crashed = new Journal(directory, 1024);
+        for (int i = 1; i <= 3; i++) {
+            crashed.awaitDurable(crashed.append(bytes("coupon" + i)));
+        }
+
+        // when - close 하지 않은 채로 다시 연다
+        Journal journal = new Journal(directory, 1024);
+
+        // then
+        assertThat(replay(journal)).containsExactly("1:coupon1", "2:coupon2", "3:coupon3");
+        assertThat(journal.append(bytes("coupon4"))).isEqualTo(4);
+        journal.close();
+        crashed.close();
+    }
+
+    @Test
+    public void checkpointTest() throws IOException {
+        // given
+        Path directory = folder.getRoot().toPath();
+        Journal journal = new Journal(directory, 1024);
+        for (int i = 1; i <= 3; i++) {
+            journal.append(bytes("coupon" + i));
+        }
+
+        // when
+        journal.checkpoint(2);
+        journal.close();
+
+        // then
+        Journal reopened = new Journal(directory, 1024);
+        assertThat(replay(reopened)).containsExactly("3:coupon3");
+        assertThat(reopened.lastSequence()).isEqualTo(3);
+        reopened.close();
+    }
+
+    @Test
+    public void tornTailIsIgnoredTest() throws IOException {
+        // given
+        Path directory = folder.getRoot().toPath();
+        Journal journal = new Journal(directory, 1024);
+        journal.append(bytes("coupon1"));
+        journal.append(bytes("coupon2"));
+        journal.close();
+
+        // when - 두 번째 레코드의 payload 가 디스크에 다 내려가지 못한 상황
+        Path segment = segments(directory).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(16 + 7 + 16 + 3);
+            file.write(0);
+        }
+
+        // then
+        Journal reopened = new Journal(directory, 1024);
+        assertThat(replay(reopened)).containsExactly("1:coupon1");
+        assertThat(reopened.append(bytes("coupon2"))).isEqualTo(2);
+        reopened.close();
+    }
+
+    @Test
+    public void tornFirstRecordOfLastSegmentTest() throws IOException {
+        // given - 새 segment 를 만들고 첫 레코드를 쓰다가 죽은 상황
+        Path directory = folder.getRoot().toPath();
+        Journal journal = new Journal(directory, 64);
+        for (int i = 1; i <= 3; i++) {
+            journal.append(bytes("coupon" + i));
+        }
+        journal.close();
+        Path last = segments(directory).get(1);
+        try (RandomAccessFile file = new RandomAccessFile(last.toFile(), "rw")) {
+            file.seek(16 + 3);
+            file.write(0);
+        }
+
+        // when
+        Journal reopened = new Journal(directory, 64);
+
+        // then
+        assertThat(replay(reopened)).containsExactly("1:coupon1", "2:coupon2");
+        assertThat(reopened.append(bytes("coupon3"))).isEqualTo(3);
+        reopened.close();
+        Journal recovered = new Journal(directory, 64);
+        assertThat(replay(recovered)).containsExactly("1:coupon1", "2:coupon2", "3:coupon3");
+        recovered.close();
+    }
+
+    @Test
+    public void syncFailureTest() throws IOException {
+        // given
+        Path directory = folder.getRoot().toPath();
+        Journal journal = new Journal(directory, 1024) {
+            @Override
+            void force(MappedByteBuffer target) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        // when
+        long sequence = journal.append(bytes("coupon1"));
+
+        // then
+        assertThatThrownBy(() -> journal.awaitDurable(sequence)).isInstanceOf(IOException.class)
+                                                                .hasMessage("disk full");
+        assertThatThrownBy(() -> journal.append(bytes("coupon2"))).isInstanceOf(IOException.class)
+                                                                  .hasMessage("disk full");
+        journal.close();
+    }
+
+    @Test
+    public void rollAndDeleteSegmentTest() throws IOException {
+        // given
+        Path directory = folder.getRoot().toPath();
+        Journal journal = new Journal(directory, 64);
+        for (int i = 1; i <= 6; i++) {
+            journal.append(bytes("coupon" + i));
+        }
+        assertThat(segments(directory)).hasSize(3);
+
+        // when
+        journal.checkpoint(4);
+
+        // then
+        assertThat(segments(directory)).hasSize(1);
+        assertThat(replay(journal)).containsExactly("5:coupon5", "6:coupon6");
+        journal.close();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> replay(Journal journal) throws IOException {
+        List<String> records = new ArrayList<>();
+        journal.replay((sequence, payload) -> records.add(sequence + ":" + new String(payload, StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log"))
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+public class RandomSourceTest {
+
+    /**
+     * 2^32 / bound 의 나머지가 큰 bound. 균등하면 [0, 2^30) 이 2/3 이고, nextInt() % bound 였다면 3/4 가 된다.
+     */
+    private static final int SKEWED_BOUND = 3 << 29;
+
+    @Test
+    public void boundedIsNotSkewedByModuloTest() {
+        for (RandomAlgorithm algorithm : RandomAlgorithm.values()) {
+            // given
+            RandomSource random = algorithm.create(42L);
+            int samples = 300_000;
+
+            // when
+            int low = 0;
+            for (int i = 0; i < samples; i++) {
+                int value = random.nextInt(SKEWED_BOUND);
+                assertThat(value).isBetween(0, SKEWED_BOUND - 1);
+                if (value < 1 << 30) {
+                    low++;
+                }
+            }
+
+            // then
+            assertThat(low / (double) samples).as(algorithm.name()).isBetween(0.66, 0.674);
+        }
+    }
+
+    @Test
+    public void boundedAlphabetIsUniformTest() {
+        for (RandomAlgorithm algorithm : RandomAlgorithm.values()) {
+            // given
+            RandomSource random = algorithm.create(7L);
+            int[] counts = new int[62];
+            int samples = 620_000;
+
+            // when
+            for (int i = 0; i < samples; i++) {
+                counts[random.nextInt(62)]++;
+            }
+
+            // then
+            double chiSquare = 0;
+            double expected = samples / 62.0;
+            for (int count : counts) {
+                chiSquare += (count - expected) * (count - expected) / expected;
+            }
+            // 자유도 61, 유의수준 0.001 의 임계값
+            assertThat(chiSquare).as(algorithm.name()).isLessThan(100.9);
+        }
+    }
+
+    @Test
+    public void splitMix64ReferenceValueTest() {
+        // when
+        long first = new SplitMix64(0L).nextLong();
+
+        // then
+        assertThat(first).isEqualTo(0xE220A8397B1DCDAFL);
+    }
+
+    @Test
+    public void seededSourcesAreReproducibleTest() {
+        // given
+        RandomSource first = new Xoshiro256StarStar(42L);
+        RandomSource second = new Xoshiro256StarStar(42L);
+        RandomSource other = new Xoshiro256StarStar(43L);
+
+        // when
+        long[] firstStream = new long[32];
+        long[] secondStream = new long[32];
+        long[] otherStream = new long[32];
+        for (int i = 0; i < 32; i++) {
+            firstStream[i] = first.nextLong();
+            secondStream[i] = second.nextLong();
+            otherStream[i] = other.nextLong();
+        }
+
+        // then
+        assertThat(firstStream).isEqualTo(secondStream);
+        assertThat(firstStream).isNotEqualTo(otherStream);
+        assertThat(RandomSource.strongSeed()).isNotEqualTo(RandomSource.strongSeed());
+    }
+
+    @Test
+    public void invalidBoundTest() {
+        // when, then
+        assertThatThrownBy(() -> new SplitMix64(1L).nextInt(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentCallSharesResultTest() throws Exception {
+        // given
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger executed = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<Integer> leader = executor.submit(() -> flight.execute("key", () -> {
+            started.countDown();
+            await(finish);
+            return executed.incrementAndGet();
+        }));
+        started.await();
+
+        // when
+        Future<Integer> follower = executor.submit(() -> flight.execute("key", executed::incrementAndGet));
+        while (flight.shared() == 0) {
+            Thread.sleep(1);
+        }
+        finish.countDown();
+
+        // then
+        assertThat(leader.get()).isEqualTo(1);
+        assertThat(follower.get()).isEqualTo(1);
+        assertThat(executed.get()).isEqualTo(1);
+        assertThat(flight.inFlight()).isZero();
+        assertThat(flight.execute("key", executed::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    public void concurrentCallSharesExceptionTest() throws Exception {
+        // given
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("fail");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        executor.submit(() -> flight.execute("key", () -> {
+            started.countDown();
+            await(finish);
+            throw failure;
+        }));
+        started.await();
+        executor.submit(() -> {
+            while (flight.shared() == 0) {
+                Thread.yield();
+            }
+            finish.countDown();
+        });
+
+        // when, then
+        assertThatThrownBy(() -> flight.execute("key", () -> 0)).isSameAs(failure);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(flight.inFlight()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Test;
+
+public class StripedStockTest {
+
+    private static final int THREAD_COUNT = 16;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentAcquireNeverExceedsTotalTest() throws Exception {
+        // given
+        StripedStock stock = new StripedStock(10_001, 4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int acquired = 0;
+                while (stock.tryAcquire()) {
+                    acquired++;
+                }
+                return acquired;
+            }));
+        }
+
+        // when
+        start.countDown();
+        int acquired = 0;
+        for (Future<Integer> future : futures) {
+            acquired += future.get();
+        }
+
+        // then
+        assertThat(acquired).isEqualTo(10_001);
+        assertThat(stock.remaining()).isZero();
+        assertThat(stock.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void releaseAndDrainTest() {
+        // given
+        StripedStock stock = new StripedStock(10, 4);
+
+        // when
+        long drained = stock.drain(7);
+        stock.release(2);
+        long rest = stock.drain(100);
+
+        // then
+        assertThat(drained).isEqualTo(7);
+        assertThat(rest).isEqualTo(5);
+        assertThat(stock.remaining()).isZero();
+    }
+}
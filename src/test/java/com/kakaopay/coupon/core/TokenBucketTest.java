@@ -0,0 +1,45 @@
+package com.kakaopay.coupon.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void burstThenRefillTest() {
+        // given
+        TokenBucket bucket = new TokenBucket(3, 0);
+
+        // when
+        long first = bucket.tryAcquire(2, 3, 0);
+        bucket.tryAcquire(2, 3, 0);
+        bucket.tryAcquire(2, 3, 0);
+        long empty = bucket.tryAcquire(2, 3, 0);
+        long refilled = bucket.tryAcquire(2, 3, SECOND / 2);
+
+        // then
+        assertThat(first).isZero();
+        assertThat(empty).isEqualTo(SECOND / 2);
+        assertThat(refilled).isZero();
+    }
+
+    @Test
+    public void changedLimitAppliesToNextRequestTest() {
+        // given
+        TokenBucket bucket = new TokenBucket(10, 0);
+
+        // when
+        long shrunk = bucket.tryAcquire(1, 1, 0);
+        long limited = bucket.tryAcquire(1, 1, 0);
+        long faster = bucket.tryAcquire(100, 1, SECOND / 100);
+
+        // then
+        assertThat(shrunk).isZero();
+        assertThat(limited).isEqualTo(SECOND);
+        assertThat(faster).isZero();
+    }
+}
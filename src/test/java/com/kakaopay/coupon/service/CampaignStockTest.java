@@ -0,0 +1,151 @@
+package com.kakaopay.coupon.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+
+import com.kakaopay.coupon.configuration.CampaignProperties;
+import com.kakaopay.coupon.error.exception.NotExistCampaignException;
+import com.kakaopay.coupon.model.Campaign;
+import com.kakaopay.coupon.repository.CampaignRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CampaignStockTest {
+
+    private static final long MAX_ISSUANCE = 10;
+
+    @Spy
+    private CampaignProperties properties = new CampaignProperties();
+
+    @Mock
+    private CampaignRepository campaignRepo;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CampaignStock campaignStock;
+
+    private final AtomicLong leased = new AtomicLong();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        properties.setLeaseSize(4);
+        campaignStock.init();
+        BDDMockito.given(transactionTemplate.execute(any(TransactionCallback.class)))
+                   .willAnswer(invocation -> ((TransactionCallback) invocation.getArguments()[0]).doInTransaction(null));
+        BDDMockito.given(campaignRepo.findOne(1L)).willReturn(Campaign.create("first 10", MAX_ISSUANCE, null));
+        BDDMockito.given(campaignRepo.findUnleased(1L)).willAnswer(invocation -> MAX_ISSUANCE - leased.get());
+        BDDMockito.given(campaignRepo.lease(eq(1L), anyLong())).willAnswer(invocation -> {
+            long count = (Long) invocation.getArguments()[1];
+            long current = leased.get();
+            return current + count <= MAX_ISSUANCE && leased.compareAndSet(current, current + count) ? 1 : 0;
+        });
+        BDDMockito.given(campaignRepo.giveBack(eq(1L), anyLong())).willAnswer(invocation -> {
+            leased.addAndGet(-(Long) invocation.getArguments()[1]);
+            return 1;
+        });
+    }
+
+    @Test
+    public void leaseInBlocksUpToMaxIssuanceTest() {
+        // when
+        int acquired = 0;
+        while (campaignStock.tryAcquire(1L)) {
+            acquired++;
+        }
+
+        // then
+        assertThat(acquired).isEqualTo(10);
+        assertThat(leased.get()).isEqualTo(MAX_ISSUANCE);
+        BDDMockito.then(campaignRepo).should(times(2)).lease(1L, 4L);
+        BDDMockito.then(campaignRepo).should().lease(1L, 2L);
+        assertThat(meterRegistry.get("coupon.campaign.leases").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("coupon.campaign.sold.out").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("coupon.campaign.remaining").tag("campaign", "1").gauge().value()).isZero();
+    }
+
+    @Test
+    public void nodesShareMaxIssuanceTest() {
+        // given
+        CampaignStock other = new CampaignStock(properties, campaignRepo, transactionTemplate, new SimpleMeterRegistry());
+        other.init();
+
+        // when
+        int acquired = 0;
+        boolean first = true;
+        boolean second = true;
+        while (first || second) {
+            if (first && (first = campaignStock.tryAcquire(1L))) {
+                acquired++;
+            }
+            if (second && (second = other.tryAcquire(1L))) {
+                acquired++;
+            }
+        }
+
+        // then
+        assertThat(acquired).isEqualTo(10);
+    }
+
+    @Test
+    public void soldOutIsRecheckedAfterGiveBackTest() {
+        // given
+        properties.setSoldOutRecheckSeconds(0);
+        CampaignStock other = new CampaignStock(properties, campaignRepo, transactionTemplate, new SimpleMeterRegistry());
+        other.init();
+        other.tryAcquire(1L);
+        int acquired = 0;
+        while (campaignStock.tryAcquire(1L)) {
+            acquired++;
+        }
+
+        // when
+        other.destroy();
+        boolean afterGiveBack = campaignStock.tryAcquire(1L);
+
+        // then
+        assertThat(acquired).isEqualTo(6);
+        assertThat(afterGiveBack).isTrue();
+        assertThat(leased.get()).isEqualTo(MAX_ISSUANCE);
+    }
+
+    @Test
+    public void releasedStockIsReusedWithoutLeaseTest() {
+        // given
+        campaignStock.tryAcquire(1L);
+
+        // when
+        campaignStock.release(1L);
+
+        // then
+        assertThat(campaignStock.remaining(1L)).isEqualTo(4);
+        BDDMockito.then(campaignRepo).should().lease(1L, 4L);
+    }
+
+    @Test
+    public void notExistCampaignTest() {
+        // when, then
+        assertThatThrownBy(() -> campaignStock.tryAcquire(2L)).isInstanceOf(NotExistCampaignException.class);
+    }
+}
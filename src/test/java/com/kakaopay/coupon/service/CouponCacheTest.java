@@ -0,0 +1,67 @@
+package com.kakaopay.coupon.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kakaopay.coupon.configuration.CouponCacheProperties;
+import com.kakaopay.coupon.model.Coupon;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Date;
+import org.junit.Test;
+
+public class CouponCacheTest {
+
+    private CouponCache couponCache = new CouponCache(new CouponCacheProperties(), new SimpleMeterRegistry());
+
+    @Test
+    public void pendingCouponNotCachedTest() {
+        // given
+        Coupon pending = new Coupon("user@nhnsoft.com", "code");
+        Coupon stored = new Coupon("user@nhnsoft.com", "code");
+        stored.setId(1L);
+
+        // when
+        Coupon first = couponCache.getByCode("code", code -> pending);
+        Coupon second = couponCache.getByCode("code", code -> stored);
+        Coupon third = couponCache.getByEmail("user@nhnsoft.com", email -> null);
+
+        // then
+        assertThat(first).isSameAs(pending);
+        assertThat(second).isSameAs(stored);
+        assertThat(third).isEqualTo(stored);
+    }
+
+    @Test
+    public void cachedCouponIsCopiedTest() {
+        // given
+        Coupon stored = new Coupon("user@nhnsoft.com", "code");
+        stored.setId(1L);
+        couponCache.put(stored);
+
+        // when
+        stored.setRedeemedOrderId("order1");
+        Coupon first = couponCache.getById(1L, id -> null);
+        first.setRedeemedAt(new Date());
+        Coupon second = couponCache.getById(1L, id -> null);
+
+        // then
+        assertThat(first).isNotSameAs(second);
+        assertThat(second.getRedeemedOrderId()).isNull();
+        assertThat(second.getRedeemedAt()).isNull();
+    }
+
+    @Test
+    public void evictByCodeTest() {
+        // given
+        Coupon stored = new Coupon("user@nhnsoft.com", "code");
+        stored.setId(1L);
+        couponCache.put(stored);
+
+        // when
+        couponCache.evictByCode("code");
+
+        // then
+        assertThat(couponCache.getById(1L, id -> null)).isNull();
+        assertThat(couponCache.getByEmail("user@nhnsoft.com", email -> null)).isNull();
+        assertThat(couponCache.getByCode("code", code -> null)).isNull();
+    }
+}
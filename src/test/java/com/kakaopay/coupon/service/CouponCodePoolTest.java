@@ -0,0 +1,118 @@
+package com.kakaopay.coupon.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
+
+import com.kakaopay.coupon.configuration.CodePoolProperties;
+import com.kakaopay.coupon.core.CodeGenerator;
+import com.kakaopay.coupon.model.ReservedCode;
+import com.kakaopay.coupon.repository.CouponRepository;
+import com.kakaopay.coupon.repository.ReservedCodeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CouponCodePoolTest {
+
+    @Spy
+    private CodePoolProperties properties = new CodePoolProperties();
+
+    @Spy
+    private CodeGenerator codeGenerator = new CodeGenerator();
+
+    @Mock
+    private CouponRepository couponRepo;
+
+    @Mock
+    private ReservedCodeRepository reservedCodeRepo;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CouponCodePool codePool;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        properties.setSize(10);
+        properties.setLowWatermark(3);
+        properties.setRefillBatchSize(4);
+        BDDMockito.given(transactionTemplate.execute(any(TransactionCallback.class)))
+                   .willAnswer(invocation -> ((TransactionCallback) invocation.getArguments()[0]).doInTransaction(null));
+        BDDMockito.given(reservedCodeRepo.save(anyListOf(ReservedCode.class)))
+                   .willAnswer(invocation -> invocation.getArguments()[0]);
+    }
+
+    @Test
+    public void disabledPoolTest() {
+        // given
+        codePool.init();
+
+        // when
+        ReservedCode actual = codePool.poll();
+
+        // then
+        assertThat(actual).isNull();
+        assertThat(codePool.isReserved("abc")).isFalse();
+        Mockito.verifyZeroInteractions(reservedCodeRepo);
+    }
+
+    @Test
+    public void refillTest() {
+        // given
+        codePool.init();
+        properties.setEnabled(true);
+
+        // when
+        int filled = codePool.refill(10);
+
+        // then
+        assertThat(filled).isEqualTo(10);
+        assertThat(codePool.available()).isEqualTo(10);
+        assertThat(meterRegistry.get("coupon.code.pool.reserved").counter().count()).isEqualTo(10);
+        assertThat(meterRegistry.get("coupon.code.pool.available").gauge().value()).isEqualTo(10);
+        BDDMockito.then(reservedCodeRepo).should(BDDMockito.times(3)).save(anyListOf(ReservedCode.class));
+    }
+
+    @Test
+    public void refillSkipsCollidedCodeTest() {
+        // given
+        codePool.init();
+        properties.setEnabled(true);
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("used", "a", "b", "c", "d");
+        BDDMockito.given(couponRepo.findCodesIn(anyCollectionOf(String.class)))
+                   .willReturn(Collections.singletonList("used"));
+
+        // when
+        int filled = codePool.refill(4);
+
+        // then
+        assertThat(filled).isEqualTo(4);
+        ReservedCode code;
+        StringBuilder codes = new StringBuilder();
+        while ((code = codePool.poll()) != null) {
+            codes.append(code.getCode()).append(',');
+        }
+        assertThat(codes.toString()).doesNotContain("used");
+        assertThat(meterRegistry.get("coupon.code.pool.hits").counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("coupon.code.pool.misses").counter().count()).isEqualTo(1);
+    }
+}
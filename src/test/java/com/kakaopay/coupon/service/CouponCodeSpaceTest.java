@@ -0,0 +1,110 @@
+package com.kakaopay.coupon.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.internal.verification.VerificationModeFactory.times;
+
+import com.kakaopay.coupon.configuration.CodePoolProperties;
+import com.kakaopay.coupon.configuration.CodeSpaceProperties;
+import com.kakaopay.coupon.model.CodeLease;
+import com.kakaopay.coupon.repository.CodeLeaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CouponCodeSpaceTest {
+
+    @Spy
+    private CodeSpaceProperties properties = new CodeSpaceProperties();
+
+    @Spy
+    private CodePoolProperties codePoolProperties = new CodePoolProperties();
+
+    @Mock
+    private CodeLeaseRepository codeLeaseRepo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CouponCodeSpace codeSpace;
+
+    @Before
+    public void setUp() {
+        properties.setEnabled(true);
+        properties.setKey("secret");
+        AtomicLong sequence = new AtomicLong();
+        BDDMockito.given(codeLeaseRepo.save(any(CodeLease.class))).willAnswer(invocation -> {
+            CodeLease lease = (CodeLease) invocation.getArguments()[0];
+            lease.setId(sequence.incrementAndGet());
+            return lease;
+        });
+    }
+
+    @Test
+    public void leaseTest() {
+        // given
+        codeSpace.init();
+
+        // when
+        long first = codeSpace.nextValue();
+        long last = first;
+        for (int i = 1; i < 1 << CouponCodeSpace.LEASE_BITS; i++) {
+            last = codeSpace.nextValue();
+        }
+        long next = codeSpace.nextValue();
+
+        // then
+        assertThat(first).isEqualTo(1L << CouponCodeSpace.LEASE_BITS);
+        assertThat(last).isEqualTo((2L << CouponCodeSpace.LEASE_BITS) - 1);
+        assertThat(next).isEqualTo(2L << CouponCodeSpace.LEASE_BITS);
+        BDDMockito.then(codeLeaseRepo).should(times(2)).save(any(CodeLease.class));
+    }
+
+    @Test
+    public void nextTest() {
+        // given
+        codeSpace.init();
+
+        // when
+        String code = codeSpace.next();
+
+        // then
+        assertThat(code).matches("[A-Za-z0-9]{4}(-[A-Za-z0-9]{4}){3}");
+        assertThat(codeSpace.next(3)).hasSize(3).doesNotContain(code).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void initTestWithCodePool() {
+        // given
+        codePoolProperties.setEnabled(true);
+
+        // when, then
+        assertThatThrownBy(() -> codeSpace.init()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void initTestWithoutKey() {
+        // given
+        properties.setKey(null);
+
+        // when, then
+        assertThatThrownBy(() -> codeSpace.init()).isInstanceOf(IllegalStateException.class);
+        Mockito.verifyZeroInteractions(codeLeaseRepo);
+    }
+}
@@ -0,0 +1,161 @@
+package com.kakaopay.coupon.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.internal.verification.VerificationModeFactory.times;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakaopay.coupon.model.ImportJob;
+import com.kakaopay.coupon.model.ImportStatus;
+import com.kakaopay.coupon.model.dto.CouponBatchResultDTO;
+import com.kakaopay.coupon.model.dto.IssueStatus;
+import com.kakaopay.coupon.repository.ImportJobRepository;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CouponImportServiceTest {
+
+    @Mock
+    private ImportJobRepository importJobRepo;
+
+    @Mock
+    private CouponService couponService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CouponImportService couponImportService;
+
+    private ImportJob job;
+    private List<List<String>> chunks;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ReflectionTestUtils.setField(couponImportService, "chunkSize", 2);
+        job = ImportJob.create();
+        job.setId(1L);
+        chunks = new ArrayList<>();
+        BDDMockito.given(importJobRepo.findOne(1L)).willReturn(job);
+        BDDMockito.given(importJobRepo.save(any(ImportJob.class))).willAnswer(invocation -> invocation.getArguments()[0]);
+        BDDMockito.given(transactionTemplate.execute(any(TransactionCallback.class)))
+                   .willAnswer(invocation -> ((TransactionCallback) invocation.getArguments()[0]).doInTransaction(null));
+        BDDMockito.given(couponService.createAllInTransaction(anyListOf(String.class))).willAnswer(invocation -> {
+            List<String> emails = new ArrayList<>((List<String>) invocation.getArguments()[0]);
+            chunks.add(emails);
+            return new CouponBatchResultDTO(emails.stream()
+                                                  .map(email -> new CouponBatchResultDTO.Item(
+                                                      email, email == null ? IssueStatus.INVALID : IssueStatus.ISSUED, null))
+                                                  .collect(Collectors.toList()));
+        });
+    }
+
+    @Test
+    public void importCsvTest() throws Exception {
+        // when
+        ImportJob actual = couponImportService.importLines(1L, reader("email", "a@a.com", "", "\"b@b.com\",x", "c@c.com"),
+                                                           ImportFormat.CSV);
+
+        // then
+        assertThat(actual.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(actual.getCommittedLines()).isEqualTo(5);
+        assertThat(actual.getIssued()).isEqualTo(3);
+        assertThat(chunks).containsExactly(Arrays.asList("a@a.com", "b@b.com"), Arrays.asList("c@c.com"));
+    }
+
+    @Test
+    public void importNdjsonTest() throws Exception {
+        // when
+        ImportJob actual = couponImportService.importLines(1L, reader("{\"email\":\"a@a.com\"}", "{broken"),
+                                                           ImportFormat.NDJSON);
+
+        // then
+        assertThat(actual.getIssued()).isEqualTo(1);
+        assertThat(actual.getInvalid()).isEqualTo(1);
+        assertThat(chunks).containsExactly(Arrays.asList("a@a.com", null));
+    }
+
+    @Test
+    public void importResumeFromCommittedLineTest() throws Exception {
+        // given
+        job.commitChunk(3, 2, 0, 0);
+        job.changeStatus(ImportStatus.FAILED, "connection reset");
+
+        // when
+        ImportJob actual = couponImportService.importLines(1L, reader("email", "a@a.com", "b@b.com", "c@c.com"),
+                                                           ImportFormat.CSV);
+
+        // then
+        assertThat(actual.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(actual.getCommittedLines()).isEqualTo(4);
+        assertThat(actual.getIssued()).isEqualTo(3);
+        assertThat(chunks).containsExactly(Arrays.asList("c@c.com"));
+    }
+
+    @Test
+    public void importFailKeepsLastCommittedChunkTest() throws Exception {
+        // given
+        BDDMockito.given(couponService.createAllInTransaction(anyListOf(String.class)))
+                   .willReturn(new CouponBatchResultDTO(Arrays.asList(
+                       new CouponBatchResultDTO.Item("a@a.com", IssueStatus.ISSUED, "code"),
+                       new CouponBatchResultDTO.Item("b@b.com", IssueStatus.ISSUED, "code"))))
+                   .willThrow(new IllegalStateException("db down"));
+
+        // when
+        assertThatThrownBy(() -> couponImportService.importLines(1L, reader("a@a.com", "b@b.com", "c@c.com", "d@d.com"),
+                                                                 ImportFormat.CSV))
+            .isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.FAILED);
+        assertThat(job.getCommittedLines()).isEqualTo(2);
+        BDDMockito.then(couponService).should(times(2)).createAllInTransaction(anyListOf(String.class));
+    }
+
+    @Test
+    public void importRetriesChunkOnConflictTest() throws Exception {
+        // given
+        BDDMockito.given(couponService.createAllInTransaction(anyListOf(String.class)))
+                   .willThrow(new DataIntegrityViolationException("uk_coupon_email"))
+                   .willReturn(new CouponBatchResultDTO(Arrays.asList(
+                       new CouponBatchResultDTO.Item("a@a.com", IssueStatus.DUPLICATE, null),
+                       new CouponBatchResultDTO.Item("b@b.com", IssueStatus.ISSUED, "code"))));
+
+        // when
+        ImportJob actual = couponImportService.importLines(1L, reader("a@a.com", "b@b.com"), ImportFormat.CSV);
+
+        // then
+        assertThat(actual.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(actual.getCommittedLines()).isEqualTo(2);
+        assertThat(actual.getIssued()).isEqualTo(1);
+        assertThat(actual.getDuplicate()).isEqualTo(1);
+        BDDMockito.then(couponService).should(times(2)).createAllInTransaction(anyListOf(String.class));
+    }
+
+    private static BufferedReader reader(String... lines) {
+        return new BufferedReader(new StringReader(String.join("\n", lines)));
+    }
+}
@@ -0,0 +1,155 @@
+package com.kakaopay.coupon.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kakaopay.coupon.AcceptanceTest;
+import com.kakaopay.coupon.error.exception.AlreadyRedeemedCouponException;
+import com.kakaopay.coupon.error.exception.DuplicateEmailException;
+import com.kakaopay.coupon.error.exception.SoldOutCampaignException;
+import com.kakaopay.coupon.model.dto.CampaignCreateDTO;
+import com.kakaopay.coupon.model.dto.CouponCreateDTO;
+import com.kakaopay.coupon.repository.CouponRepository;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "coupon.issue.mode=OPTIMISTIC")
+public class CouponIssueContentionTest extends AcceptanceTest {
+
+    private static final int THREAD_COUNT = 32;
+    private static final String DUPLICATE = "duplicate";
+    private static final String ALREADY_REDEEMED = "already redeemed";
+    private static final String SOLD_OUT = "sold out";
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponRepository couponRepo;
+
+    @Autowired
+    private CampaignService campaignService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 발급 중에 들어온 요청은 같은 쿠폰을 받고, 발급이 끝난 뒤에 들어온 요청은 중복으로 실패한다.
+     */
+    @Test
+    public void sameEmailIssuedOnlyOnceTest() throws Exception {
+        // when
+        List<String> results = runConcurrently(index -> {
+            try {
+                return couponService.create("jimin.joo@nhnsoft.com").getCode();
+            } catch (DuplicateEmailException e) {
+                return DUPLICATE;
+            }
+        });
+
+        // then
+        Set<String> codes = new HashSet<>(results);
+        codes.remove(DUPLICATE);
+        assertThat(codes).hasSize(1);
+        assertThat(couponRepo.count()).isEqualTo(1);
+        assertThat(couponRepo.findByEmail("jimin.joo@nhnsoft.com").getCode()).isEqualTo(codes.iterator().next());
+    }
+
+    @Test
+    public void sameCodeRedeemedOnlyOnceTest() throws Exception {
+        // given
+        String code = couponService.create("jimin.joo@nhnsoft.com").getCode();
+
+        // when
+        List<String> results = runConcurrently(index -> {
+            try {
+                return couponService.redeem(code, "order-" + index).getRedeemedOrderId();
+            } catch (AlreadyRedeemedCouponException e) {
+                return ALREADY_REDEEMED;
+            }
+        });
+
+        // then
+        Set<String> winners = new HashSet<>(results);
+        winners.remove(ALREADY_REDEEMED);
+        assertThat(winners).hasSize(1);
+        assertThat(Collections.frequency(results, ALREADY_REDEEMED)).isEqualTo(THREAD_COUNT - 1);
+        assertThat(couponRepo.findByCode(code).getRedeemedOrderId()).isEqualTo(winners.iterator().next());
+    }
+
+    @Test
+    public void differentEmailsAllIssuedTest() throws Exception {
+        // when
+        List<String> codes = runConcurrently(index -> couponService.create("jimin.joo" + index + "@nhnsoft.com")
+                                                                   .getCode());
+
+        // then
+        assertThat(codes).doesNotHaveDuplicates().hasSize(THREAD_COUNT);
+        assertThat(couponRepo.count()).isEqualTo(THREAD_COUNT);
+    }
+
+    /**
+     * 재고의 10배가 한꺼번에 몰려도 재고만큼만 발급되고 나머지는 품절로 실패한다.
+     */
+    @Test
+    public void campaignNeverOverIssuedTest() throws Exception {
+        // given
+        int stock = THREAD_COUNT / 10;
+        Long campaignId = campaignService.create(new CampaignCreateDTO("first come", stock)).getId();
+
+        // when
+        List<String> results = runConcurrently(index -> {
+            try {
+                return couponService.create(new CouponCreateDTO("jimin.joo" + index + "@nhnsoft.com", campaignId))
+                                    .getCode();
+            } catch (SoldOutCampaignException e) {
+                return SOLD_OUT;
+            }
+        });
+
+        // then
+        assertThat(Collections.frequency(results, SOLD_OUT)).isEqualTo(THREAD_COUNT - stock);
+        assertThat(couponRepo.countByCampaignId(campaignId)).isEqualTo(stock);
+    }
+
+    private <T> List<T> runConcurrently(IndexedTask<T> task) throws Exception {
+        CountDownLatch ready = new CountDownLatch(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            final int index = i;
+            futures.add(executor.submit((Callable<T>) () -> {
+                ready.countDown();
+                start.await();
+                return task.run(index);
+            }));
+        }
+        ready.await();
+        start.countDown();
+
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private interface IndexedTask<T> {
+        T run(int index) throws Exception;
+    }
+}
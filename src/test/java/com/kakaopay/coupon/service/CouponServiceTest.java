@@ -3,22 +3,56 @@ package com.kakaopay.coupon.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
+import com.kakaopay.coupon.configuration.CodeFormatProperties;
+import com.kakaopay.coupon.configuration.CouponCacheProperties;
+import com.kakaopay.coupon.configuration.EmailProperties;
+import com.kakaopay.coupon.configuration.IssueProperties;
+import com.kakaopay.coupon.core.CodeFormat;
 import com.kakaopay.coupon.core.CodeGenerator;
+import com.kakaopay.coupon.error.exception.AlreadyRedeemedCouponException;
 import com.kakaopay.coupon.error.exception.CodeCollisionException;
 import com.kakaopay.coupon.error.exception.DuplicateEmailException;
 import com.kakaopay.coupon.error.exception.EmptyEmailException;
+import com.kakaopay.coupon.error.exception.InvalidCursorException;
 import com.kakaopay.coupon.error.exception.NotExistCouponException;
+import com.kakaopay.coupon.error.exception.SoldOutCampaignException;
 import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.IssueMode;
+import com.kakaopay.coupon.model.ReservedCode;
+import com.kakaopay.coupon.model.dto.CouponBatchResultDTO;
 import com.kakaopay.coupon.model.dto.CouponCreateDTO;
+import com.kakaopay.coupon.model.dto.CouponCursor;
+import com.kakaopay.coupon.model.dto.CouponSliceDTO;
+import com.kakaopay.coupon.model.dto.IssueStatus;
 import com.kakaopay.coupon.repository.CouponRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.function.Supplier;
+import javax.validation.Validation;
+import javax.validation.Validator;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @RunWith(MockitoJUnitRunner.class)
 public class CouponServiceTest {
@@ -29,6 +63,48 @@ public class CouponServiceTest {
     @Mock
     private CodeGenerator codeGenerator;
 
+    @Mock
+    private CouponCodePool codePool;
+
+    @Mock
+    private CouponExistenceFilter existenceFilter;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private IssueProperties issueProperties = new IssueProperties();
+
+    @Spy
+    private TransactionTemplate transactionTemplate =
+        new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+
+    @Spy
+    private CouponCache couponCache = new CouponCache(new CouponCacheProperties(), new SimpleMeterRegistry());
+
+    @Mock
+    private CouponCodeSpace codeSpace;
+
+    @Mock
+    private CouponWriteBehind writeBehind;
+
+    @Mock
+    private CouponIssueCoalescer coalescer;
+
+    @Mock
+    private CampaignStock campaignStock;
+
+    @Spy
+    private CouponCodeFormats codeFormats = new CouponCodeFormats(new CodeFormatProperties());
+
+    @Spy
+    private EmailNormalizer emailNormalizer = new EmailNormalizer(new EmailProperties());
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CouponMetrics couponMetrics = new CouponMetrics(meterRegistry);
+
     @InjectMocks
     private CouponService couponService;
 
@@ -50,6 +126,254 @@ public class CouponServiceTest {
         BDDMockito.then(couponRepo).should().findOne(1L);
     }
 
+    @Test
+    public void couponGetTestCached() {
+        // given
+        Coupon expected = new Coupon("jimin.joo@nhnsoft.com", "abc");
+        expected.setId(1L);
+        BDDMockito.given(couponRepo.findOne(1L)).willReturn(expected);
+
+        // when
+        couponService.get(1L);
+        Coupon byEmail = couponService.getByEmail("jimin.joo@nhnsoft.com");
+        Coupon byCode = couponService.getByCode("abc");
+        Coupon byId = couponService.get(1L);
+
+        // then
+        assertThat(byEmail).isEqualTo(expected);
+        assertThat(byCode).isEqualTo(expected);
+        assertThat(byId).isEqualTo(expected);
+        BDDMockito.then(couponRepo).should(times(1)).findOne(1L);
+        BDDMockito.then(couponRepo).should(times(0)).findByEmail(any(String.class));
+        BDDMockito.then(couponRepo).should(times(0)).findByCode(any(String.class));
+    }
+
+    @Test
+    public void couponGetByCodeTestNotFound() {
+        // when
+        assertThatThrownBy(() -> couponService.getByCode("abc"))
+            .isInstanceOf(NotExistCouponException.class)
+            .hasMessageStartingWith("Not exist coupon with code");
+    }
+
+    @Test
+    public void createTestPopulatesCache() {
+        // given
+        issueProperties.setMode(IssueMode.OPTIMISTIC);
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        BDDMockito.given(couponRepo.saveAndFlush(any(Coupon.class))).willAnswer(invocation -> {
+            Coupon coupon = (Coupon) invocation.getArguments()[0];
+            coupon.setId(1L);
+            return coupon;
+        });
+
+        // when
+        Coupon created = couponService.create(new CouponCreateDTO("jimin.joo@nhnsoft.com"));
+
+        // then
+        assertThat(couponService.get(1L)).isEqualTo(created);
+        assertThat(couponService.getByCode("abc")).isEqualTo(created);
+        BDDMockito.then(couponRepo).should(times(0)).findOne(1L);
+    }
+
+    @Test
+    public void getSliceTest() {
+        // given
+        Coupon first = new Coupon("jimin.joo1@nhnsoft.com", "abc");
+        first.setId(1L);
+        Coupon second = new Coupon("jimin.joo2@nhnsoft.com", "def");
+        second.setId(2L);
+        BDDMockito.given(couponRepo.findAfterId(eq(0L), any(Pageable.class)))
+                  .willReturn(new ArrayList<>(Arrays.asList(first, second)));
+
+        // when
+        CouponSliceDTO slice = couponService.getSlice(null, CouponCursor.Sort.ID, 1);
+
+        // then
+        assertThat(slice.getContent()).containsExactly(first);
+        assertThat(CouponCursor.decode(slice.getNext()).getId()).isEqualTo(1L);
+        BDDMockito.then(couponRepo).should(times(0)).count();
+    }
+
+    @Test
+    public void getSliceTestSortMismatch() {
+        // when
+        assertThatThrownBy(() -> couponService.getSlice(CouponCursor.afterId(1L), CouponCursor.Sort.CREATED_AT, 10))
+            .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    public void createTestRecordsCodeAttempts() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc", "def");
+        BDDMockito.given(existenceFilter.isNewCode("abc")).willReturn(false);
+        BDDMockito.given(couponRepo.existsByCode("abc")).willReturn(true);
+        BDDMockito.given(existenceFilter.isNewCode("def")).willReturn(true);
+        BDDMockito.given(existenceFilter.isNewEmail(email)).willReturn(true);
+
+        // when
+        couponService.create(email);
+
+        // then
+        assertThat(meterRegistry.get("coupon.code.attempts").summary().max()).isEqualTo(2);
+        assertThat(meterRegistry.get("coupon.create").tag("outcome", CouponMetrics.SUCCESS).timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("coupon.create.stage").tag("stage", CouponMetrics.STAGE_SAVE).timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void createTestWithCodeSpace() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        BDDMockito.given(codeSpace.isEnabled()).willReturn(true);
+        BDDMockito.given(codeSpace.next()).willReturn("abc");
+        BDDMockito.given(existenceFilter.isNewEmail(email)).willReturn(true);
+
+        // when
+        Coupon actual = couponService.create(email);
+
+        // then
+        assertThat(actual.getCode()).isEqualTo("abc");
+        BDDMockito.then(couponRepo).should(times(0)).existsByCode(any(String.class));
+        Mockito.verifyZeroInteractions(codeGenerator);
+    }
+
+    @Test
+    public void createTestWriteBehind() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        issueProperties.setMode(IssueMode.WRITE_BEHIND);
+        BDDMockito.given(writeBehind.reserve(email)).willReturn(true);
+        BDDMockito.given(writeBehind.issue(any(Coupon.class))).willAnswer(invocation -> invocation.getArguments()[0]);
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        BDDMockito.given(existenceFilter.isNewEmail(email)).willReturn(true);
+        BDDMockito.given(existenceFilter.isNewCode("abc")).willReturn(true);
+
+        // when
+        Coupon actual = couponService.create(email);
+
+        // then
+        assertThat(actual.getId()).isNull();
+        assertThat(actual.getCode()).isEqualTo("abc");
+        BDDMockito.then(couponRepo).should(times(0)).save(any(Coupon.class));
+        BDDMockito.then(writeBehind).should(times(0)).release(email);
+    }
+
+    @Test
+    public void createTestWriteBehindDuplicate() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        issueProperties.setMode(IssueMode.WRITE_BEHIND);
+        BDDMockito.given(writeBehind.reserve(email)).willReturn(true);
+        BDDMockito.given(couponRepo.existsByEmail(email)).willReturn(true);
+
+        // when
+        assertThatThrownBy(() -> couponService.create(email))
+            .isInstanceOf(DuplicateEmailException.class);
+
+        // then
+        BDDMockito.then(writeBehind).should().release(email);
+        BDDMockito.then(writeBehind).should(times(0)).issue(any(Coupon.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createTestCoalesced() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        Coupon issued = new Coupon(email, "abc");
+        BDDMockito.given(coalescer.isEnabled()).willReturn(true);
+        BDDMockito.given(coalescer.issue(eq(email), any(Supplier.class))).willReturn(issued);
+
+        // when
+        Coupon actual = couponService.create(email);
+
+        // then
+        assertThat(actual).isSameAs(issued);
+        BDDMockito.then(couponRepo).should(times(0)).existsByEmail(email);
+        BDDMockito.then(couponRepo).should(times(0)).save(any(Coupon.class));
+    }
+
+    @Test
+    public void redeemTestRetried() {
+        // given
+        Coupon redeemed = new Coupon("jimin.joo@nhnsoft.com", "8io4-7KPN-dzc6-Ov6h");
+        redeemed.setId(1L);
+        redeemed.setRedeemedOrderId("order-1");
+        BDDMockito.given(couponRepo.redeem(eq("8io4-7KPN-dzc6-Ov6h"), eq("order-1"), any(Date.class))).willReturn(0);
+        BDDMockito.given(couponRepo.findByCode("8io4-7KPN-dzc6-Ov6h")).willReturn(redeemed);
+
+        // when
+        Coupon actual = couponService.redeem("8io4-7KPN-dzc6-Ov6h", "order-1");
+
+        // then
+        assertThat(actual).isSameAs(redeemed);
+        assertThat(meterRegistry.get("coupon.redeem").tag("outcome", "retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void redeemTestReplacesCachedCoupon() {
+        // given
+        Coupon unredeemed = new Coupon("jimin.joo@nhnsoft.com", "8io4-7KPN-dzc6-Ov6h");
+        unredeemed.setId(1L);
+        couponCache.put(unredeemed);
+        Coupon redeemed = unredeemed.copy();
+        redeemed.setRedeemedAt(new Date());
+        redeemed.setRedeemedOrderId("order-1");
+        BDDMockito.given(couponRepo.redeem(eq("8io4-7KPN-dzc6-Ov6h"), eq("order-1"), any(Date.class))).willReturn(1);
+        BDDMockito.given(couponRepo.findByCode("8io4-7KPN-dzc6-Ov6h")).willReturn(redeemed);
+
+        // when
+        couponService.redeem("8io4-7KPN-dzc6-Ov6h", "order-1");
+
+        // then
+        assertThat(couponService.get(1L).getRedeemedOrderId()).isEqualTo("order-1");
+        assertThat(couponService.getByEmail("jimin.joo@nhnsoft.com").getRedeemedOrderId()).isEqualTo("order-1");
+        BDDMockito.then(couponRepo).should(times(0)).findOne(1L);
+    }
+
+    @Test
+    public void redeemTestAlreadyRedeemed() {
+        // given
+        Coupon redeemed = new Coupon("jimin.joo@nhnsoft.com", "8io4-7KPN-dzc6-Ov6h");
+        redeemed.setRedeemedOrderId("order-1");
+        BDDMockito.given(couponRepo.redeem(eq("8io4-7KPN-dzc6-Ov6h"), eq("order-2"), any(Date.class))).willReturn(0);
+        BDDMockito.given(couponRepo.findByCode("8io4-7KPN-dzc6-Ov6h")).willReturn(redeemed);
+
+        // when, then
+        assertThatThrownBy(() -> couponService.redeem("8io4-7KPN-dzc6-Ov6h", "order-2"))
+            .isInstanceOf(AlreadyRedeemedCouponException.class);
+    }
+
+    @Test
+    public void redeemTestInvalidCode() {
+        // when, then
+        assertThatThrownBy(() -> couponService.redeem("abc", "order-1"))
+            .isInstanceOf(NotExistCouponException.class);
+        BDDMockito.then(couponRepo).should(times(0)).redeem(any(String.class), any(String.class), any(Date.class));
+        assertThat(meterRegistry.get("coupon.redeem").tag("outcome", "NotExistCouponException").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void createAllTestWithCodeSpace() {
+        // given
+        BDDMockito.given(codeSpace.isEnabled()).willReturn(true);
+        BDDMockito.given(codeSpace.next(2)).willReturn(Arrays.asList("abc", "def"));
+        BDDMockito.given(existenceFilter.isNewEmail(any(String.class))).willReturn(true);
+
+        // when
+        CouponBatchResultDTO actual = couponService.createAll(
+            Arrays.asList("jimin.joo1@nhnsoft.com", "jimin.joo2@nhnsoft.com"));
+
+        // then
+        assertThat(actual.getIssued()).isEqualTo(2);
+        BDDMockito.then(couponRepo).should(times(0)).findCodesIn(anyCollectionOf(String.class));
+        Mockito.verifyZeroInteractions(codeGenerator);
+    }
+
     @Test
     public void couponGetTestNotFound() {
         // when
@@ -79,6 +403,127 @@ public class CouponServiceTest {
         BDDMockito.then(couponRepo).should().save(any(Coupon.class));
     }
 
+    @Test
+    public void createTestWithReservedCode() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        ReservedCode reserved = new ReservedCode("abc", "default");
+        reserved.setId(1L);
+        BDDMockito.given(codePool.poll()).willReturn(reserved);
+
+        // when
+        Coupon actual = couponService.create(new CouponCreateDTO(email));
+
+        // then
+        assertThat(actual.getCode()).isEqualTo("abc");
+        BDDMockito.then(codeGenerator).should(times(0)).generateCode();
+        BDDMockito.then(couponRepo).should(times(0)).existsByCode(any(String.class));
+        BDDMockito.then(codePool).should().consume(reserved);
+    }
+
+    @Test
+    public void createTestDuplicateEmailGivesBackReservedCode() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        ReservedCode reserved = new ReservedCode("abc", "default");
+        BDDMockito.given(codePool.poll()).willReturn(reserved);
+        BDDMockito.given(couponRepo.existsByEmail(email)).willReturn(true);
+
+        // when
+        assertThatThrownBy(() -> couponService.create(new CouponCreateDTO(email)))
+            .isInstanceOf(DuplicateEmailException.class);
+
+        // then
+        BDDMockito.then(codePool).should().giveBack(reserved);
+        BDDMockito.then(codePool).should(times(0)).consume(reserved);
+    }
+
+    @Test
+    public void createTestSoldOutCampaign() {
+        // given
+        BDDMockito.given(campaignStock.tryAcquire(1L)).willReturn(false);
+
+        // when
+        assertThatThrownBy(() -> couponService.create(new CouponCreateDTO("jimin.joo@nhnsoft.com", 1L)))
+            .isInstanceOf(SoldOutCampaignException.class);
+
+        // then
+        BDDMockito.then(couponRepo).should(times(0)).save(any(Coupon.class));
+        BDDMockito.then(campaignStock).should(times(0)).release(1L);
+    }
+
+    @Test
+    public void createTestCampaignStockReleasedOnFailure() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        BDDMockito.given(campaignStock.tryAcquire(1L)).willReturn(true);
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        BDDMockito.given(couponRepo.existsByEmail(email)).willReturn(true);
+
+        // when
+        assertThatThrownBy(() -> couponService.create(new CouponCreateDTO(email, 1L)))
+            .isInstanceOf(DuplicateEmailException.class);
+
+        // then
+        BDDMockito.then(campaignStock).should().release(1L);
+    }
+
+    @Test
+    public void createTestCampaignCodeFormat() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        CodeFormat format = CodeFormat.compile("23456789ABCDEFGHJKLMNPQRSTUVWXYZ", 10, 4, '-', "PR-",
+                                               CodeFormat.Checksum.LUHN);
+        BDDMockito.given(campaignStock.tryAcquire(1L)).willReturn(true);
+        BDDMockito.given(campaignStock.codeFormatOf(1L)).willReturn("promo");
+        BDDMockito.given(codeFormats.get("promo")).willReturn(format);
+        BDDMockito.given(codeGenerator.generateCode(format)).willReturn("PR-ABCD-EFGH-JKL");
+        BDDMockito.given(existenceFilter.isNewEmail(email)).willReturn(true);
+        BDDMockito.given(existenceFilter.isNewCode("PR-ABCD-EFGH-JKL")).willReturn(true);
+
+        // when
+        Coupon actual = couponService.create(new CouponCreateDTO(email, 1L));
+
+        // then
+        assertThat(actual.getCode()).isEqualTo("PR-ABCD-EFGH-JKL");
+        BDDMockito.then(codePool).should(times(0)).poll();
+        BDDMockito.then(codeGenerator).should(times(0)).generateCode();
+        BDDMockito.then(campaignStock).should(times(0)).release(1L);
+    }
+
+    @Test
+    public void createTestSkipsExistsQueryWhenFilterIsNegative() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        BDDMockito.given(existenceFilter.isNewEmail(email)).willReturn(true);
+        BDDMockito.given(existenceFilter.isNewCode("abc")).willReturn(true);
+
+        // when
+        Coupon actual = couponService.create(new CouponCreateDTO(email));
+
+        // then
+        assertThat(actual.getCode()).isEqualTo("abc");
+        BDDMockito.then(couponRepo).should(times(0)).existsByEmail(email);
+        BDDMockito.then(couponRepo).should(times(0)).existsByCode("abc");
+        BDDMockito.then(existenceFilter).should().put(email, "abc");
+    }
+
+    @Test
+    public void createTestRecordsFilterFalsePositive() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+
+        // when
+        couponService.create(new CouponCreateDTO(email));
+
+        // then
+        BDDMockito.then(couponRepo).should().existsByEmail(email);
+        BDDMockito.then(existenceFilter).should().recordEmailFalsePositive();
+        BDDMockito.then(existenceFilter).should().recordCodeFalsePositive();
+    }
+
     @Test
     public void createTestEmailIsEmpty() {
         // when
@@ -122,4 +567,199 @@ public class CouponServiceTest {
         BDDMockito.then(codeGenerator).should(times(5)).generateCode();
         BDDMockito.then(couponRepo).should(times(5)).existsByCode(code);
     }
+
+    @Test
+    public void createAllTest() {
+        // given
+        final String issued = "issued@nhnsoft.com";
+        BDDMockito.given(couponRepo.findEmailsIn(anyCollectionOf(String.class)))
+                   .willReturn(Collections.singletonList(issued));
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc", "def");
+
+        // when
+        CouponBatchResultDTO actual = couponService.createAll(
+            Arrays.asList("a@nhnsoft.com", "invalid", issued, "b@nhnsoft.com", "a@nhnsoft.com", ""));
+
+        // then
+        assertThat(actual.getIssued()).isEqualTo(2);
+        assertThat(actual.getDuplicate()).isEqualTo(2);
+        assertThat(actual.getInvalid()).isEqualTo(2);
+        assertThat(actual.getResults()).extracting(CouponBatchResultDTO.Item::getStatus)
+                                       .containsExactly(IssueStatus.ISSUED, IssueStatus.INVALID,
+                                                        IssueStatus.DUPLICATE, IssueStatus.ISSUED,
+                                                        IssueStatus.DUPLICATE, IssueStatus.INVALID);
+        assertThat(actual.getResults().get(0).getCode()).isNotEqualTo(actual.getResults().get(3).getCode());
+
+        BDDMockito.then(couponRepo).should(times(1)).findEmailsIn(anyCollectionOf(String.class));
+        BDDMockito.then(couponRepo).should(times(1)).findCodesIn(anyCollectionOf(String.class));
+        BDDMockito.then(couponRepo).should(times(1)).insertAll(anyListOf(Coupon.class));
+    }
+
+    @Test
+    public void createAllInTransactionTestFilterAfterCommit() {
+        // given
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            CouponBatchResultDTO actual = couponService.createAllInTransaction(Arrays.asList("a@nhnsoft.com"));
+            BDDMockito.then(existenceFilter).should(times(0)).put("a@nhnsoft.com", "abc");
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                                                                  TransactionSynchronization.STATUS_COMMITTED);
+
+            // then
+            assertThat(actual.getIssued()).isEqualTo(1);
+            BDDMockito.then(existenceFilter).should().put("a@nhnsoft.com", "abc");
+            BDDMockito.then(transactionTemplate).should(times(0)).execute(any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void createAllInTransactionTestViolationPropagates() {
+        // given
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        Mockito.doThrow(new DataIntegrityViolationException(Coupon.EMAIL_UNIQUE_KEY))
+               .when(couponRepo).insertAll(anyListOf(Coupon.class));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when, then
+            assertThatThrownBy(() -> couponService.createAllInTransaction(Arrays.asList("a@nhnsoft.com")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+            BDDMockito.then(couponRepo).should(times(1)).insertAll(anyListOf(Coupon.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void createAllTestConcurrentDuplicate() {
+        // given - 확인과 insert 사이에 다른 요청이 a@nhnsoft.com 을 먼저 저장한다
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc", "def", "ghi", "jkl");
+        DataIntegrityViolationException violation =
+            new DataIntegrityViolationException("Unique index or primary key violation: " + Coupon.EMAIL_UNIQUE_KEY);
+        Mockito.doThrow(violation).doThrow(violation).doNothing()
+               .when(couponRepo).insertAll(anyListOf(Coupon.class));
+
+        // when
+        CouponBatchResultDTO actual = couponService.createAll(Arrays.asList("a@nhnsoft.com", "b@nhnsoft.com"));
+
+        // then
+        assertThat(actual.getResults()).extracting(CouponBatchResultDTO.Item::getStatus)
+                                       .containsExactly(IssueStatus.DUPLICATE, IssueStatus.ISSUED);
+        assertThat(actual.getResults().get(1).getCode()).isEqualTo("jkl");
+        BDDMockito.then(couponRepo).should(times(3)).insertAll(anyListOf(Coupon.class));
+        BDDMockito.then(existenceFilter).should(times(0)).put(eq("a@nhnsoft.com"), any(String.class));
+    }
+
+    @Test
+    public void createAllTestWriteBehindReserved() {
+        // given - pending@nhnsoft.com 은 WRITE_BEHIND 로 발급돼 저장을 기다리고 있다
+        BDDMockito.given(writeBehind.isEnabled()).willReturn(true);
+        BDDMockito.given(writeBehind.reserve("a@nhnsoft.com")).willReturn(true);
+        BDDMockito.given(writeBehind.reserve("pending@nhnsoft.com")).willReturn(false);
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+
+        // when
+        CouponBatchResultDTO actual = couponService.createAll(Arrays.asList("a@nhnsoft.com", "pending@nhnsoft.com"));
+
+        // then
+        assertThat(actual.getResults()).extracting(CouponBatchResultDTO.Item::getStatus)
+                                       .containsExactly(IssueStatus.ISSUED, IssueStatus.DUPLICATE);
+        BDDMockito.then(couponRepo).should().findEmailsIn(Collections.singletonList("a@nhnsoft.com"));
+        BDDMockito.then(writeBehind).should().release("a@nhnsoft.com");
+        BDDMockito.then(writeBehind).should(times(0)).release("pending@nhnsoft.com");
+    }
+
+    @Test
+    public void createAllTestDuplicateCode() {
+        // given
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        BDDMockito.given(couponRepo.findCodesIn(anyCollectionOf(String.class)))
+                   .willReturn(Collections.singletonList("abc"));
+
+        // when
+        assertThatThrownBy(() -> couponService.createAll(Collections.singletonList("a@nhnsoft.com")))
+            .isInstanceOf(CodeCollisionException.class)
+            .hasMessage("Fail to create Coupon. Collision occur more than 5 in code generator.");
+
+        // then
+        BDDMockito.then(codeGenerator).should(times(5)).generateCode();
+    }
+
+    @Test
+    public void createOptimisticTest() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        issueProperties.setMode(IssueMode.OPTIMISTIC);
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        BDDMockito.given(couponRepo.saveAndFlush(any(Coupon.class))).willAnswer(invocation -> invocation.getArguments()[0]);
+
+        // when
+        Coupon actual = couponService.create(new CouponCreateDTO(email));
+
+        // then
+        assertThat(actual.getCode()).isEqualTo("abc");
+        BDDMockito.then(couponRepo).should(times(0)).existsByEmail(email);
+        BDDMockito.then(couponRepo).should(times(0)).existsByCode("abc");
+        BDDMockito.then(couponRepo).should(times(1)).saveAndFlush(any(Coupon.class));
+    }
+
+    @Test
+    public void createOptimisticTestRetryOnCodeCollision() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        issueProperties.setMode(IssueMode.OPTIMISTIC);
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc", "def");
+        BDDMockito.given(couponRepo.saveAndFlush(any(Coupon.class)))
+                   .willThrow(violation(Coupon.CODE_UNIQUE_KEY))
+                   .willAnswer(invocation -> invocation.getArguments()[0]);
+
+        // when
+        Coupon actual = couponService.create(new CouponCreateDTO(email));
+
+        // then
+        assertThat(actual.getCode()).isEqualTo("def");
+        BDDMockito.then(codeGenerator).should(times(2)).generateCode();
+    }
+
+    @Test
+    public void createOptimisticTestDuplicateEmail() {
+        // given
+        final String email = "jimin.joo@nhnsoft.com";
+        issueProperties.setMode(IssueMode.OPTIMISTIC);
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        BDDMockito.given(couponRepo.saveAndFlush(any(Coupon.class))).willThrow(violation(Coupon.EMAIL_UNIQUE_KEY));
+
+        // when
+        assertThatThrownBy(() -> couponService.create(new CouponCreateDTO(email)))
+            .isInstanceOf(DuplicateEmailException.class)
+            .hasMessage("Fail to create Coupon. Already coupon issued for this mail.");
+
+        // then
+        BDDMockito.then(codeGenerator).should(times(1)).generateCode();
+    }
+
+    @Test
+    public void createOptimisticTestDuplicateCode() {
+        // given
+        issueProperties.setMode(IssueMode.OPTIMISTIC);
+        BDDMockito.given(codeGenerator.generateCode()).willReturn("abc");
+        BDDMockito.given(couponRepo.saveAndFlush(any(Coupon.class))).willThrow(violation(Coupon.CODE_UNIQUE_KEY));
+
+        // when
+        assertThatThrownBy(() -> couponService.create(new CouponCreateDTO("jimin.joo@nhnsoft.com")))
+            .isInstanceOf(CodeCollisionException.class)
+            .hasMessage("Fail to create Coupon. Collision occur more than 5 in code generator.");
+
+        // then
+        BDDMockito.then(codeGenerator).should(times(5)).generateCode();
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+            new IllegalStateException("Unique index or primary key violation: \"" + constraintName.toUpperCase()
+                                          + "_INDEX_7 ON PUBLIC.COUPON\""));
+    }
 }
@@ -0,0 +1,156 @@
+package com.kakaopay.coupon.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
+
+import com.kakaopay.coupon.configuration.CouponCacheProperties;
+import com.kakaopay.coupon.configuration.IssueProperties;
+import com.kakaopay.coupon.configuration.WriteBehindProperties;
+import com.kakaopay.coupon.model.Coupon;
+import com.kakaopay.coupon.model.IssueMode;
+import com.kakaopay.coupon.repository.CouponRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CouponWriteBehindTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private CouponRepository couponRepo;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CouponExistenceFilter existenceFilter;
+
+    private final WriteBehindProperties properties = new WriteBehindProperties();
+    private final IssueProperties issueProperties = new IssueProperties();
+    private final List<Coupon> stored = Collections.synchronizedList(new ArrayList<>());
+    private MeterRegistry meterRegistry;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        properties.setDirectory(folder.getRoot().getPath());
+        properties.setSegmentSize(4096);
+        properties.setFlushIntervalMillis(10);
+        issueProperties.setMode(IssueMode.WRITE_BEHIND);
+        BDDMockito.given(transactionTemplate.execute(any(TransactionCallback.class)))
+                   .willAnswer(invocation -> ((TransactionCallback) invocation.getArguments()[0]).doInTransaction(null));
+        BDDMockito.willAnswer(invocation -> stored.addAll((List<Coupon>) invocation.getArguments()[0]))
+                  .given(couponRepo).insertAll(anyListOf(Coupon.class));
+    }
+
+    @Test
+    public void issueAndFlushTest() throws Exception {
+        // given
+        CouponWriteBehind writeBehind = start();
+        writeBehind.reserve("jimin.joo@nhnsoft.com");
+
+        // when
+        Coupon issued = writeBehind.issue(new Coupon("jimin.joo@nhnsoft.com", "abc"));
+
+        // then
+        assertThat(issued.getId()).isNull();
+        awaitFlushed(writeBehind);
+        assertThat(stored).extracting(Coupon::getCode).containsExactly("abc");
+        assertThat(writeBehind.findPendingByCode("abc")).isNull();
+        assertThat(writeBehind.reserve("jimin.joo@nhnsoft.com")).isTrue();
+        assertThat(meterRegistry.get("coupon.write.behind.flushed").counter().count()).isEqualTo(1);
+        writeBehind.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void replayUnflushedOnRestartTest() throws Exception {
+        // given - DB 가 멈춰 저장하지 못한 채 노드가 내려간다
+        BDDMockito.willThrow(new IllegalStateException("db down"))
+                  .given(couponRepo).insertAll(anyListOf(Coupon.class));
+        CouponWriteBehind stopped = start();
+        for (int i = 1; i <= 3; i++) {
+            stopped.reserve("user" + i + "@nhnsoft.com");
+            stopped.issue(new Coupon("user" + i + "@nhnsoft.com", "code" + i));
+        }
+        stopped.destroy();
+        assertThat(stored).isEmpty();
+
+        // when - DB 가 돌아온 뒤 같은 디렉터리로 다시 뜬다
+        BDDMockito.willAnswer(invocation -> stored.addAll((List<Coupon>) invocation.getArguments()[0]))
+                  .given(couponRepo).insertAll(anyListOf(Coupon.class));
+        CouponWriteBehind recovered = start();
+
+        // then
+        assertThat(stored).extracting(Coupon::getCode).containsExactly("code1", "code2", "code3");
+        assertThat(recovered.pending()).isZero();
+        assertThat(meterRegistry.get("coupon.write.behind.replayed").counter().count()).isEqualTo(3);
+        recovered.destroy();
+
+        CouponWriteBehind restarted = start();
+        assertThat(stored).hasSize(3);
+        restarted.destroy();
+    }
+
+    @Test
+    public void replaySkipsAlreadyStoredTest() throws Exception {
+        // given - DB 커밋 후 checkpoint 전에 죽어서 저장된 건이 저널에 남아 있다
+        CouponWriteBehind crashed = start();
+        crashed.reserve("user1@nhnsoft.com");
+        crashed.issue(new Coupon("user1@nhnsoft.com", "code1"));
+        crashed.reserve("user2@nhnsoft.com");
+        crashed.issue(new Coupon("user2@nhnsoft.com", "code2"));
+        awaitFlushed(crashed);
+        crashed.destroy();
+        new File(folder.getRoot(), "checkpoint").delete();
+        stored.clear();
+        BDDMockito.given(couponRepo.findEmailsIn(anyCollectionOf(String.class)))
+                   .willReturn(Collections.singletonList("user1@nhnsoft.com"));
+        BDDMockito.given(couponRepo.findCodesIn(anyCollectionOf(String.class)))
+                   .willReturn(Collections.singletonList("code1"));
+
+        // when
+        CouponWriteBehind recovered = start();
+
+        // then
+        assertThat(stored).extracting(Coupon::getCode).containsExactly("code2");
+        assertThat(meterRegistry.get("coupon.write.behind.dropped").counter().count()).isZero();
+        recovered.destroy();
+    }
+
+    private CouponWriteBehind start() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        CouponWriteBehind writeBehind = new CouponWriteBehind(
+            properties, issueProperties, couponRepo, transactionTemplate, existenceFilter,
+            new CouponCache(new CouponCacheProperties(), meterRegistry), meterRegistry);
+        writeBehind.init();
+        return writeBehind;
+    }
+
+    private static void awaitFlushed(CouponWriteBehind writeBehind) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writeBehind.pending() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(writeBehind.pending()).isZero();
+    }
+}
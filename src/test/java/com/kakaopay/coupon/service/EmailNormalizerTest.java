@@ -0,0 +1,32 @@
+package com.kakaopay.coupon.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kakaopay.coupon.configuration.EmailProperties;
+import org.junit.Test;
+
+public class EmailNormalizerTest {
+
+    private final EmailProperties properties = new EmailProperties();
+    private final EmailNormalizer normalizer = new EmailNormalizer(properties);
+
+    @Test
+    public void caseFoldingAndTrimTest() {
+        // when
+        String actual = normalizer.normalize("  Jimin.Joo+Event@NHNSoft.com ");
+
+        // then
+        assertThat(actual).isEqualTo("jimin.joo+event@nhnsoft.com");
+    }
+
+    @Test
+    public void providerRulesTest() {
+        // given
+        properties.setProviderRules(true);
+
+        // when, then
+        assertThat(normalizer.normalize("Jimin.Joo+Event@Gmail.com")).isEqualTo("jiminjoo@gmail.com");
+        assertThat(normalizer.normalize("jimin.joo+event@outlook.com")).isEqualTo("jimin.joo@outlook.com");
+        assertThat(normalizer.normalize("jimin.joo+event@nhnsoft.com")).isEqualTo("jimin.joo+event@nhnsoft.com");
+    }
+}
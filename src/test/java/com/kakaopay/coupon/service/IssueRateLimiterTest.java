@@ -0,0 +1,112 @@
+package com.kakaopay.coupon.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.kakaopay.coupon.configuration.RateLimitProperties;
+import com.kakaopay.coupon.error.exception.RateLimitedException;
+import com.kakaopay.coupon.model.dto.RateLimitDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IssueRateLimiterTest {
+
+    @Spy
+    private RateLimitProperties properties = new RateLimitProperties();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private IssueRateLimiter rateLimiter;
+
+    private long now;
+
+    @Before
+    public void setUp() {
+        properties.setPermitsPerSecond(1);
+        properties.setBurst(2);
+        properties.setMaxConcurrent(2);
+        rateLimiter.init();
+        rateLimiter.ticker = () -> now;
+    }
+
+    @Test
+    public void clientLimitTest() {
+        // given
+        rateLimiter.acquire("ip:1").close();
+        rateLimiter.acquire("ip:1").close();
+
+        // when
+        assertThatThrownBy(() -> rateLimiter.acquire("ip:1"))
+            .isInstanceOf(RateLimitedException.class)
+            .hasFieldOrPropertyWithValue("retryAfterSeconds", 1L);
+        rateLimiter.acquire("ip:2").close();
+        now += TimeUnit.SECONDS.toNanos(1);
+        rateLimiter.acquire("ip:1").close();
+
+        // then
+        assertThat(meterRegistry.get("coupon.rate.limit.rejected").tag("reason", IssueRateLimiter.CLIENT)
+                                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("coupon.rate.limit.clients").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    public void concurrencyLimitTest() {
+        // given
+        IssueRateLimiter.Permit first = rateLimiter.acquire("ip:1");
+        IssueRateLimiter.Permit second = rateLimiter.acquire("ip:2");
+
+        // when
+        assertThatThrownBy(() -> rateLimiter.acquire("ip:3")).isInstanceOf(RateLimitedException.class);
+        double inFlight = meterRegistry.get("coupon.rate.limit.in.flight").gauge().value();
+        first.close();
+        second.close();
+        rateLimiter.acquire("ip:3").close();
+
+        // then
+        assertThat(inFlight).isEqualTo(2);
+        assertThat(meterRegistry.get("coupon.rate.limit.in.flight").gauge().value()).isZero();
+        assertThat(meterRegistry.get("coupon.rate.limit.rejected").tag("reason", IssueRateLimiter.CONCURRENCY)
+                                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void reconfigureTest() {
+        // given
+        rateLimiter.acquire("ip:1").close();
+        rateLimiter.acquire("ip:1").close();
+
+        // when
+        RateLimitDTO disabled = rateLimiter.reconfigure(new RateLimitDTO(false, null, null, null));
+        rateLimiter.acquire("ip:1").close();
+
+        // then
+        assertThat(disabled.getEnabled()).isFalse();
+        assertThat(disabled.getBurst()).isEqualTo(2);
+        assertThatThrownBy(() -> rateLimiter.reconfigure(new RateLimitDTO(true, 0.0, null, null)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(properties.isEnabled()).isFalse();
+    }
+
+    @Test
+    public void reconfigureOverJmxTest() {
+        // when
+        String current = rateLimiter.reconfigure(null, 5.0, null, 3);
+
+        // then
+        assertThat(current).isEqualTo("enabled true, 5.0/s, burst 2, max concurrent 3");
+        assertThat(properties.getPermitsPerSecond()).isEqualTo(5.0);
+        assertThatThrownBy(() -> rateLimiter.reconfigure(null, null, 0, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(properties.getBurst()).isEqualTo(2);
+    }
+}